@@ -0,0 +1,109 @@
+#!/usr/bin/env bash
+# Measures time to readiness and to first prediction for the plain jar, the Spring AOT context, and the
+# Spring AOT context plus a JVM class/AOT cache built by a training run.
+#
+#   scripts/startup-benchmark.sh [runs]
+#
+# JAVA (default: java), PORT (default: 8080) and SKIP_BUILD=1 (reuse build/libs) can be set in the
+# environment. On JDK 25+ the cache is an AOT cache (-XX:AOTCacheOutput/-XX:AOTCache); on older JDKs it
+# falls back to a dynamic CDS archive (-XX:ArchiveClassesAtExit/-XX:SharedArchiveFile).
+set -euo pipefail
+
+RUNS=${1:-5}
+JAVA=${JAVA:-java}
+PORT=${PORT:-8080}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK="$ROOT/build/startup"
+PROBE="http://localhost:$PORT/predictor/predict?homeTeam=Barcelona&awayTeam=Real%20Madrid&date=2024-10-26"
+READINESS="http://localhost:$PORT/actuator/health/readiness"
+
+cd "$ROOT"
+if [ "${SKIP_BUILD:-0}" != "1" ]; then
+	./gradlew -q clean bootJar
+fi
+
+JAR=$(ls build/libs/*.jar | grep -v -- -plain | grep -v -- -jmh | head -1)
+rm -rf "$WORK"
+mkdir -p "$WORK"
+"$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted" > /dev/null
+APP="$WORK/extracted/$(basename "$JAR")"
+cp laliga.csv "$WORK/extracted/"
+
+FEATURE=$("$JAVA" -XshowSettings:properties -version 2>&1 | awk -F= '/java.specification.version/ {gsub(/ /, "", $2); print $2}')
+if [ "${FEATURE%%.*}" -ge 25 ]; then
+	CACHE="$WORK/extracted/app.aot"
+	CACHE_WRITE="-XX:AOTCacheOutput=$CACHE"
+	CACHE_READ="-XX:AOTCache=$CACHE"
+else
+	CACHE="$WORK/extracted/app.jsa"
+	CACHE_WRITE="-XX:ArchiveClassesAtExit=$CACHE"
+	CACHE_READ="-XX:SharedArchiveFile=$CACHE"
+fi
+
+now_millis() {
+	date +%s%3N
+}
+
+# Training run; it also trains and saves the model, so every measured start loads the same model file
+echo "Training run on Java $FEATURE ($CACHE_WRITE)"
+(cd "$WORK/extracted" && "$JAVA" $CACHE_WRITE -Dspring.aot.enabled=true -Dpredictor.aot.trainingRun=true \
+	-Dserver.port="$PORT" -jar "$APP" > "$WORK/training.log" 2>&1)
+
+# One start: wall time until the first prediction answers 200 and until readiness reports UP, plus
+# Spring's own "Started ... in" figure. Predictions can answer before readiness, which also waits for
+# the warm-up, so both are recorded.
+measure() {
+	local log="$WORK/run.log"
+	local start pid first="" ready=""
+	start=$(now_millis)
+	(cd "$WORK/extracted" && exec "$JAVA" "$@" -Dserver.port="$PORT" -jar "$APP") > "$log" 2>&1 &
+	pid=$!
+	until [ -n "$first" ] && [ -n "$ready" ]; do
+		if ! kill -0 "$pid" 2> /dev/null; then
+			echo "Application exited during startup, see $log" >&2
+			exit 1
+		fi
+		if [ -z "$first" ] && curl -sf -o /dev/null "$PROBE"; then
+			first=$(( $(now_millis) - start ))
+		fi
+		if [ -z "$ready" ] && curl -sf -o /dev/null "$READINESS"; then
+			ready=$(( $(now_millis) - start ))
+		fi
+		sleep 0.05
+	done
+	local started
+	started=$(sed -n 's/.*Started .* in \([0-9.]*\) seconds.*/\1/p' "$log")
+	kill "$pid"
+	wait "$pid" 2> /dev/null || true
+	echo "$first $ready $started"
+}
+
+summary() {
+	sort -n | awk '{ v[NR] = $1; sum += $1 } END {
+		median = NR % 2 ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2
+		printf "%d %d %d\n", median, v[1], sum / NR }'
+}
+
+REPORT="$WORK/report.txt"
+# First 200 and readiness columns are median, minimum and mean; the reduction is of the median first 200
+printf "%-18s %22s %22s %10s  %s\n" "mode" "first 200 (ms)" "readiness (ms)" "spring(s)" "vs baseline" | tee "$REPORT"
+BASELINE=""
+for mode in baseline spring-aot spring-aot+cache; do
+	case "$mode" in
+		baseline) flags=() ;;
+		spring-aot) flags=(-Dspring.aot.enabled=true) ;;
+		spring-aot+cache) flags=("$CACHE_READ" -Dspring.aot.enabled=true) ;;
+	esac
+	: > "$WORK/$mode.txt"
+	for _ in $(seq "$RUNS"); do
+		measure "${flags[@]}" >> "$WORK/$mode.txt"
+	done
+	read -r median min mean < <(cut -d' ' -f1 "$WORK/$mode.txt" | summary)
+	read -r ready_median ready_min ready_mean < <(cut -d' ' -f2 "$WORK/$mode.txt" | summary)
+	spring=$(cut -d' ' -f3 "$WORK/$mode.txt" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+	BASELINE=${BASELINE:-$median}
+	reduction=$(awk -v b="$BASELINE" -v m="$median" 'BEGIN { printf "%.1f", (b - m) * 100 / b }')
+	printf "%-18s %22s %22s %10s  %s%%\n" "$mode" "$median / $min / $mean" "$ready_median / $ready_min / $ready_mean" \
+		"$spring" "-$reduction" | tee -a "$REPORT"
+done
+echo "Report written to $REPORT"
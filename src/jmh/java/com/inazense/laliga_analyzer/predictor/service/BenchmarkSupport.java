@@ -0,0 +1,202 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.model.Match;
+import com.inazense.laliga_analyzer.predictor.synthetic.SyntheticDataGenerator;
+import com.inazense.laliga_analyzer.predictor.util.CsvCells;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Shared setup for the benchmarks: the predictor services wired by Spring without the web layer, and the
+// datasets they run on
+final class BenchmarkSupport {
+    
+    private static final DateTimeFormatter[] DATE_FORMATTERS = {
+        DateTimeFormatter.ofPattern("dd/MM/yy"),
+        DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+        DateTimeFormatter.ofPattern("yyyy-MM-dd")
+    };
+    
+    private BenchmarkSupport() {
+    }
+    
+    // The bundled laliga.csv, passed in by the jmh task
+    static Path sourceCsv() {
+        return Paths.get(System.getProperty("benchmark.csv", "laliga.csv")).toAbsolutePath();
+    }
+    
+    // Only the services under test and their dependencies; application.properties supplies the same settings
+    // as the running app, and overrides win over it
+    static AnnotationConfigApplicationContext context(Map<String, Object> overrides) throws IOException {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        MutablePropertySources sources = context.getEnvironment().getPropertySources();
+        sources.addFirst(new MapPropertySource("benchmark", new HashMap<>(overrides)));
+        sources.addLast(new ResourcePropertySource("classpath:application.properties"));
+        
+        context.registerBean(SimpleMeterRegistry.class);
+        context.register(PredictorMetrics.class, CsvDataLoader.class, FeatureBuilder.class, 
+                PoissonModel.class, ModelStore.class, LeagueSettings.class, TrainerService.class);
+        context.refresh();
+        return context;
+    }
+    
+    // Matches with a full-time result, the same ones the services index and train on
+    static List<Match> completeMatches(AnnotationConfigApplicationContext context, String dataset) throws Exception {
+        return context.getBean(CsvDataLoader.class).loadMatches(dataset(dataset).toString()).stream()
+                .filter(m -> m.getFullTimeHomeGoals() != null 
+                        && m.getFullTimeAwayGoals() != null 
+                        && m.getFullTimeResult() != null)
+                .collect(Collectors.toList());
+    }
+    
+    // The divisions a dataset holds (its Div column), in order of first appearance, so training covers every
+    // league in it. A file without a Div column counts as SP1.
+    static List<String> divisions(Path csv) throws IOException {
+        List<String[]> rows = readRows(csv);
+        int column = rows.isEmpty() ? -1 : Arrays.asList(rows.get(0)).indexOf("Div");
+        if (column < 0) {
+            return List.of("SP1");
+        }
+        return rows.stream().skip(1)
+                .filter(row -> row.length > column && !row[column].isBlank() && !row[column].equals("Div"))
+                .map(row -> row[column].trim())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+    
+    // Resolves a dataset name to a CSV file:
+    //   laliga                          the bundled file
+    //   laliga-x<scale>                 the bundled file repeated, see scaledCsv
+    //   synthetic-<leagues>x<teams>x<seasons>   generated by SyntheticDataGenerator, ending with the 2019 season
+    //                                   so the evaluation's 2018 split still has a test set
+    //   anything else                   a path to an existing CSV
+    static Path dataset(String name) throws IOException {
+        if (name.equals("laliga")) {
+            return sourceCsv();
+        }
+        if (name.startsWith("laliga-x")) {
+            return scaledCsv(Integer.parseInt(name.substring("laliga-x".length())));
+        }
+        if (name.startsWith("synthetic-")) {
+            String[] size = name.substring("synthetic-".length()).split("x");
+            int seasons = Integer.parseInt(size[2]);
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(
+                    Integer.parseInt(size[0]), Integer.parseInt(size[1]), seasons, Math.max(100, 2020 - seasons), 42);
+            Path target = Files.createTempFile(name + "-", ".csv");
+            target.toFile().deleteOnExit();
+            generator.writeTo(target);
+            return target;
+        }
+        return Paths.get(name);
+    }
+    
+    // The bundled data repeated `scale` times, each copy shifted past the end of the previous one, so team
+    // histories grow with the scale the way they would with more seasons. Scale 1 is the bundled file itself.
+    private static Path scaledCsv(int scale) throws IOException {
+        Path source = sourceCsv();
+        if (scale <= 1) {
+            return source;
+        }
+        
+        List<String[]> rows = readRows(source);
+        int dateColumn = List.of(rows.get(0)).indexOf("Date");
+        
+        LocalDate first = LocalDate.MAX;
+        LocalDate last = LocalDate.MIN;
+        for (int i = 1; i < rows.size(); i++) {
+            LocalDate date = parseDate(rows.get(i), dateColumn);
+            if (date != null) {
+                first = date.isBefore(first) ? date : first;
+                last = date.isAfter(last) ? date : last;
+            }
+        }
+        int spanYears = last.getYear() - first.getYear() + 1;
+        
+        Path target = Files.createTempFile("laliga-x" + scale + "-", ".csv");
+        target.toFile().deleteOnExit();
+        try (Writer writer = Files.newBufferedWriter(target)) {
+            for (int copy = 0; copy < scale; copy++) {
+                for (int i = 0; i < rows.size(); i++) {
+                    String[] row = rows.get(i).clone();
+                    // Season headers are repeated with every copy, so each copy's rows keep their own layout
+                    if (dateColumn < row.length && row[dateColumn].trim().equals("Date")) {
+                        writeRow(writer, row);
+                        continue;
+                    }
+                    LocalDate date = parseDate(row, dateColumn);
+                    if (date == null) {
+                        continue;
+                    }
+                    row[dateColumn] = date.plusYears((long) copy * spanYears).toString();
+                    writeRow(writer, row);
+                }
+            }
+        }
+        return target;
+    }
+    
+    // Every row of the file as trimmed cells, blank ones as empty strings, with the same splitting as the loader
+    private static List<String[]> readRows(Path csv) throws IOException {
+        byte[] data = Files.readAllBytes(csv);
+        CsvCells cells = new CsvCells();
+        List<String[]> rows = new ArrayList<>();
+        int pos = 0;
+        while (pos < data.length) {
+            pos = cells.scan(data, pos, data.length);
+            if (cells.isUnterminated()) {
+                throw new IOException("Unterminated quoted field in row " + (rows.size() + 1) + " of " + csv);
+            }
+            String[] row = new String[cells.getCount()];
+            for (int i = 0; i < row.length; i++) {
+                String text = cells.text(data, i);
+                row[i] = text != null ? text.replace("\uFEFF", "") : "";
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    // Quotes only the cells that need it
+    private static void writeRow(Writer writer, String[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String cell = row[i];
+            boolean quote = cell.indexOf(',') >= 0 || cell.indexOf('"') >= 0 || cell.indexOf('\n') >= 0 || cell.indexOf('\r') >= 0;
+            writer.write(quote ? '"' + cell.replace("\"", "\"\"") + '"' : cell);
+        }
+        writer.write('\n');
+    }
+    
+    private static LocalDate parseDate(String[] row, int dateColumn) {
+        if (dateColumn < 0 || dateColumn >= row.length) {
+            return null;
+        }
+        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+            try {
+                return LocalDate.parse(row[dateColumn].trim(), formatter);
+            } catch (DateTimeParseException e) {
+                // Try next format
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.model.Match;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvDataLoaderBenchmark {
+    
+    // Dataset names are resolved by BenchmarkSupport.dataset; override with -PjmhDataset
+    @Param({"laliga", "laliga-x10", "synthetic-4x20x60"})
+    private String dataset;
+    
+    private AnnotationConfigApplicationContext context;
+    private CsvDataLoader csvDataLoader;
+    private String csvPath;
+    
+    private static final Set<String> ODDS_COLUMNS = Set.of("AvgH", "AvgD", "AvgA");
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path csv = BenchmarkSupport.dataset(dataset);
+        csvPath = csv.toString();
+        context = BenchmarkSupport.context(Map.of());
+        csvDataLoader = context.getBean(CsvDataLoader.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<Match> loadMatches() throws Exception {
+        return csvDataLoader.loadMatches(csvPath);
+    }
+    
+    // Same load with the market odds decoded up front, to show what each projected column costs
+    @Benchmark
+    public List<Match> loadMatchesWithOdds() throws Exception {
+        return csvDataLoader.loadMatches(csvPath, null, ODDS_COLUMNS);
+    }
+}
@@ -0,0 +1,63 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.model.Match;
+import com.inazense.laliga_analyzer.predictor.model.MatchFeatures;
+import com.inazense.laliga_analyzer.predictor.model.MatchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeatureBuilderBenchmark {
+    
+    // Dataset names are resolved by BenchmarkSupport.dataset; override with -PjmhDataset
+    @Param({"laliga", "laliga-x10", "synthetic-4x20x60"})
+    private String dataset;
+    
+    private AnnotationConfigApplicationContext context;
+    private FeatureBuilder featureBuilder;
+    private List<Match> matches;
+    private MatchIndex matchIndex;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkSupport.context(Map.of());
+        featureBuilder = context.getBean(FeatureBuilder.class);
+        matches = BenchmarkSupport.completeMatches(context, dataset);
+        matchIndex = new MatchIndex(matches);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    // Cycles through every fixture in the data, so each call looks up a different pair of histories
+    @Benchmark
+    public MatchFeatures buildFeatures() {
+        Match match = matches.get(next);
+        next = next + 1 == matches.size() ? 0 : next + 1;
+        return featureBuilder.buildFeatures(match.getHomeTeam(), match.getAwayTeam(), match.getDate(), matchIndex);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MatchIndex buildIndex() {
+        return new MatchIndex(matches);
+    }
+}
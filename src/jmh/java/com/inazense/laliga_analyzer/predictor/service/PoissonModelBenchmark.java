@@ -0,0 +1,80 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.model.Match;
+import com.inazense.laliga_analyzer.predictor.model.MatchFeatures;
+import com.inazense.laliga_analyzer.predictor.model.MatchIndex;
+import com.inazense.laliga_analyzer.predictor.model.ModelSnapshot;
+import com.inazense.laliga_analyzer.predictor.model.PredictionResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PoissonModelBenchmark {
+    
+    @Param({"static", "decayed"})
+    private String ratingMode;
+    
+    // Dataset names are resolved by BenchmarkSupport.dataset; override with -PjmhDataset
+    @Param({"laliga", "laliga-x10", "synthetic-4x20x60"})
+    private String dataset;
+    
+    private AnnotationConfigApplicationContext context;
+    private PoissonModel poissonModel;
+    private ModelSnapshot snapshot;
+    private List<Match> fixtures;
+    private MatchFeatures[] features;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkSupport.context(Map.of("predictor.ratingMode", ratingMode));
+        poissonModel = context.getBean(PoissonModel.class);
+        
+        List<Match> matches = BenchmarkSupport.completeMatches(context, dataset);
+        snapshot = poissonModel.fit(matches, "benchmark", null);
+        
+        // Features are built up front so only scoring is measured
+        FeatureBuilder featureBuilder = context.getBean(FeatureBuilder.class);
+        MatchIndex matchIndex = new MatchIndex(matches);
+        fixtures = matches.subList(Math.max(0, matches.size() - 1000), matches.size());
+        features = new MatchFeatures[fixtures.size()];
+        for (int i = 0; i < fixtures.size(); i++) {
+            Match match = fixtures.get(i);
+            features[i] = featureBuilder.buildFeatures(
+                    match.getHomeTeam(), match.getAwayTeam(), match.getDate(), matchIndex);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public PredictionResult predict() {
+        int i = next;
+        next = next + 1 == features.length ? 0 : next + 1;
+        Match match = fixtures.get(i);
+        return poissonModel.predict(snapshot, match.getHomeTeam(), match.getAwayTeam(), features[i]);
+    }
+    
+    @Benchmark
+    public Map<String, Double> calculateScoreProbabilities() {
+        return poissonModel.calculateScoreProbabilities(1.55, 1.12);
+    }
+}
@@ -0,0 +1,63 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The whole evaluation run, for every division in the dataset: load, train, score the test set, bootstrap
+// intervals and save. Each run takes
+// seconds, so it is timed one shot at a time
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TrainerServiceBenchmark {
+    
+    // Dataset names are resolved by BenchmarkSupport.dataset; override with -PjmhDataset
+    @Param({"laliga", "laliga-x10", "synthetic-4x20x60"})
+    private String dataset;
+    
+    private AnnotationConfigApplicationContext context;
+    private TrainerService trainerService;
+    private Path modelsDir;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        modelsDir = Files.createTempDirectory("benchmark-models");
+        Path csv = BenchmarkSupport.dataset(dataset);
+        context = BenchmarkSupport.context(Map.of(
+                "predictor.csvPath", csv.toString(),
+                "predictor.leagues", String.join(",", BenchmarkSupport.divisions(csv)),
+                "predictor.modelsPath", modelsDir.toString(),
+                "predictor.modelVersion", "benchmark"));
+        trainerService = context.getBean(TrainerService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+        FileSystemUtils.deleteRecursively(modelsDir);
+    }
+    
+    @Benchmark
+    public Map<String, Map<String, Object>> trainAndEvaluate() throws Exception {
+        return trainerService.trainAndEvaluateAll();
+    }
+}
@@ -0,0 +1,106 @@
+package com.inazense.laliga_analyzer.predictor.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inazense.laliga_analyzer.predictor.model.Match;
+import com.inazense.laliga_analyzer.predictor.service.CsvDataLoader;
+import com.inazense.laliga_analyzer.predictor.service.PredictorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+// Request mix replayed by the load test, built from the real fixtures in the data file:
+//   hot share       GET for a fixture from the latest season, the matchday traffic that repeats and hits caches
+//   post share      POST for a random historical fixture, always a full prediction
+//   the rest        GET for a random historical fixture, mostly cache misses
+final class FixtureMix {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final ObjectMapper JSON = new ObjectMapper();
+    
+    private final URI baseUrl;
+    private final List<Match> hot;
+    private final List<Match> history;
+    private final double hotShare;
+    private final double postShare;
+    
+    private FixtureMix(URI baseUrl, List<Match> hot, List<Match> history, double hotShare, double postShare) {
+        this.baseUrl = baseUrl;
+        this.hot = hot;
+        this.history = history;
+        this.hotShare = hotShare;
+        this.postShare = postShare;
+    }
+    
+    static FixtureMix load(LoadTestConfig config) throws Exception {
+        // Parsed with the app's own loader, so team names match what the server knows
+        CsvDataLoader loader = new CsvDataLoader(new PredictorMetrics(new SimpleMeterRegistry()));
+        List<Match> history = loader.loadMatches(config.csvPath().toString()).stream()
+                .filter(m -> m.getDate() != null && m.getFullTimeResult() != null)
+                .collect(Collectors.toList());
+        if (history.isEmpty()) {
+            throw new IllegalStateException("No fixtures in " + config.csvPath());
+        }
+        
+        LocalDate latest = history.stream().map(Match::getDate).max(Comparator.naturalOrder()).get();
+        LocalDate seasonStart = latest.minusDays(365);
+        List<Match> hot = history.stream()
+                .filter(m -> m.getDate().isAfter(seasonStart))
+                .collect(Collectors.toList());
+        return new FixtureMix(config.baseUrl(), hot, history, config.hotShare(), config.postShare());
+    }
+    
+    HttpRequest next(SplittableRandom random) throws Exception {
+        double draw = random.nextDouble();
+        if (draw < hotShare) {
+            return get(hot.get(random.nextInt(hot.size())));
+        }
+        Match match = history.get(random.nextInt(history.size()));
+        return draw < hotShare + postShare ? post(match) : get(match);
+    }
+    
+    Map<String, Object> describe() {
+        Map<String, Object> mix = new LinkedHashMap<>();
+        mix.put("hotShare", hotShare);
+        mix.put("postShare", postShare);
+        mix.put("hotFixtures", hot.size());
+        mix.put("historicalFixtures", history.size());
+        return mix;
+    }
+    
+    private HttpRequest get(Match match) {
+        String query = "homeTeam=" + encode(match.getHomeTeam()) 
+                + "&awayTeam=" + encode(match.getAwayTeam()) 
+                + "&date=" + match.getDate();
+        return HttpRequest.newBuilder(baseUrl.resolve("/predictor/predict?" + query))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+    
+    private HttpRequest post(Match match) throws Exception {
+        Map<String, String> body = Map.of(
+                "homeTeam", match.getHomeTeam(),
+                "awayTeam", match.getAwayTeam(),
+                "date", match.getDate().toString());
+        return HttpRequest.newBuilder(baseUrl.resolve("/predictor/predict"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                .build();
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
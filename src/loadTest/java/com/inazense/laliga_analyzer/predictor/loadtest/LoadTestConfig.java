@@ -0,0 +1,40 @@
+package com.inazense.laliga_analyzer.predictor.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Settings for one load test run, passed as --name=value arguments (the loadTest Gradle task maps
+// -PloadTest.<name>=value onto them)
+record LoadTestConfig(URI baseUrl, double[] rates, int durationSeconds, int warmupSeconds, 
+                      double hotShare, double postShare, Path csvPath, Path outputDir, Path baseline) {
+    
+    static LoadTestConfig from(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        
+        String baseline = values.get("baseline");
+        return new LoadTestConfig(
+                URI.create(values.getOrDefault("baseUrl", "http://localhost:8080")),
+                Arrays.stream(values.getOrDefault("rates", "50,100,200").split(","))
+                        .map(String::trim)
+                        .mapToDouble(Double::parseDouble)
+                        .toArray(),
+                Integer.parseInt(values.getOrDefault("duration", "30")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Double.parseDouble(values.getOrDefault("hotShare", "0.6")),
+                Double.parseDouble(values.getOrDefault("postShare", "0.2")),
+                Paths.get(values.getOrDefault("csv", "laliga.csv")),
+                Paths.get(values.getOrDefault("output", "build/reports/loadtest")),
+                baseline != null && !baseline.isBlank() ? Paths.get(baseline) : null);
+    }
+}
@@ -0,0 +1,124 @@
+package com.inazense.laliga_analyzer.predictor.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes a run as report.json (stable keys, meant to be diffed between releases) plus one HdrHistogram
+// percentile distribution per step and latency kind (.hgrm, loadable in the HdrHistogram plotter)
+final class LoadTestReport {
+    
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final double MICROS_PER_MILLI = 1000.0;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    Path write(LoadTestConfig config, FixtureMix mix, List<RateStep> steps, Instant startedAt) throws IOException {
+        Path runDir = config.outputDir().resolve(startedAt.toString().replace(':', '-'));
+        Files.createDirectories(runDir);
+        
+        List<Map<String, Object>> stepReports = new ArrayList<>();
+        for (RateStep step : steps) {
+            stepReports.add(stepReport(step));
+            writeDistribution(runDir.resolve(stepName(step) + "-response.hgrm"), step.responseTime());
+            writeDistribution(runDir.resolve(stepName(step) + "-service.hgrm"), step.serviceTime());
+        }
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", config.baseUrl().toString());
+        report.put("startedAt", startedAt.toString());
+        report.put("durationSeconds", config.durationSeconds());
+        report.put("warmupSeconds", config.warmupSeconds());
+        report.put("mix", mix.describe());
+        report.put("steps", stepReports);
+        
+        Path reportFile = runDir.resolve("report.json");
+        Files.write(reportFile, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(report));
+        return reportFile;
+    }
+    
+    void print(List<RateStep> steps, PrintStream out) {
+        out.printf("%10s %9s %9s %9s %9s %10s %10s %10s %10s %10s%n", 
+                "rate/s", "sent", "ok", "429", "errors", "thru/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (RateStep step : steps) {
+            Histogram histogram = step.responseTime();
+            out.printf("%10.1f %9d %9d %9d %9d %10.1f %10.2f %10.2f %10.2f %10.2f%n", 
+                    step.rate(), step.sent(), step.ok(), step.rejected(), step.errors(), step.throughput(), 
+                    millis(histogram.getValueAtPercentile(50.0)), 
+                    millis(histogram.getValueAtPercentile(99.0)), 
+                    millis(histogram.getValueAtPercentile(99.9)), 
+                    millis(histogram.getMaxValue()));
+        }
+    }
+    
+    // Response-time percentiles against a previous report.json, matched by rate
+    void compare(Path baseline, List<RateStep> steps, PrintStream out) throws IOException {
+        Map<Double, JsonNode> previous = new LinkedHashMap<>();
+        for (JsonNode step : objectMapper.readTree(baseline.toFile()).path("steps")) {
+            previous.put(step.path("rate").asDouble(), step);
+        }
+        
+        out.println("Response time against " + baseline + " (baseline -> now):");
+        for (RateStep step : steps) {
+            JsonNode before = previous.get(step.rate());
+            if (before == null) {
+                out.printf("  %.1f/s: not in baseline%n", step.rate());
+                continue;
+            }
+            JsonNode latency = before.path("responseTimeMs");
+            Histogram histogram = step.responseTime();
+            out.printf("  %.1f/s: p50 %.2f -> %.2f, p99 %.2f -> %.2f, p99.9 %.2f -> %.2f ms%n", step.rate(), 
+                    latency.path("p50").asDouble(), millis(histogram.getValueAtPercentile(50.0)), 
+                    latency.path("p99").asDouble(), millis(histogram.getValueAtPercentile(99.0)), 
+                    latency.path("p99.9").asDouble(), millis(histogram.getValueAtPercentile(99.9)));
+        }
+    }
+    
+    private Map<String, Object> stepReport(RateStep step) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rate", step.rate());
+        report.put("sent", step.sent());
+        report.put("ok", step.ok());
+        report.put("rejected", step.rejected());
+        report.put("errors", step.errors());
+        report.put("throughput", step.throughput());
+        report.put("responseTimeMs", latencies(step.responseTime()));
+        report.put("serviceTimeMs", latencies(step.serviceTime()));
+        return report;
+    }
+    
+    private Map<String, Object> latencies(Histogram histogram) {
+        Map<String, Object> latencies = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            String key = "p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile));
+            latencies.put(key, millis(histogram.getValueAtPercentile(percentile)));
+        }
+        latencies.put("max", millis(histogram.getMaxValue()));
+        latencies.put("mean", histogram.getMean() / MICROS_PER_MILLI);
+        return latencies;
+    }
+    
+    private void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+    
+    private static String stepName(RateStep step) {
+        return "rate-" + (step.rate() == Math.rint(step.rate()) ? String.valueOf((long) step.rate()) : String.valueOf(step.rate()));
+    }
+    
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,49 @@
+package com.inazense.laliga_analyzer.predictor.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Load test for the prediction API against an already running app: a warm-up at the first rate, then each
+// rate in turn, then a report. Run it with ./gradlew loadTest (see README).
+public class LoadTestRunner {
+    
+    // Same fixture sequence on every run, so reports compare like with like
+    private static final long SEED = 42;
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.from(args);
+        FixtureMix mix = FixtureMix.load(config);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        SplittableRandom random = new SplittableRandom(SEED);
+        Instant startedAt = Instant.now();
+        
+        if (config.warmupSeconds() > 0) {
+            System.out.printf("Warming up at %.1f/s for %d s against %s%n", 
+                    config.rates()[0], config.warmupSeconds(), config.baseUrl());
+            new RateStep(client, mix, config.rates()[0], config.warmupSeconds()).run(random);
+        }
+        
+        List<RateStep> steps = new ArrayList<>();
+        for (double rate : config.rates()) {
+            System.out.printf("Offering %.1f/s for %d s%n", rate, config.durationSeconds());
+            steps.add(new RateStep(client, mix, rate, config.durationSeconds()).run(random));
+        }
+        
+        LoadTestReport report = new LoadTestReport();
+        report.print(steps, System.out);
+        Path reportFile = report.write(config, mix, steps, startedAt);
+        System.out.println("Report written to " + reportFile);
+        
+        if (config.baseline() != null) {
+            report.compare(config.baseline(), steps, System.out);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.inazense.laliga_analyzer.predictor.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Offers one fixed arrival rate for a fixed time. Every request has an intended start on a fixed schedule
+// and is sent at that time whether or not earlier ones have finished (an open model, like real clients).
+// Response time is measured from the intended start, so when the server or this generator stalls, the
+// requests that should have gone out meanwhile are charged for the wait: that is the coordinated-omission
+// correction. Service time, measured from the actual send, is kept alongside for comparison.
+final class RateStep {
+    
+    // Latencies are recorded in microseconds, up to a minute at three significant digits
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+    
+    private final HttpClient client;
+    private final FixtureMix mix;
+    private final double rate;
+    private final int durationSeconds;
+    
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final AtomicLong ok = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private long sent;
+    private long elapsedNanos;
+    
+    RateStep(HttpClient client, FixtureMix mix, double rate, int durationSeconds) {
+        this.client = client;
+        this.mix = mix;
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+    }
+    
+    RateStep run(SplittableRandom random) throws Exception {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.add(send(mix.next(random), intended));
+            sent++;
+        }
+        
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                .exceptionally(e -> null)
+                .get(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        elapsedNanos = System.nanoTime() - start;
+        return this;
+    }
+    
+    private CompletableFuture<?> send(HttpRequest request, long intendedNanos) {
+        long sentNanos = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long doneNanos = System.nanoTime();
+                    if (error != null) {
+                        errors.incrementAndGet();
+                        return;
+                    }
+                    
+                    int status = response.statusCode();
+                    if (status == 200 || status == 304) {
+                        ok.incrementAndGet();
+                        record(responseTime, doneNanos - intendedNanos);
+                        record(serviceTime, doneNanos - sentNanos);
+                    } else if (status == 429) {
+                        rejected.incrementAndGet();
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                });
+    }
+    
+    private static void record(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+    }
+    
+    double rate() {
+        return rate;
+    }
+    
+    int durationSeconds() {
+        return durationSeconds;
+    }
+    
+    long sent() {
+        return sent;
+    }
+    
+    long ok() {
+        return ok.get();
+    }
+    
+    long rejected() {
+        return rejected.get();
+    }
+    
+    long errors() {
+        return errors.get();
+    }
+    
+    double throughput() {
+        return elapsedNanos > 0 ? ok.get() / (elapsedNanos / 1e9) : 0.0;
+    }
+    
+    Histogram responseTime() {
+        return responseTime;
+    }
+    
+    Histogram serviceTime() {
+        return serviceTime;
+    }
+}
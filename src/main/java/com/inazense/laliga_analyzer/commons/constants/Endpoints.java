@@ -13,5 +13,18 @@ public class Endpoints {
 	public static final String PREDICTOR_REQUEST_MAPPING = "/predictor";
 	public static final String PREDICTOR_ENDPOINT_PREDICT_PATH = "/predict";
 	public static final String PREDICTOR_ENDPOINT_PREDICT_SUMMARY = "Predict match result";
+	public static final String PREDICTOR_ENDPOINT_PREDICT_GET_SUMMARY = "Predict match result (cacheable, supports If-None-Match)";
+	public static final String PREDICTOR_ENDPOINT_BATCH_PATH = "/predict/batch";
+	public static final String PREDICTOR_ENDPOINT_BATCH_SUMMARY = "Predict a list of matches in one request";
+	public static final String PREDICTOR_ENDPOINT_STREAM_PATH = "/predict/stream";
+	public static final String PREDICTOR_ENDPOINT_STREAM_SUMMARY = "Stream predictions as NDJSON or Server-Sent Events";
+	public static final String PREDICTOR_ENDPOINT_RELOAD_PATH = "/reload";
+	public static final String PREDICTOR_ENDPOINT_RELOAD_SUMMARY = "Start a background model reload";
+	public static final String PREDICTOR_ENDPOINT_RELOAD_STATUS_PATH = "/reload/{jobId}";
+	public static final String PREDICTOR_ENDPOINT_RELOAD_STATUS_SUMMARY = "Get the status of a reload job";
+	public static final String PREDICTOR_ENDPOINT_MODELS_PATH = "/models";
+	public static final String PREDICTOR_ENDPOINT_MODELS_SUMMARY = "List available and loaded model versions";
+	public static final String PREDICTOR_ENDPOINT_RESULTS_PATH = "/results";
+	public static final String PREDICTOR_ENDPOINT_RESULTS_SUMMARY = "Record a played match and update the serving model";
 	
 }
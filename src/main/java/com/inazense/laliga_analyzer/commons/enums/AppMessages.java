@@ -9,7 +9,26 @@ public enum AppMessages {
 	DOWNLOADER_DOWNLOAD_FAIL("D_00002", "Failed to download LaLiga data."),
 	PREDICTOR_PREDICT_OK("P_00001", "Prediction done."),
 	PREDICTOR_PREDICT_FAIL_MODEL("P_00002", "Model not loaded. Please train the model first."),
-	PREDICTOR_PREDICT_FAIL_DATE("P_00003", "Invalid date format. Use yyyy-MM-dd");
+	PREDICTOR_PREDICT_FAIL_DATE("P_00003", "Invalid date format. Use yyyy-MM-dd"),
+	PREDICTOR_PREDICT_FAIL_VERSION("P_00004", "Model version not found."),
+	PREDICTOR_MODELS_OK("P_00005", "Model versions listed."),
+	PREDICTOR_PREDICT_FAIL_TEAMS("P_00006", "Home team and away team are required."),
+	PREDICTOR_PREDICT_FAIL("P_00007", "Prediction failed."),
+	PREDICTOR_BATCH_OK("P_00008", "Batch prediction done."),
+	PREDICTOR_BATCH_FAIL_SIZE("P_00009", "Batch must contain between 1 and the maximum number of requests."),
+	PREDICTOR_STREAM_FAIL_BODY("P_00010", "Request body must be a JSON array of prediction requests."),
+	PREDICTOR_PREDICT_FAIL_BUSY("P_00011", "Too many concurrent predictions. Retry shortly."),
+	PREDICTOR_RELOAD_ACCEPTED("P_00012", "Model reload started."),
+	PREDICTOR_RELOAD_STATUS_OK("P_00013", "Reload job status."),
+	PREDICTOR_RELOAD_FAIL_JOB("P_00014", "Reload job not found."),
+	PREDICTOR_PREDICT_FAIL_PROJECTION("P_00015", "Invalid projection. Use minimal, scores or full."),
+	PREDICTOR_STATUS_OK("P_00016", "Predictor status."),
+	PREDICTOR_PREDICT_FAIL_LEAGUE("P_00017", "League not configured."),
+	PREDICTOR_RESULT_OK("P_00018", "Result recorded."),
+	PREDICTOR_RESULT_FAIL_SCORE("P_00019", "Home goals and away goals are required and cannot be negative."),
+	PREDICTOR_RESULT_FAIL_DUPLICATE("P_00020", "Result already recorded."),
+	PREDICTOR_RESULT_FAIL("P_00021", "Recording the result failed."),
+	PREDICTOR_PREDICT_FAIL_LOADING("P_00022", "Model is loading. Retry shortly.");
 	private String code;
 	private String message;
 	
@@ -12,6 +12,11 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.inazense.laliga_analyzer.commons.enums.AppMessages.DOWNLOADER_DOWNLOAD_FAIL;
 import static com.inazense.laliga_analyzer.commons.enums.AppMessages.DOWNLOADER_DOWNLOAD_OK;
@@ -20,6 +25,8 @@ import static com.inazense.laliga_analyzer.commons.enums.AppMessages.DOWNLOADER_
 @RequiredArgsConstructor
 public class DownloaderService {
 	
+	private static final String LEAGUE_PLACEHOLDER = "{league}";
+	
 	private final ResponseService responseService;
 
 	@Value("${downloader.baseUrl}")
@@ -31,49 +38,66 @@ public class DownloaderService {
 	@Value("${downloader.lastSeason}")
 	private String lastSeason;
 
-	@Value("${downloader.filename}")
-	private String filename;
+	// Football-data division codes (SP1, SP2, E0, I1, ...)
+	@Value("${downloader.divisions:SP1}")
+	private List<String> divisions;
 
+	// "{league}" is replaced by the division code; without it every division is appended to the same file
 	@Value("${downloader.csvFilename}")
 	private String csvFilename;
 
 	public ApiResponse downloadData() {
-		ApiResponse response = responseService.createResponse(DOWNLOADER_DOWNLOAD_OK, null);
+		// Divisions sharing an output file are written one after another; separate files download in parallel
+		Map<String, List<String>> divisionsByFile = new LinkedHashMap<>();
+		for (String division : divisions) {
+			String code = division.trim();
+			if (!code.isEmpty()) {
+				divisionsByFile.computeIfAbsent(csvFilename.replace(LEAGUE_PLACEHOLDER, code), file -> new ArrayList<>())
+						.add(code);
+			}
+		}
+		
+		List<String> errors = divisionsByFile.entrySet().parallelStream()
+				.flatMap(entry -> download(entry.getKey(), entry.getValue()).stream())
+				.collect(Collectors.toList());
 		
+		return errors.isEmpty() 
+				? responseService.createResponse(DOWNLOADER_DOWNLOAD_OK, null) 
+				: responseService.createResponse(DOWNLOADER_DOWNLOAD_FAIL, String.join("; ", errors));
+	}
+	
+	// Returns the errors, one per failed season; the other seasons are still written
+	private List<String> download(String outputFile, List<String> fileDivisions) {
+		List<String> errors = new ArrayList<>();
 		int firstYear = Integer.parseInt(firstSeason);
 		int lastYear = Integer.parseInt(lastSeason);
 		
-		try (PrintWriter writer = new PrintWriter(new FileWriter(csvFilename))) {
-			boolean firstHeader = true;
-			
-			for (int year = firstYear; year <= lastYear; year++) {
-				String season = String.format("%02d%02d", year, (year + 1) % 100);
-				String url = baseUrl + season + filename;
-				try (BufferedReader reader = new BufferedReader(
-						new InputStreamReader(new URL(url).openStream()))) {
-					String line;
-					boolean isFirstLine = true;
-					while ((line = reader.readLine()) != null) {
-						if (isFirstLine) {
-							if (firstHeader) {
-								writer.println(line);
-								firstHeader = false;
-							}
-							isFirstLine = false;
-						} else {
+		try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
+			for (String division : fileDivisions) {
+				for (int year = firstYear; year <= lastYear; year++) {
+					String season = String.format("%02d%02d", year, (year + 1) % 100);
+					String url = baseUrl + season + "/" + division + ".csv";
+					try (BufferedReader reader = new BufferedReader(
+							new InputStreamReader(new URL(url).openStream()))) {
+						// Every season keeps its own header line: the columns change between seasons, and the
+						// loader re-maps them at each header
+						String line = reader.readLine();
+						if (line != null) {
+							writer.println(line.replace("\uFEFF", ""));
+						}
+						while ((line = reader.readLine()) != null) {
 							writer.println(line);
 						}
+					} catch (IOException e) {
+						errors.add(division + " " + season + ": " + e.getMessage());
 					}
-				} catch (IOException e) {
-					response = responseService.createResponse(DOWNLOADER_DOWNLOAD_FAIL, e.getMessage());
-					
 				}
 			}
 		}
 		catch (Exception e) {
-			response = responseService.createResponse(DOWNLOADER_DOWNLOAD_FAIL, e.getMessage());
+			errors.add(outputFile + ": " + e.getMessage());
 		}
 		
-		return response;
+		return errors;
 	}
 }
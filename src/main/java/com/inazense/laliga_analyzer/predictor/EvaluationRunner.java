@@ -29,15 +29,27 @@ public class EvaluationRunner implements CommandLineRunner {
     public void run(String... args) throws Exception {
         log.info("===== Starting Model Evaluation =====");
         
-        Map<String, Object> metrics = trainerService.trainAndEvaluate();
+        Map<String, Map<String, Object>> metricsByLeague = trainerService.trainAndEvaluateAll();
         
         log.info("===== Evaluation Complete =====");
+        for (Map.Entry<String, Map<String, Object>> league : metricsByLeague.entrySet()) {
+            logMetrics(league.getKey(), league.getValue());
+        }
+        
+        System.exit(0);
+    }
+    
+    private void logMetrics(String league, Map<String, Object> metrics) {
         log.info("\n========================================");
-        log.info("EVALUATION METRICS");
+        log.info("EVALUATION METRICS ({})", league);
         log.info("========================================");
         log.info("Accuracy: {}", metrics.get("accuracy"));
         log.info("Brier Score: {}", metrics.get("brierScore"));
         log.info("Log Loss: {}", metrics.get("logLoss"));
+        log.info("Log Loss by Outcome: {}", metrics.get("logLossByOutcome"));
+        log.info("Ranked Probability Score: {}", metrics.get("rankedProbabilityScore"));
+        log.info("Expected Calibration Error: {}", metrics.get("expectedCalibrationError"));
+        log.info("Confidence Intervals: {}", metrics.get("confidenceIntervals"));
         log.info("Total Predictions: {}", metrics.get("totalPredictions"));
         log.info("Correct Predictions: {}", metrics.get("correctPredictions"));
         log.info("\nConfusion Matrix:");
@@ -50,7 +62,5 @@ public class EvaluationRunner implements CommandLineRunner {
         log.info("      D   {:3}  {:3}  {:3}", confusionMatrix.get("DH"), confusionMatrix.get("DD"), confusionMatrix.get("DA"));
         log.info("      A   {:3}  {:3}  {:3}", confusionMatrix.get("AH"), confusionMatrix.get("AD"), confusionMatrix.get("AA"));
         log.info("========================================");
-        
-        System.exit(0);
     }
 }
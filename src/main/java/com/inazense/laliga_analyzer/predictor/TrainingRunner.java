@@ -29,12 +29,14 @@ public class TrainingRunner implements CommandLineRunner {
     public void run(String... args) throws Exception {
         log.info("===== Starting Model Training =====");
         
-        Map<String, Object> metrics = trainerService.trainAndEvaluate();
+        Map<String, Map<String, Object>> metricsByLeague = trainerService.trainAndEvaluateAll();
         
         log.info("===== Training Complete =====");
-        log.info("Metrics:");
-        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
-            log.info("  {}: {}", entry.getKey(), entry.getValue());
+        for (Map.Entry<String, Map<String, Object>> league : metricsByLeague.entrySet()) {
+            log.info("Metrics ({}):", league.getKey());
+            for (Map.Entry<String, Object> entry : league.getValue().entrySet()) {
+                log.info("  {}: {}", entry.getKey(), entry.getValue());
+            }
         }
         
         System.exit(0);
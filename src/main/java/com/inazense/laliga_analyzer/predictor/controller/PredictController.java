@@ -1,20 +1,57 @@
 package com.inazense.laliga_analyzer.predictor.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inazense.laliga_analyzer.commons.constants.Endpoints;
 import com.inazense.laliga_analyzer.commons.dto.ApiResponse;
+import com.inazense.laliga_analyzer.commons.enums.AppMessages;
 import com.inazense.laliga_analyzer.commons.service.ResponseService;
+import com.inazense.laliga_analyzer.predictor.dto.BatchPredictionResult;
 import com.inazense.laliga_analyzer.predictor.dto.PredictionRequest;
+import com.inazense.laliga_analyzer.predictor.dto.ResponseProjection;
+import com.inazense.laliga_analyzer.predictor.dto.ResultRequest;
+import com.inazense.laliga_analyzer.predictor.model.Match;
 import com.inazense.laliga_analyzer.predictor.model.PredictionResult;
+import com.inazense.laliga_analyzer.predictor.model.ReloadJob;
+import com.inazense.laliga_analyzer.predictor.service.AdmissionControl;
+import com.inazense.laliga_analyzer.predictor.service.LeagueSettings;
+import com.inazense.laliga_analyzer.predictor.service.ModelNotLoadedException;
+import com.inazense.laliga_analyzer.predictor.service.ModelRegistry;
+import com.inazense.laliga_analyzer.predictor.service.PredictionCache;
+import com.inazense.laliga_analyzer.predictor.service.PredictionStreamService;
+import com.inazense.laliga_analyzer.predictor.service.PredictorMetrics;
 import com.inazense.laliga_analyzer.predictor.service.PredictorService;
+import com.inazense.laliga_analyzer.predictor.service.ReloadService;
+import com.inazense.laliga_analyzer.predictor.service.WarmupService;
+import com.inazense.laliga_analyzer.predictor.util.Bulkhead;
+import com.inazense.laliga_analyzer.predictor.util.BulkheadFullException;
+import com.inazense.laliga_analyzer.predictor.util.PredictionJson;
+import com.inazense.laliga_analyzer.predictor.util.TeamNormalizer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import static com.inazense.laliga_analyzer.commons.enums.AppMessages.*;
 
@@ -26,43 +63,137 @@ import static com.inazense.laliga_analyzer.commons.enums.AppMessages.*;
 public class PredictController {
     
     private final PredictorService predictorService;
+    private final PredictionStreamService predictionStreamService;
+    private final PredictionCache predictionCache;
+    private final AdmissionControl admissionControl;
+    private final ReloadService reloadService;
+    private final ModelRegistry modelRegistry;
+    private final PredictorMetrics predictorMetrics;
+    private final WarmupService warmupService;
+    private final LeagueSettings leagueSettings;
+    private final ApplicationAvailability applicationAvailability;
     private final ResponseService responseService;
+    private final ObjectMapper objectMapper;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String RETRY_AFTER_SECONDS = "1";
     
     @Operation(summary = Endpoints.PREDICTOR_ENDPOINT_PREDICT_SUMMARY)
     @PostMapping(Endpoints.PREDICTOR_ENDPOINT_PREDICT_PATH)
-    public ResponseEntity<ApiResponse> predict(@RequestBody PredictionRequest request) {
+    public ResponseEntity<?> predict(@RequestBody PredictionRequest request, 
+                                     @RequestParam(required = false) String projection, 
+                                     @RequestParam(defaultValue = "false") boolean compact) {
+        return predictCached(
+                request.getLeague(), 
+                request.getHomeTeam(), 
+                request.getAwayTeam(), 
+                request.getDate(), 
+                request.getModelVersion(), 
+                projection, 
+                compact, 
+                null
+        );
+    }
+    
+    // Cacheable variant for CDNs and clients: answers If-None-Match with 304 before any prediction work
+    @Operation(summary = Endpoints.PREDICTOR_ENDPOINT_PREDICT_GET_SUMMARY)
+    @GetMapping(Endpoints.PREDICTOR_ENDPOINT_PREDICT_PATH)
+    public ResponseEntity<?> predictGet(@RequestParam String homeTeam, 
+                                        @RequestParam String awayTeam, 
+                                        @RequestParam String date, 
+                                        @RequestParam(required = false) String modelVersion, 
+                                        @RequestParam(required = false) String league, 
+                                        @RequestParam(required = false) String projection, 
+                                        @RequestParam(defaultValue = "false") boolean compact, 
+                                        WebRequest webRequest) {
+        return predictCached(league, homeTeam, awayTeam, date, modelVersion, projection, compact, webRequest);
+    }
+    
+    private ResponseEntity<?> predictCached(String requestedLeague, String homeTeam, String awayTeam, String date, 
+                                            String modelVersion, String projection, boolean compact, 
+                                            WebRequest conditionalRequest) {
+        ResponseProjection responseProjection = parseProjection(projection);
+        if (responseProjection == null) {
+            return ResponseEntity.badRequest()
+                    .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_PROJECTION, projection));
+        }
+        if (!leagueSettings.accepts(requestedLeague)) {
+            return ResponseEntity.status(404)
+                    .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_LEAGUE, requestedLeague));
+        }
+        String league = leagueSettings.resolve(requestedLeague);
+        
+        LocalDate matchDate;
+        try {
+            matchDate = LocalDate.parse(date, DATE_FORMATTER);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(responseService.createResponse(
+							PREDICTOR_PREDICT_FAIL_DATE, 
+                            null
+                    ));
+        }
+        if (!predictorService.isModelLoaded(league)) {
+            return unavailable(league);
+        }
+        
         try {
-            if (!predictorService.isModelLoaded()) {
-                return ResponseEntity.status(503)
-                        .body(responseService.createResponse(
-								PREDICTOR_PREDICT_FAIL_MODEL, 
-                                null
-                        ));
+            // Conditional and cached hits are answered from memory without taking a predict permit.
+            // Every projection and encoding is its own representation with its own ETag.
+            String representation = responseProjection.name() + (compact ? "|compact" : "");
+            String etag = predictorService.predictionETag(league, homeTeam, awayTeam, matchDate, modelVersion, representation);
+            if (etag != null) {
+                if (isNotModified(conditionalRequest, etag)) {
+                    return null; // 304 with the ETag header already set
+                }
+                byte[] cached = predictionCache.get(league, etag);
+                if (cached != null) {
+                    return prediction(etag, cached, conditionalRequest != null);
+                }
             }
             
-            LocalDate matchDate;
-            try {
-                matchDate = LocalDate.parse(request.getDate(), DATE_FORMATTER);
-            } catch (Exception e) {
-                return ResponseEntity.badRequest()
-                        .body(responseService.createResponse(
-								PREDICTOR_PREDICT_FAIL_DATE, 
-                                null
-                        ));
+            byte[] body;
+            try (Bulkhead.Permit permit = admissionControl.predict().acquire()) {
+                PredictionResult result = predictorService.predict(
+                        league, 
+                        homeTeam, 
+                        awayTeam, 
+                        matchDate,
+                        modelVersion
+                );
+                long serializeStart = System.nanoTime();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(compact ? 256 : 1024);
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    PredictionJson.writeResponse(generator, PREDICTOR_PREDICT_OK, result, responseProjection, compact);
+                }
+                body = out.toByteArray();
+                predictorMetrics.recordResponseSerialize(serializeStart);
             }
             
-            PredictionResult result = predictorService.predict(
-                    request.getHomeTeam(), 
-                    request.getAwayTeam(), 
-                    matchDate
-            );
-            
-            return ResponseEntity.ok(
-                    responseService.createResponse(PREDICTOR_PREDICT_OK, result)
-            );
+            // A version that was not in memory has been loaded by the prediction, so it has an ETag now
+            if (etag == null) {
+                etag = predictorService.predictionETag(league, homeTeam, awayTeam, matchDate, modelVersion, representation);
+                if (etag != null && isNotModified(conditionalRequest, etag)) {
+                    return null;
+                }
+            }
+            if (etag != null) {
+                predictionCache.put(league, etag, body);
+            }
+            return prediction(etag, body, conditionalRequest != null);
             
+        } catch (BulkheadFullException e) {
+            return rejected(HttpStatus.TOO_MANY_REQUESTS, PREDICTOR_PREDICT_FAIL_BUSY);
+        } catch (ModelNotLoadedException e) {
+            // The league's model went away between the check above and the prediction
+            return unavailable(league);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(404)
+                    .body(responseService.createResponse(
+                            PREDICTOR_PREDICT_FAIL_VERSION, 
+                            e.getMessage()
+                    ));
         } catch (Exception e) {
             log.error("Prediction failed", e);
             return ResponseEntity.internalServerError()
@@ -73,33 +204,306 @@ public class PredictController {
         }
     }
     
-    @Operation(summary = "Check model status")
-    @GetMapping("/status")
-    public ResponseEntity<ApiResponse> status() {
-        boolean loaded = predictorService.isModelLoaded();
-        return ResponseEntity.ok(
-                responseService.createResponse(
-                        DOWNLOADER_DOWNLOAD_OK, 
-                        "Model loaded: " + loaded
-                )
-        );
+    // Only the GET variant may be stored by shared caches; a POST response is for its caller alone
+    private ResponseEntity<byte[]> prediction(String etag, byte[] body, boolean get) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(get 
+                        ? CacheControl.maxAge(predictionCache.getMaxAgeSeconds(), TimeUnit.SECONDS).cachePublic() 
+                        : CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(body);
+    }
+    
+    @Operation(summary = Endpoints.PREDICTOR_ENDPOINT_BATCH_SUMMARY)
+    @PostMapping(Endpoints.PREDICTOR_ENDPOINT_BATCH_PATH)
+    public ResponseEntity<?> predictBatch(@RequestBody List<PredictionRequest> requests, 
+                                          @RequestParam(required = false) String projection, 
+                                          @RequestParam(defaultValue = "false") boolean compact) {
+        ResponseProjection responseProjection = parseProjection(projection);
+        if (responseProjection == null) {
+            return ResponseEntity.badRequest()
+                    .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_PROJECTION, projection));
+        }
+        
+        // Items are routed to their own league; one whose league has no model fails on its own
+        if (predictorService.getLoadedLeagues().isEmpty()) {
+            return unavailable(leagueSettings.getDefaultLeague());
+        }
+        
+        // A malformed batch is turned away before it takes a permit
+        if (requests == null || requests.isEmpty() || requests.size() > predictorService.getMaxBatchSize()) {
+            return ResponseEntity.badRequest()
+                    .body(responseService.createResponse(
+                            PREDICTOR_BATCH_FAIL_SIZE, 
+                            "Maximum batch size: " + predictorService.getMaxBatchSize()
+                    ));
+        }
+        
+        try (Bulkhead.Permit permit = admissionControl.predict().acquire()) {
+            // Per-item failures are reported inside the results
+            List<BatchPredictionResult> results = predictorService.predictBatch(requests);
+            long serializeStart = System.nanoTime();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(results.size() * (compact ? 128 : 512));
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                PredictionJson.writeBatchResponse(generator, PREDICTOR_BATCH_OK, results, responseProjection, compact);
+            }
+            predictorMetrics.recordResponseSerialize(serializeStart);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out.toByteArray());
+            
+        } catch (BulkheadFullException e) {
+            return rejected(HttpStatus.TOO_MANY_REQUESTS, PREDICTOR_PREDICT_FAIL_BUSY);
+        } catch (Exception e) {
+            log.error("Batch prediction failed", e);
+            return ResponseEntity.internalServerError()
+                    .body(responseService.createResponse(
+                            PREDICTOR_PREDICT_FAIL, 
+                            "Batch prediction failed: " + e.getMessage()
+                    ));
+        }
     }
     
-    @Operation(summary = "Reload model")
-    @PostMapping("/reload")
-    public ResponseEntity<ApiResponse> reload() {
+    // Results are written as they are computed; Accept: text/event-stream selects SSE framing, NDJSON otherwise
+    @Operation(summary = Endpoints.PREDICTOR_ENDPOINT_STREAM_SUMMARY)
+    @PostMapping(value = Endpoints.PREDICTOR_ENDPOINT_STREAM_PATH, 
+            produces = {NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> predictStream(HttpServletRequest request, 
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, 
+                                                               @RequestParam(required = false) String projection, 
+                                                               @RequestParam(defaultValue = "false") boolean compact) {
+        ResponseProjection responseProjection = parseProjection(projection);
+        if (responseProjection == null) {
+            ApiResponse response = responseService.createResponse(PREDICTOR_PREDICT_FAIL_PROJECTION, projection);
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, response));
+        }
+        
+        if (predictorService.getLoadedLeagues().isEmpty()) {
+            ResponseEntity<ApiResponse> unavailable = unavailable(leagueSettings.getDefaultLeague());
+            ApiResponse response = unavailable.getBody();
+            return ResponseEntity.status(unavailable.getStatusCode())
+                    .headers(unavailable.getHeaders())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, response));
+        }
+        
+        // A stream that couldn't get a single permit now is turned away before its headers go out. The probe's
+        // permit is given back at once: each item takes its own while it is predicted, so nothing is held if
+        // the body is never run, or between items of a slow stream.
         try {
-            predictorService.loadModel();
-            return ResponseEntity.ok(
-                    responseService.createResponse(DOWNLOADER_DOWNLOAD_OK, "Model reloaded successfully")
+            admissionControl.predict().acquire().close();
+        } catch (BulkheadFullException e) {
+            ApiResponse response = responseService.createResponse(PREDICTOR_PREDICT_FAIL_BUSY, null);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, response));
+        }
+        
+        boolean serverSentEvents = accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        StreamingResponseBody body = out -> 
+                predictionStreamService.stream(request.getInputStream(), out, serverSentEvents, responseProjection, compact);
+        return ResponseEntity.ok()
+                .contentType(serverSentEvents ? MediaType.TEXT_EVENT_STREAM : MediaType.valueOf(NDJSON_VALUE))
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(body);
+    }
+    
+    @Operation(summary = Endpoints.PREDICTOR_ENDPOINT_MODELS_SUMMARY)
+    @GetMapping(Endpoints.PREDICTOR_ENDPOINT_MODELS_PATH)
+    public ResponseEntity<ApiResponse> models(@RequestParam(required = false) String league) {
+        if (!leagueSettings.accepts(league)) {
+            return ResponseEntity.status(404)
+                    .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_LEAGUE, league));
+        }
+        String resolvedLeague = leagueSettings.resolve(league);
+        try {
+            Map<String, Object> models = Map.of(
+                    "league", resolvedLeague,
+                    "default", predictorService.getDefaultModelVersion(),
+                    "available", modelRegistry.getAvailableVersions(resolvedLeague),
+                    "loaded", modelRegistry.getLoadedVersions(resolvedLeague)
             );
+            return ResponseEntity.ok(responseService.createResponse(PREDICTOR_MODELS_OK, models));
         } catch (Exception e) {
-            log.error("Model reload failed", e);
+            log.error("Listing models failed", e);
             return ResponseEntity.internalServerError()
                     .body(responseService.createResponse(
                             DOWNLOADER_DOWNLOAD_FAIL, 
-                            "Model reload failed: " + e.getMessage()
+                            "Listing models failed: " + e.getMessage()
                     ));
         }
     }
+    
+    // Readiness is what load balancers should poll (/actuator/health/readiness); this adds the detail behind it
+    @Operation(summary = "Check model status")
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse> status() {
+        Map<String, Object> leagues = new LinkedHashMap<>();
+        for (String league : leagueSettings.getLeagues()) {
+            leagues.put(league, Map.of("modelLoaded", predictorService.isModelLoaded(league)));
+        }
+        
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("modelLoaded", predictorService.isModelLoaded(leagueSettings.getDefaultLeague()));
+        status.put("modelVersion", predictorService.getDefaultModelVersion());
+        status.put("defaultLeague", leagueSettings.getDefaultLeague());
+        status.put("leagues", leagues);
+        status.put("readiness", applicationAvailability.getReadinessState());
+        status.put("warmup", warmupService.getStatus());
+        status.put("bulkheads", List.of(
+                bulkheadStatus(admissionControl.predict()), 
+                bulkheadStatus(admissionControl.maintenance())
+        ));
+        return ResponseEntity.ok(responseService.createResponse(PREDICTOR_STATUS_OK, status));
+    }
+    
+    private Map<String, Object> bulkheadStatus(Bulkhead bulkhead) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("name", bulkhead.getName());
+        status.put("inUse", bulkhead.getInUse());
+        status.put("queued", bulkhead.getQueueLength());
+        status.put("rejected", bulkhead.getRejected());
+        return status;
+    }
+    
+    // Returns immediately; the league's current model keeps serving until the job swaps in the new one
+    @Operation(summary = Endpoints.PREDICTOR_ENDPOINT_RELOAD_SUMMARY)
+    @PostMapping(Endpoints.PREDICTOR_ENDPOINT_RELOAD_PATH)
+    public ResponseEntity<ApiResponse> reload(@RequestParam(required = false) String league) {
+        if (!leagueSettings.accepts(league)) {
+            return ResponseEntity.status(404)
+                    .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_LEAGUE, league));
+        }
+        ReloadJob job = reloadService.requestReload(leagueSettings.resolve(league));
+        return ResponseEntity.accepted()
+                .location(URI.create(Endpoints.PREDICTOR_REQUEST_MAPPING + Endpoints.PREDICTOR_ENDPOINT_RELOAD_PATH 
+                        + "/" + job.getId()))
+                .body(responseService.createResponse(PREDICTOR_RELOAD_ACCEPTED, job.toMap()));
+    }
+    
+    @Operation(summary = Endpoints.PREDICTOR_ENDPOINT_RELOAD_STATUS_SUMMARY)
+    @GetMapping(Endpoints.PREDICTOR_ENDPOINT_RELOAD_STATUS_PATH)
+    public ResponseEntity<ApiResponse> reloadStatus(@PathVariable String jobId) {
+        return reloadService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(responseService.createResponse(PREDICTOR_RELOAD_STATUS_OK, job.toMap())))
+                .orElseGet(() -> ResponseEntity.status(404)
+                        .body(responseService.createResponse(PREDICTOR_RELOAD_FAIL_JOB, jobId)));
+    }
+    
+    // Waits until the result is serving; predictions made afterwards include it and get new ETags
+    @Operation(summary = Endpoints.PREDICTOR_ENDPOINT_RESULTS_SUMMARY)
+    @PostMapping(Endpoints.PREDICTOR_ENDPOINT_RESULTS_PATH)
+    public ResponseEntity<ApiResponse> recordResult(@RequestBody ResultRequest request) {
+        if (!leagueSettings.accepts(request.getLeague())) {
+            return ResponseEntity.status(404)
+                    .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_LEAGUE, request.getLeague()));
+        }
+        String league = leagueSettings.resolve(request.getLeague());
+        
+        if (request.getHomeTeam() == null || request.getHomeTeam().isBlank() || 
+            request.getAwayTeam() == null || request.getAwayTeam().isBlank()) {
+            return ResponseEntity.badRequest()
+                    .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_TEAMS, null));
+        }
+        if (request.getHomeGoals() == null || request.getAwayGoals() == null || 
+            request.getHomeGoals() < 0 || request.getAwayGoals() < 0) {
+            return ResponseEntity.badRequest()
+                    .body(responseService.createResponse(PREDICTOR_RESULT_FAIL_SCORE, null));
+        }
+        LocalDate matchDate;
+        try {
+            matchDate = LocalDate.parse(request.getDate(), DATE_FORMATTER);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_DATE, null));
+        }
+        if (matchDate.isAfter(LocalDate.now())) {
+            return ResponseEntity.badRequest()
+                    .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_DATE, "A result cannot be dated in the future"));
+        }
+        if (!predictorService.isModelLoaded(league)) {
+            return unavailable(league);
+        }
+        
+        int homeGoals = request.getHomeGoals();
+        int awayGoals = request.getAwayGoals();
+        Match match = Match.builder()
+                .division(league)
+                .date(matchDate)
+                .homeTeam(TeamNormalizer.normalize(league, request.getHomeTeam()))
+                .awayTeam(TeamNormalizer.normalize(league, request.getAwayTeam()))
+                .fullTimeHomeGoals(homeGoals)
+                .fullTimeAwayGoals(awayGoals)
+                .fullTimeResult(homeGoals > awayGoals ? "H" : homeGoals == awayGoals ? "D" : "A")
+                .build();
+        
+        try {
+            reloadService.recordResult(league, match).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(responseService.createResponse(PREDICTOR_RESULT_FAIL_DUPLICATE, cause.getMessage()));
+            }
+            if (cause instanceof ModelNotLoadedException) {
+                return unavailable(league);
+            }
+            if (cause instanceof BulkheadFullException) {
+                return rejected(HttpStatus.TOO_MANY_REQUESTS, PREDICTOR_PREDICT_FAIL_BUSY);
+            }
+            log.error("Recording result failed", cause);
+            return ResponseEntity.internalServerError()
+                    .body(responseService.createResponse(PREDICTOR_RESULT_FAIL, cause.getMessage()));
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("league", league);
+        result.put("date", matchDate.toString());
+        result.put("homeTeam", match.getHomeTeam());
+        result.put("awayTeam", match.getAwayTeam());
+        result.put("homeGoals", homeGoals);
+        result.put("awayGoals", awayGoals);
+        return ResponseEntity.ok(responseService.createResponse(PREDICTOR_RESULT_OK, result));
+    }
+    
+    // Only GET requests carry a WebRequest; POST predictions are never answered with 304
+    private boolean isNotModified(WebRequest conditionalRequest, String etag) {
+        if (conditionalRequest == null || !conditionalRequest.checkNotModified(etag)) {
+            return false;
+        }
+        predictorMetrics.countNotModified();
+        return true;
+    }
+    
+    // Null for an unknown projection name, so the caller can answer 400
+    private ResponseProjection parseProjection(String projection) {
+        try {
+            return ResponseProjection.from(projection);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    // 503 for a league without a model. While a reload is bringing one in a retry will succeed, so the response
+    // carries Retry-After; otherwise the model has to be trained or reloaded first.
+    private ResponseEntity<ApiResponse> unavailable(String league) {
+        if (reloadService.isReloading(league)) {
+            return rejected(HttpStatus.SERVICE_UNAVAILABLE, PREDICTOR_PREDICT_FAIL_LOADING);
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(responseService.createResponse(PREDICTOR_PREDICT_FAIL_MODEL, null));
+    }
+    
+    // Fast rejection when a bulkhead is full; clients should back off and retry
+    private ResponseEntity<ApiResponse> rejected(HttpStatus status, AppMessages message) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(responseService.createResponse(message, null));
+    }
 }
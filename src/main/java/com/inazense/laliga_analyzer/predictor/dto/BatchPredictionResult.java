@@ -0,0 +1,14 @@
+package com.inazense.laliga_analyzer.predictor.dto;
+
+import com.inazense.laliga_analyzer.predictor.model.PredictionResult;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BatchPredictionResult {
+    private int index; // Position of the request in the batch
+    private String code;
+    private String message;
+    private PredictionResult prediction; // Null when this item failed
+}
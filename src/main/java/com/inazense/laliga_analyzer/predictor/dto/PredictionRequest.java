@@ -7,6 +7,8 @@ public class PredictionRequest {
     private String date;
     private String homeTeam;
     private String awayTeam;
+    private String modelVersion; // Optional, defaults to the configured model
+    private String league; // Optional division code (SP1, E0, ...), defaults to the first configured league
     private MatchContext context;
     
     @Data
@@ -0,0 +1,18 @@
+package com.inazense.laliga_analyzer.predictor.dto;
+
+import java.util.Locale;
+
+// How much of a prediction to return: the three outcome probabilities only, plus the most likely
+// scores, or everything including the predicted outcome and the feature explanation
+public enum ResponseProjection {
+    MINIMAL,
+    SCORES,
+    FULL;
+    
+    public static ResponseProjection from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,13 @@
+package com.inazense.laliga_analyzer.predictor.dto;
+
+import lombok.Data;
+
+@Data
+public class ResultRequest {
+    private String date;
+    private String homeTeam;
+    private String awayTeam;
+    private Integer homeGoals;
+    private Integer awayGoals;
+    private String league; // Optional division code (SP1, E0, ...), defaults to the first configured league
+}
@@ -0,0 +1,39 @@
+package com.inazense.laliga_analyzer.predictor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Parsing the match data file, from opening it to the last parsed row
+@Name("com.inazense.laliga.CsvLoad")
+@Label("CSV Load")
+@Category({"LaLiga Analyzer", "Ingestion"})
+@Description("Parsing the match data file")
+@StackTrace(false)
+public class CsvLoadEvent extends Event {
+    
+    @Label("Path")
+    public String path;
+    
+    @Label("Rows")
+    @Description("Data rows read, excluding the header")
+    public int rows;
+    
+    @Label("Matches")
+    @Description("Rows parsed into matches")
+    public int matches;
+    
+    @Label("Failed Rows")
+    public int failedRows;
+    
+    @Label("Unmapped Rows")
+    @Description("Rows wider than their header, loaded without statistics and odds")
+    public int unmappedRows;
+    
+    @Label("Skipped Rows")
+    @Description("Rows whose goals don't parse under their header")
+    public int skippedRows;
+}
@@ -0,0 +1,22 @@
+package com.inazense.laliga_analyzer.predictor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Scoring the test set and computing the bootstrap confidence intervals
+@Name("com.inazense.laliga.Evaluation")
+@Label("Evaluation")
+@Category({"LaLiga Analyzer", "Training"})
+public class EvaluationEvent extends Event {
+    
+    @Label("Test Matches")
+    public int testMatches;
+    
+    @Label("Evaluated Matches")
+    public int evaluatedMatches;
+    
+    @Label("Bootstrap Samples")
+    public int bootstrapSamples;
+}
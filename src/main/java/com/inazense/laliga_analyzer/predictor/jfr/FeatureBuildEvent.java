@@ -0,0 +1,40 @@
+package com.inazense.laliga_analyzer.predictor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Building the features of one fixture from the match index
+@Name("com.inazense.laliga.FeatureBuild")
+@Label("Feature Build")
+@Category({"LaLiga Analyzer", "Prediction"})
+@Description("Building the features of one fixture")
+@StackTrace(false)
+public class FeatureBuildEvent extends Event {
+    
+    @Label("Home Team")
+    public String homeTeam;
+    
+    @Label("Away Team")
+    public String awayTeam;
+    
+    @Label("Match Date")
+    public String matchDate;
+    
+    @Label("Window Size")
+    public int windowSize;
+    
+    @Label("Home Matches")
+    @Description("Recent home team matches inside the window")
+    public int homeMatches;
+    
+    @Label("Away Matches")
+    @Description("Recent away team matches inside the window")
+    public int awayMatches;
+    
+    @Label("Head-to-Head Matches")
+    public int headToHeadMatches;
+}
@@ -0,0 +1,30 @@
+package com.inazense.laliga_analyzer.predictor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Poisson scoring of one fixture against the live model or a snapshot
+@Name("com.inazense.laliga.ModelPredict")
+@Label("Model Predict")
+@Category({"LaLiga Analyzer", "Prediction"})
+@Description("Poisson scoring of one fixture")
+@StackTrace(false)
+public class ModelPredictEvent extends Event {
+    
+    @Label("Home Team")
+    public String homeTeam;
+    
+    @Label("Away Team")
+    public String awayTeam;
+    
+    @Label("Model Version")
+    public String modelVersion;
+    
+    @Label("Default Prediction")
+    @Description("A team was unknown and league defaults were returned")
+    public boolean defaultPrediction;
+}
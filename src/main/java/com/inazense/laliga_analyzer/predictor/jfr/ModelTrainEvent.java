@@ -0,0 +1,28 @@
+package com.inazense.laliga_analyzer.predictor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Fitting a model snapshot from matches
+@Name("com.inazense.laliga.ModelTrain")
+@Label("Model Train")
+@Category({"LaLiga Analyzer", "Training"})
+public class ModelTrainEvent extends Event {
+    
+    @Label("Model Version")
+    public String modelVersion;
+    
+    @Label("Rating Mode")
+    public String ratingMode;
+    
+    @Label("Matches")
+    public int matches;
+    
+    @Label("Valid Matches")
+    public int validMatches;
+    
+    @Label("Teams")
+    public int teams;
+}
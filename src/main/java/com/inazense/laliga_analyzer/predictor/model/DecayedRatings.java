@@ -0,0 +1,282 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import com.inazense.laliga_analyzer.predictor.util.BinaryCodec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Exponentially time-decayed team statistics. Every team (and the league as a whole) keeps its decayed
+// sums expressed at the date of its latest match; a new match rescales them by exp(-rate * elapsedDays)
+// before adding its own contribution, so an update is O(1) whatever the history length.
+// Each update also appends to a compact per-team history, so strengths at any past date come from a
+// binary search instead of a full recompute. A result older than the latest entry is inserted at its own
+// date and updates the entries after it. A copy shares the histories with the ratings it was copied from
+// (see HistoryExtent), so copying costs O(teams) and a copy updated in date order only appends.
+// Not thread-safe: callers guard mutations.
+public class DecayedRatings {
+    
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int INITIAL_HISTORY = 16;
+    private static final double MIN_WEIGHT = 1e-9;
+    
+    private final double halfLifeDays;
+    private final double decayRate;
+    
+    private final Map<String, Integer> teamIndex = new HashMap<>();
+    private String[] teamNames = new String[INITIAL_CAPACITY];
+    private History[] histories = new History[INITIAL_CAPACITY];
+    private int teamCount;
+    
+    // League totals: weight holds decayed matches, scored holds decayed goals
+    private History league = new History();
+    
+    public DecayedRatings(double halfLifeDays) {
+        if (halfLifeDays <= 0) {
+            throw new IllegalArgumentException("Half-life must be positive: " + halfLifeDays);
+        }
+        this.halfLifeDays = halfLifeDays;
+        this.decayRate = Math.log(2) / halfLifeDays;
+    }
+    
+    public DecayedRatings copy() {
+        DecayedRatings copy = new DecayedRatings(halfLifeDays);
+        copy.teamIndex.putAll(teamIndex);
+        copy.teamNames = teamNames.clone();
+        copy.histories = new History[histories.length];
+        for (int i = 0; i < teamCount; i++) {
+            copy.histories[i] = histories[i].copy(copy);
+        }
+        copy.teamCount = teamCount;
+        copy.league = league.copy(copy);
+        return copy;
+    }
+    
+    public void add(Match match) {
+        long day = match.getDate().toEpochDay();
+        int home = indexOrCreate(match.getHomeTeam());
+        int away = indexOrCreate(match.getAwayTeam());
+        int homeGoals = match.getFullTimeHomeGoals();
+        int awayGoals = match.getFullTimeAwayGoals();
+        
+        histories[home].record(day, 1, homeGoals, awayGoals);
+        histories[away].record(day, 1, awayGoals, homeGoals);
+        league.record(day, 1, homeGoals + awayGoals, 0);
+    }
+    
+    private int indexOrCreate(String teamName) {
+        Integer index = teamIndex.get(teamName);
+        if (index != null) {
+            return index;
+        }
+        
+        if (teamCount == teamNames.length) {
+            teamNames = Arrays.copyOf(teamNames, teamNames.length * 2);
+            histories = Arrays.copyOf(histories, histories.length * 2);
+        }
+        
+        int newIndex = teamCount++;
+        teamNames[newIndex] = teamName;
+        histories[newIndex] = new History();
+        teamIndex.put(teamName, newIndex);
+        return newIndex;
+    }
+    
+    // Returns -1 when the team has no matches strictly before the given epoch day
+    public int indexOf(String teamName, long epochDay) {
+        Integer index = teamIndex.get(teamName);
+        if (index == null) {
+            return -1;
+        }
+        History history = histories[index];
+        int entry = history.indexBefore(epochDay);
+        if (entry < 0 || history.weight[entry] <= MIN_WEIGHT) {
+            return -1;
+        }
+        return index;
+    }
+    
+    // Decaying both sums to the query date scales them by the same factor, so the ratios below
+    // only depend on the latest state before that date
+    public double attackStrength(int team, long epochDay) {
+        History history = histories[team];
+        int entry = history.indexBefore(epochDay);
+        double leagueAvg = leagueAvgGoals(epochDay);
+        if (entry < 0 || history.weight[entry] <= MIN_WEIGHT || leagueAvg <= 0) {
+            return 1.0;
+        }
+        return (history.scored[entry] / history.weight[entry]) / leagueAvg;
+    }
+    
+    public double defenseStrength(int team, long epochDay) {
+        History history = histories[team];
+        int entry = history.indexBefore(epochDay);
+        double leagueAvg = leagueAvgGoals(epochDay);
+        if (entry < 0 || history.weight[entry] <= MIN_WEIGHT || leagueAvg <= 0) {
+            return 1.0;
+        }
+        return (history.conceded[entry] / history.weight[entry]) / leagueAvg;
+    }
+    
+    public double leagueAvgGoals(long epochDay) {
+        int entry = league.indexBefore(epochDay);
+        if (entry < 0 || league.weight[entry] <= MIN_WEIGHT) {
+            return 0.0;
+        }
+        return league.scored[entry] / (2 * league.weight[entry]);
+    }
+    
+    // Effective (decayed) number of matches a team has played as of the given date
+    public double effectiveMatches(int team, long epochDay) {
+        History history = histories[team];
+        int entry = history.indexBefore(epochDay);
+        if (entry < 0) {
+            return 0.0;
+        }
+        return history.weight[entry] * Math.exp(-decayRate * (epochDay - history.days[entry]));
+    }
+    
+    public double getHalfLifeDays() {
+        return halfLifeDays;
+    }
+    
+    public int getTeamCount() {
+        return teamCount;
+    }
+    
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeDouble(halfLifeDays);
+        out.writeInt(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            BinaryCodec.writeString(out, teamNames[i]);
+        }
+        league.writeTo(out);
+        for (int i = 0; i < teamCount; i++) {
+            histories[i].writeTo(out);
+        }
+    }
+    
+    public static DecayedRatings readFrom(ByteBuffer buffer) {
+        DecayedRatings ratings = new DecayedRatings(buffer.getDouble());
+        int count = buffer.getInt();
+        int capacity = Math.max(INITIAL_CAPACITY, count);
+        
+        ratings.teamNames = new String[capacity];
+        for (int i = 0; i < count; i++) {
+            ratings.teamNames[i] = BinaryCodec.readString(buffer);
+            ratings.teamIndex.put(ratings.teamNames[i], i);
+        }
+        ratings.teamCount = count;
+        ratings.league = ratings.readHistory(buffer);
+        ratings.histories = new History[capacity];
+        for (int i = 0; i < count; i++) {
+            ratings.histories[i] = ratings.readHistory(buffer);
+        }
+        return ratings;
+    }
+    
+    private History readHistory(ByteBuffer buffer) {
+        History history = new History();
+        int size = buffer.getInt();
+        int capacity = Math.max(INITIAL_HISTORY, size);
+        history.days = BinaryCodec.readLongs(buffer, size, capacity);
+        history.weight = BinaryCodec.readDoubles(buffer, size, capacity);
+        history.scored = BinaryCodec.readDoubles(buffer, size, capacity);
+        history.conceded = BinaryCodec.readDoubles(buffer, size, capacity);
+        history.size = size;
+        history.extent.use(size);
+        return history;
+    }
+    
+    private class History {
+        private long[] days = new long[INITIAL_HISTORY];
+        private double[] weight = new double[INITIAL_HISTORY];
+        private double[] scored = new double[INITIAL_HISTORY];
+        private double[] conceded = new double[INITIAL_HISTORY];
+        private int size;
+        private HistoryExtent extent = new HistoryExtent();
+        
+        // Goes after every entry on or before the day, holding the previous entry decayed to this day plus the
+        // match. A result dated before the latest entry is also carried, decayed, into every later entry, so
+        // point-in-time queries stay exact for out-of-order data. In date order it is an O(1) append.
+        void record(long day, double matchWeight, double goalsFor, double goalsAgainst) {
+            int position = indexBefore(day + 1) + 1;
+            if (!extent.writable(position, size, days.length)) {
+                int capacity = size < days.length ? days.length : days.length * 2;
+                days = Arrays.copyOf(days, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+                scored = Arrays.copyOf(scored, capacity);
+                conceded = Arrays.copyOf(conceded, capacity);
+                extent = new HistoryExtent();
+            }
+            int moved = size - position;
+            System.arraycopy(days, position, days, position + 1, moved);
+            System.arraycopy(weight, position, weight, position + 1, moved);
+            System.arraycopy(scored, position, scored, position + 1, moved);
+            System.arraycopy(conceded, position, conceded, position + 1, moved);
+            
+            double previousWeight = 0.0;
+            double previousScored = 0.0;
+            double previousConceded = 0.0;
+            if (position > 0) {
+                double factor = Math.exp(-decayRate * (day - days[position - 1]));
+                previousWeight = weight[position - 1] * factor;
+                previousScored = scored[position - 1] * factor;
+                previousConceded = conceded[position - 1] * factor;
+            }
+            days[position] = day;
+            weight[position] = previousWeight + matchWeight;
+            scored[position] = previousScored + goalsFor;
+            conceded[position] = previousConceded + goalsAgainst;
+            size++;
+            extent.use(size);
+            
+            for (int i = position + 1; i < size; i++) {
+                double factor = Math.exp(-decayRate * (days[i] - day));
+                weight[i] += matchWeight * factor;
+                scored[i] += goalsFor * factor;
+                conceded[i] += goalsAgainst * factor;
+            }
+        }
+        
+        // Shares the arrays; whichever of the two writes where the other could see copies them first
+        History copy(DecayedRatings owner) {
+            History copy = owner.new History();
+            copy.days = days;
+            copy.weight = weight;
+            copy.scored = scored;
+            copy.conceded = conceded;
+            copy.size = size;
+            copy.extent = extent.share();
+            return copy;
+        }
+        
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            BinaryCodec.writeLongs(out, days, size);
+            BinaryCodec.writeDoubles(out, weight, size);
+            BinaryCodec.writeDoubles(out, scored, size);
+            BinaryCodec.writeDoubles(out, conceded, size);
+        }
+        
+        // Last entry strictly before the given day, or -1
+        int indexBefore(long day) {
+            int low = 0;
+            int high = size - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < day) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
+}
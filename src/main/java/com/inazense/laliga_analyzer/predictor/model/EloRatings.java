@@ -0,0 +1,411 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import com.inazense.laliga_analyzer.predictor.util.BinaryCodec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Elo ratings updated match by match in chronological order. Each match moves both teams by
+// k * margin * (actual - expected), where the expected score includes a home-field bonus and the margin
+// multiplier grows with the goal difference, so an update is O(1) whatever the history length.
+// Each update also appends to a compact per-team history, so ratings at any past date come from a
+// binary search instead of a replay. A team's first match of a new season (seasons start on July 1) starts
+// from its rating moved part of the way back to the initial rating. The league's goals per team and match
+// are kept the same way, so expected goals come from the matches these ratings were built from.
+// A result older than the latest entry is rated from the ratings at its own date, inserted there, and its
+// change carried into every later entry. Elo updates don't commute, so that approximates a replay.
+// A copy shares the histories with the ratings it was copied from (see HistoryExtent), so copying costs
+// O(teams) and a copy updated in date order only appends. Not thread-safe: callers guard mutations.
+public class EloRatings {
+    
+    public static final double INITIAL_RATING = 1500.0;
+    
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int INITIAL_HISTORY = 16;
+    
+    private final double kFactor;
+    private final double homeAdvantage;
+    private final double goalScale;
+    private final double seasonRegression;
+    
+    private final Map<String, Integer> teamIndex = new HashMap<>();
+    private String[] teamNames = new String[INITIAL_CAPACITY];
+    private History[] histories = new History[INITIAL_CAPACITY];
+    private int teamCount;
+    private LeagueHistory league = new LeagueHistory();
+    
+    // homeAdvantage is in rating points; goalScale is the rating gap that multiplies the ratio of the two
+    // teams' expected goals by ten; seasonRegression is the share of a rating's distance from the initial
+    // rating given up at each season boundary
+    public EloRatings(double kFactor, double homeAdvantage, double goalScale, double seasonRegression) {
+        if (kFactor <= 0 || goalScale <= 0) {
+            throw new IllegalArgumentException("K-factor and goal scale must be positive: " + kFactor + ", " + goalScale);
+        }
+        if (seasonRegression < 0 || seasonRegression > 1) {
+            throw new IllegalArgumentException("Season regression must be between 0 and 1: " + seasonRegression);
+        }
+        this.kFactor = kFactor;
+        this.homeAdvantage = homeAdvantage;
+        this.goalScale = goalScale;
+        this.seasonRegression = seasonRegression;
+    }
+    
+    public EloRatings copy() {
+        EloRatings copy = new EloRatings(kFactor, homeAdvantage, goalScale, seasonRegression);
+        copy.teamIndex.putAll(teamIndex);
+        copy.teamNames = teamNames.clone();
+        copy.histories = new History[histories.length];
+        for (int i = 0; i < teamCount; i++) {
+            copy.histories[i] = histories[i].copy(copy);
+        }
+        copy.teamCount = teamCount;
+        copy.league = league.copy();
+        return copy;
+    }
+    
+    public void add(Match match) {
+        long day = match.getDate().toEpochDay();
+        int home = indexOrCreate(match.getHomeTeam());
+        int away = indexOrCreate(match.getAwayTeam());
+        int homeGoals = match.getFullTimeHomeGoals();
+        int awayGoals = match.getFullTimeAwayGoals();
+        
+        double homeRating = startingRating(home, day);
+        double awayRating = startingRating(away, day);
+        double change = kFactor * marginMultiplier(Math.abs(homeGoals - awayGoals)) * 
+                (actualScore(homeGoals, awayGoals) - expectedScore(homeRating - awayRating + homeAdvantage));
+        
+        histories[home].record(day, homeRating + change, change);
+        histories[away].record(day, awayRating - change, -change);
+        league.record(day, homeGoals + awayGoals, 1);
+    }
+    
+    private static double actualScore(int homeGoals, int awayGoals) {
+        return homeGoals > awayGoals ? 1.0 : homeGoals == awayGoals ? 0.5 : 0.0;
+    }
+    
+    private static double expectedScore(double ratingDifference) {
+        return 1.0 / (1.0 + Math.pow(10, -ratingDifference / 400.0));
+    }
+    
+    // Same steps as the World Football Elo ratings: a one-goal game counts once, two goals one and a half
+    // times, and every further goal adds an eighth
+    private static double marginMultiplier(int goalDifference) {
+        if (goalDifference <= 1) {
+            return 1.0;
+        }
+        if (goalDifference == 2) {
+            return 1.5;
+        }
+        return (11.0 + goalDifference) / 8.0;
+    }
+    
+    private int indexOrCreate(String teamName) {
+        Integer index = teamIndex.get(teamName);
+        if (index != null) {
+            return index;
+        }
+        
+        if (teamCount == teamNames.length) {
+            teamNames = Arrays.copyOf(teamNames, teamNames.length * 2);
+            histories = Arrays.copyOf(histories, histories.length * 2);
+        }
+        
+        int newIndex = teamCount++;
+        teamNames[newIndex] = teamName;
+        histories[newIndex] = new History();
+        teamIndex.put(teamName, newIndex);
+        return newIndex;
+    }
+    
+    // Returns -1 when the team has no matches strictly before the given epoch day
+    public int indexOf(String teamName, long epochDay) {
+        Integer index = teamIndex.get(teamName);
+        if (index == null || histories[index].indexBefore(epochDay) < 0) {
+            return -1;
+        }
+        return index;
+    }
+    
+    // Rating after the team's last match strictly before the given day
+    public double rating(int team, long epochDay) {
+        History history = histories[team];
+        int entry = history.indexBefore(epochDay);
+        return entry < 0 ? INITIAL_RATING : history.ratings[entry];
+    }
+    
+    // The rating a match on the given day starts from: the team's rating after its last match on or before
+    // that day, regressed once for every season boundary in between. Regressing here rather than on every
+    // read keeps a model that stops receiving results from drifting towards the initial rating
+    private double startingRating(int team, long epochDay) {
+        History history = histories[team];
+        int entry = history.indexBefore(epochDay + 1);
+        return entry < 0 ? INITIAL_RATING : regress(history.ratings[entry], history.days[entry], epochDay);
+    }
+    
+    // A rating change made on one day, as it reaches a later day through the season regressions in between
+    private double carried(double change, long fromDay, long toDay) {
+        int seasons = seasonOf(toDay) - seasonOf(fromDay);
+        return seasons <= 0 || seasonRegression == 0 ? change : change * Math.pow(1 - seasonRegression, seasons);
+    }
+    
+    private double regress(double rating, long fromDay, long toDay) {
+        int seasons = seasonOf(toDay) - seasonOf(fromDay);
+        if (seasons <= 0 || seasonRegression == 0) {
+            return rating;
+        }
+        return INITIAL_RATING + (rating - INITIAL_RATING) * Math.pow(1 - seasonRegression, seasons);
+    }
+    
+    // Seasons run from July 1 to June 30 and are named by the year they start in
+    private static int seasonOf(long epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getMonthValue() >= 7 ? date.getYear() : date.getYear() - 1;
+    }
+    
+    // Goals per team and match over every match strictly before the given day, or 0 before the first one
+    public double leagueAvgGoals(long epochDay) {
+        int entry = league.indexBefore(epochDay);
+        if (entry < 0 || league.matches[entry] <= 0) {
+            return 0.0;
+        }
+        return (double) league.goals[entry] / (2 * league.matches[entry]);
+    }
+    
+    // Null when the team has no matches before the given day
+    public Double ratingOf(String teamName, long epochDay) {
+        int team = indexOf(teamName, epochDay);
+        return team < 0 ? null : rating(team, epochDay);
+    }
+    
+    // Splits a rating into the Poisson model's attack and defence multipliers, measured against a side at the
+    // initial rating: attack is 10^((rating - initial) / (2 * goalScale)) and defence its inverse, so home
+    // attack * away defence is 10^((home - away) / (2 * goalScale))
+    public double attackStrength(int team, long epochDay) {
+        return Math.pow(10, (rating(team, epochDay) - INITIAL_RATING) / (2 * goalScale));
+    }
+    
+    public double defenseStrength(int team, long epochDay) {
+        return 1.0 / attackStrength(team, epochDay);
+    }
+    
+    // The home-field rating bonus expressed on the home side's expected goals
+    public double homeAdvantageFactor() {
+        return Math.pow(10, homeAdvantage / (2 * goalScale));
+    }
+    
+    public double getKFactor() {
+        return kFactor;
+    }
+    
+    public double getHomeAdvantage() {
+        return homeAdvantage;
+    }
+    
+    public double getGoalScale() {
+        return goalScale;
+    }
+    
+    public double getSeasonRegression() {
+        return seasonRegression;
+    }
+    
+    public int getTeamCount() {
+        return teamCount;
+    }
+    
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeDouble(kFactor);
+        out.writeDouble(homeAdvantage);
+        out.writeDouble(goalScale);
+        out.writeDouble(seasonRegression);
+        out.writeInt(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            BinaryCodec.writeString(out, teamNames[i]);
+        }
+        for (int i = 0; i < teamCount; i++) {
+            histories[i].writeTo(out);
+        }
+        league.writeTo(out);
+    }
+    
+    public static EloRatings readFrom(ByteBuffer buffer) {
+        EloRatings ratings = new EloRatings(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+        int count = buffer.getInt();
+        int capacity = Math.max(INITIAL_CAPACITY, count);
+        
+        ratings.teamNames = new String[capacity];
+        for (int i = 0; i < count; i++) {
+            ratings.teamNames[i] = BinaryCodec.readString(buffer);
+            ratings.teamIndex.put(ratings.teamNames[i], i);
+        }
+        ratings.teamCount = count;
+        ratings.histories = new History[capacity];
+        for (int i = 0; i < count; i++) {
+            ratings.histories[i] = ratings.readHistory(buffer);
+        }
+        ratings.league = LeagueHistory.readFrom(buffer);
+        return ratings;
+    }
+    
+    private History readHistory(ByteBuffer buffer) {
+        History history = new History();
+        int size = buffer.getInt();
+        int capacity = Math.max(INITIAL_HISTORY, size);
+        history.days = BinaryCodec.readLongs(buffer, size, capacity);
+        history.ratings = BinaryCodec.readDoubles(buffer, size, capacity);
+        history.size = size;
+        history.extent.use(size);
+        return history;
+    }
+    
+    private class History {
+        private long[] days = new long[INITIAL_HISTORY];
+        private double[] ratings = new double[INITIAL_HISTORY];
+        private int size;
+        private HistoryExtent extent = new HistoryExtent();
+        
+        // Goes after every entry on or before the day, so same-day matches chain in the order they were added.
+        // Entries after it were rated without the match, and take its change as it would have carried to them.
+        void record(long day, double rating, double change) {
+            int position = indexBefore(day + 1) + 1;
+            if (!extent.writable(position, size, days.length)) {
+                int capacity = size < days.length ? days.length : days.length * 2;
+                days = Arrays.copyOf(days, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                extent = new HistoryExtent();
+            }
+            int moved = size - position;
+            System.arraycopy(days, position, days, position + 1, moved);
+            System.arraycopy(ratings, position, ratings, position + 1, moved);
+            days[position] = day;
+            ratings[position] = rating;
+            size++;
+            extent.use(size);
+            
+            for (int i = position + 1; i < size; i++) {
+                ratings[i] += carried(change, day, days[i]);
+            }
+        }
+        
+        // Shares the arrays; whichever of the two writes where the other could see copies them first
+        History copy(EloRatings owner) {
+            History copy = owner.new History();
+            copy.days = days;
+            copy.ratings = ratings;
+            copy.size = size;
+            copy.extent = extent.share();
+            return copy;
+        }
+        
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            BinaryCodec.writeLongs(out, days, size);
+            BinaryCodec.writeDoubles(out, ratings, size);
+        }
+        
+        // Last entry strictly before the given day, or -1
+        int indexBefore(long day) {
+            int low = 0;
+            int high = size - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < day) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
+    
+    // Running goal and match totals, one entry per match
+    private static class LeagueHistory {
+        private long[] days = new long[INITIAL_HISTORY];
+        private long[] goals = new long[INITIAL_HISTORY];
+        private long[] matches = new long[INITIAL_HISTORY];
+        private int size;
+        private HistoryExtent extent = new HistoryExtent();
+        
+        // Goes after every entry on or before the day; every later total includes the match as well
+        void record(long day, long matchGoals, long matchCount) {
+            int position = indexBefore(day + 1) + 1;
+            if (!extent.writable(position, size, days.length)) {
+                int capacity = size < days.length ? days.length : days.length * 2;
+                days = Arrays.copyOf(days, capacity);
+                goals = Arrays.copyOf(goals, capacity);
+                matches = Arrays.copyOf(matches, capacity);
+                extent = new HistoryExtent();
+            }
+            int moved = size - position;
+            System.arraycopy(days, position, days, position + 1, moved);
+            System.arraycopy(goals, position, goals, position + 1, moved);
+            System.arraycopy(matches, position, matches, position + 1, moved);
+            days[position] = day;
+            goals[position] = position == 0 ? 0 : goals[position - 1];
+            matches[position] = position == 0 ? 0 : matches[position - 1];
+            size++;
+            extent.use(size);
+            
+            for (int i = position; i < size; i++) {
+                goals[i] += matchGoals;
+                matches[i] += matchCount;
+            }
+        }
+        
+        // Shares the arrays like History.copy
+        LeagueHistory copy() {
+            LeagueHistory copy = new LeagueHistory();
+            copy.days = days;
+            copy.goals = goals;
+            copy.matches = matches;
+            copy.size = size;
+            copy.extent = extent.share();
+            return copy;
+        }
+        
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            BinaryCodec.writeLongs(out, days, size);
+            BinaryCodec.writeLongs(out, goals, size);
+            BinaryCodec.writeLongs(out, matches, size);
+        }
+        
+        static LeagueHistory readFrom(ByteBuffer buffer) {
+            LeagueHistory history = new LeagueHistory();
+            int size = buffer.getInt();
+            int capacity = Math.max(INITIAL_HISTORY, size);
+            history.days = BinaryCodec.readLongs(buffer, size, capacity);
+            history.goals = BinaryCodec.readLongs(buffer, size, capacity);
+            history.matches = BinaryCodec.readLongs(buffer, size, capacity);
+            history.size = size;
+            history.extent.use(size);
+            return history;
+        }
+        
+        // Last entry strictly before the given day, or -1
+        int indexBefore(long day) {
+            int low = 0;
+            int high = size - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < day) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Streaming accumulator for evaluation metrics. Memory is constant in the number of predictions and two
+// accumulators can be merged, so partial results from parallel workers combine into the same totals.
+public class EvaluationMetrics {
+    
+    public static final String[] RESULTS = {"H", "D", "A"};
+    
+    private static final int BINS = 10;
+    private static final double EPSILON = 1e-15; // To avoid log(0)
+    
+    private int total;
+    private int correct;
+    private double brierSum;
+    private double logLossSum;
+    private double rankedProbabilitySum;
+    
+    // [predicted][actual], indexed as RESULTS
+    private final int[][] confusion = new int[3][3];
+    
+    private final int[] countByResult = new int[3];
+    private final double[] logLossByResult = new double[3];
+    
+    // Reliability diagram per outcome: predicted probability of that outcome vs observed frequency
+    private final int[][] binCount = new int[3][BINS];
+    private final double[][] binProbabilitySum = new double[3][BINS];
+    private final int[][] binHits = new int[3][BINS];
+    
+    // Top-label confidence bins for expected calibration error
+    private final int[] confidenceCount = new int[BINS];
+    private final double[] confidenceSum = new double[BINS];
+    private final int[] confidenceHits = new int[BINS];
+    
+    public static int resultIndex(String result) {
+        return switch (result) {
+            case "H" -> 0;
+            case "D" -> 1;
+            case "A" -> 2;
+            default -> throw new IllegalArgumentException("Unknown result: " + result);
+        };
+    }
+    
+    public void accept(double homeWin, double draw, double awayWin, int predicted, int actual) {
+        double[] probabilities = {homeWin, draw, awayWin};
+        
+        total++;
+        if (predicted == actual) {
+            correct++;
+        }
+        confusion[predicted][actual]++;
+        
+        for (int outcome = 0; outcome < 3; outcome++) {
+            double observed = outcome == actual ? 1.0 : 0.0;
+            double probability = probabilities[outcome];
+            brierSum += (probability - observed) * (probability - observed);
+            
+            int bin = bin(probability);
+            binCount[outcome][bin]++;
+            binProbabilitySum[outcome][bin] += probability;
+            if (outcome == actual) {
+                binHits[outcome][bin]++;
+            }
+        }
+        
+        double loss = -Math.log(Math.max(probabilities[actual], EPSILON));
+        logLossSum += loss;
+        logLossByResult[actual] += loss;
+        countByResult[actual]++;
+        
+        // Outcomes are ordered H < D < A, so compare cumulative distributions
+        double cumulativeHome = homeWin - (actual == 0 ? 1.0 : 0.0);
+        double cumulativeDraw = homeWin + draw - (actual <= 1 ? 1.0 : 0.0);
+        rankedProbabilitySum += (cumulativeHome * cumulativeHome + cumulativeDraw * cumulativeDraw) / 2;
+        
+        double confidence = probabilities[predicted];
+        int confidenceBin = bin(confidence);
+        confidenceCount[confidenceBin]++;
+        confidenceSum[confidenceBin] += confidence;
+        if (predicted == actual) {
+            confidenceHits[confidenceBin]++;
+        }
+    }
+    
+    public EvaluationMetrics merge(EvaluationMetrics other) {
+        total += other.total;
+        correct += other.correct;
+        brierSum += other.brierSum;
+        logLossSum += other.logLossSum;
+        rankedProbabilitySum += other.rankedProbabilitySum;
+        
+        for (int i = 0; i < 3; i++) {
+            countByResult[i] += other.countByResult[i];
+            logLossByResult[i] += other.logLossByResult[i];
+            for (int j = 0; j < 3; j++) {
+                confusion[i][j] += other.confusion[i][j];
+            }
+            for (int bin = 0; bin < BINS; bin++) {
+                binCount[i][bin] += other.binCount[i][bin];
+                binProbabilitySum[i][bin] += other.binProbabilitySum[i][bin];
+                binHits[i][bin] += other.binHits[i][bin];
+            }
+        }
+        
+        for (int bin = 0; bin < BINS; bin++) {
+            confidenceCount[bin] += other.confidenceCount[bin];
+            confidenceSum[bin] += other.confidenceSum[bin];
+            confidenceHits[bin] += other.confidenceHits[bin];
+        }
+        return this;
+    }
+    
+    private static int bin(double probability) {
+        return Math.min((int) (probability * BINS), BINS - 1);
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public boolean isEmpty() {
+        return total == 0;
+    }
+    
+    // The scores below are means over the predictions, undefined (NaN) when there are none; toMap leaves
+    // them out in that case
+    
+    public double accuracy() {
+        return (double) correct / total;
+    }
+    
+    public double brierScore() {
+        return brierSum / (3 * total); // Normalize by number of classes and samples
+    }
+    
+    public double logLoss() {
+        return logLossSum / total;
+    }
+    
+    public double rankedProbabilityScore() {
+        return rankedProbabilitySum / total;
+    }
+    
+    public double expectedCalibrationError() {
+        double error = 0.0;
+        for (int bin = 0; bin < BINS; bin++) {
+            if (confidenceCount[bin] > 0) {
+                double meanConfidence = confidenceSum[bin] / confidenceCount[bin];
+                double hitRate = (double) confidenceHits[bin] / confidenceCount[bin];
+                error += ((double) confidenceCount[bin] / total) * Math.abs(meanConfidence - hitRate);
+            }
+        }
+        return error;
+    }
+    
+    public Map<String, Object> toMap() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        if (total > 0) {
+            metrics.put("accuracy", accuracy());
+            metrics.put("brierScore", brierScore());
+            metrics.put("logLoss", logLoss());
+            metrics.put("rankedProbabilityScore", rankedProbabilityScore());
+            metrics.put("expectedCalibrationError", expectedCalibrationError());
+        }
+        metrics.put("totalPredictions", total);
+        metrics.put("correctPredictions", correct);
+        
+        Map<String, Integer> confusionMatrix = new LinkedHashMap<>();
+        for (int predicted = 0; predicted < 3; predicted++) {
+            for (int actual = 0; actual < 3; actual++) {
+                confusionMatrix.put(RESULTS[predicted] + RESULTS[actual], confusion[predicted][actual]);
+            }
+        }
+        metrics.put("confusionMatrix", confusionMatrix);
+        
+        Map<String, Double> perOutcomeLogLoss = new LinkedHashMap<>();
+        for (int outcome = 0; outcome < 3; outcome++) {
+            perOutcomeLogLoss.put(RESULTS[outcome],
+                    countByResult[outcome] == 0 ? 0.0 : logLossByResult[outcome] / countByResult[outcome]);
+        }
+        metrics.put("logLossByOutcome", perOutcomeLogLoss);
+        
+        Map<String, List<Map<String, Object>>> reliability = new LinkedHashMap<>();
+        for (int outcome = 0; outcome < 3; outcome++) {
+            List<Map<String, Object>> bins = new ArrayList<>();
+            for (int bin = 0; bin < BINS; bin++) {
+                if (binCount[outcome][bin] == 0) {
+                    continue;
+                }
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("lower", (double) bin / BINS);
+                entry.put("upper", (double) (bin + 1) / BINS);
+                entry.put("count", binCount[outcome][bin]);
+                entry.put("meanPredicted", binProbabilitySum[outcome][bin] / binCount[outcome][bin]);
+                entry.put("observedFrequency", (double) binHits[outcome][bin] / binCount[outcome][bin]);
+                bins.add(entry);
+            }
+            reliability.put(RESULTS[outcome], bins);
+        }
+        metrics.put("reliability", reliability);
+        
+        return metrics;
+    }
+}
@@ -0,0 +1,27 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+// The arrays behind a rating history are shared by the history and its copies, so copying a model is O(teams)
+// however long the histories are. This tracks how many entries of those arrays are in use: once they are
+// shared, a history may only write in place at the end of the arrays, and only while it holds every entry in
+// use. Any other write would change entries a copy can still read, so the history copies its arrays first.
+class HistoryExtent {
+    
+    private int used;
+    private boolean shared;
+    
+    // Whether a history of the given size can write its entry at position without copying its arrays
+    boolean writable(int position, int size, int capacity) {
+        return size < capacity && (!shared || (position == size && size == used));
+    }
+    
+    // Called once the history holding the arrays has grown to the given size
+    void use(int size) {
+        used = size;
+    }
+    
+    // Called when a copy starts sharing the arrays; from then on only appends at the end are in place
+    HistoryExtent share() {
+        shared = true;
+        return this;
+    }
+}
@@ -2,6 +2,8 @@ package com.inazense.laliga_analyzer.predictor.model;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.LocalDate;
 
@@ -19,22 +21,86 @@ public class Match {
     private Integer halfTimeAwayGoals;
     private String halfTimeResult;
     
+    // Match statistics and betting odds live in the file's shared column store; this is the match's row in it.
+    // Both are storage details, so they take no part in equality or toString: the same match loaded twice
+    // lands at different rows.
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private MatchColumns columns;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private int row;
+    
+    // Any numeric column of the source file by its header name ("HS", "B365H", "PSCA", ...). Null when the
+    // match's season didn't have the column or the cell was empty.
+    public Double value(String column) {
+        return columns != null ? columns.value(row, column) : null;
+    }
+    
+    private Integer count(String column) {
+        Double value = value(column);
+        return value != null ? (int) value.doubleValue() : null;
+    }
+    
     // Match statistics (optional)
-    private Integer homeShots;
-    private Integer awayShots;
-    private Integer homeShotsOnTarget;
-    private Integer awayShotsOnTarget;
-    private Integer homeCorners;
-    private Integer awayCorners;
-    private Integer homeFouls;
-    private Integer awayFouls;
-    private Integer homeYellowCards;
-    private Integer awayYellowCards;
-    private Integer homeRedCards;
-    private Integer awayRedCards;
-    
-    // Betting odds (optional)
-    private Double avgHomeOdds;
-    private Double avgDrawOdds;
-    private Double avgAwayOdds;
+    public Integer getHomeShots() {
+        return count("HS");
+    }
+    
+    public Integer getAwayShots() {
+        return count("AS");
+    }
+    
+    public Integer getHomeShotsOnTarget() {
+        return count("HST");
+    }
+    
+    public Integer getAwayShotsOnTarget() {
+        return count("AST");
+    }
+    
+    public Integer getHomeCorners() {
+        return count("HC");
+    }
+    
+    public Integer getAwayCorners() {
+        return count("AC");
+    }
+    
+    public Integer getHomeFouls() {
+        return count("HF");
+    }
+    
+    public Integer getAwayFouls() {
+        return count("AF");
+    }
+    
+    public Integer getHomeYellowCards() {
+        return count("HY");
+    }
+    
+    public Integer getAwayYellowCards() {
+        return count("AY");
+    }
+    
+    public Integer getHomeRedCards() {
+        return count("HR");
+    }
+    
+    public Integer getAwayRedCards() {
+        return count("AR");
+    }
+    
+    // Betting odds (optional): market averages
+    public Double getAvgHomeOdds() {
+        return value("AvgH");
+    }
+    
+    public Double getAvgDrawOdds() {
+        return value("AvgD");
+    }
+    
+    public Double getAvgAwayOdds() {
+        return value("AvgA");
+    }
 }
@@ -0,0 +1,127 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import com.inazense.laliga_analyzer.predictor.util.CsvCells;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The numeric columns of one data file (match statistics and every bookmaker odds column). Rows are kept
+// as the raw CSV bytes of the matches the loader kept, and a column is only decoded the first time it is
+// read: into a primitive array for the whole file plus a bitmap of the cells that hold a value, so a
+// missing cell is an explicit null rather than a zero. Columns nobody reads cost nothing beyond the bytes.
+// Each season's header is a layout mapping column names to cell positions; rows of seasons without a
+// column are null in it. Rows are added by a single loader thread; once the load has returned, any
+// number of threads can read, and a column is decoded at most once.
+public class MatchColumns {
+    
+    private static final int INITIAL_ROWS = 1024;
+    private static final int INITIAL_BYTES = 64 * 1024;
+    
+    private final List<Map<String, Integer>> layouts = new ArrayList<>();
+    private final Set<String> columnNames = new LinkedHashSet<>();
+    private final Map<String, Column> decoded = new ConcurrentHashMap<>();
+    private byte[] data = new byte[INITIAL_BYTES];
+    private int[] rowStarts = new int[INITIAL_ROWS + 1];
+    private int[] rowLayouts = new int[INITIAL_ROWS];
+    private int rowCount;
+    
+    private record Column(double[] values, BitSet present) {
+    }
+    
+    // Registers a season header (column name to cell position) and returns its id for addRow
+    public int addLayout(Map<String, Integer> cellPositions) {
+        layouts.add(Map.copyOf(cellPositions));
+        columnNames.addAll(cellPositions.keySet());
+        return layouts.size() - 1;
+    }
+    
+    // Copies the row's bytes and returns its row number. A negative layout keeps the row with every column
+    // null, for rows whose cells can't be matched to a header.
+    public int addRow(byte[] source, int start, int end, int layout) {
+        if (rowCount == rowLayouts.length) {
+            rowLayouts = Arrays.copyOf(rowLayouts, rowCount * 2);
+            rowStarts = Arrays.copyOf(rowStarts, rowCount * 2 + 1);
+        }
+        int size = rowStarts[rowCount];
+        if (size + end - start > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + end - start));
+        }
+        System.arraycopy(source, start, data, size, end - start);
+        rowLayouts[rowCount] = layout;
+        rowStarts[rowCount + 1] = size + end - start;
+        return rowCount++;
+    }
+    
+    // Drops the spare capacity once the last row is in
+    public void trimToSize() {
+        data = Arrays.copyOf(data, rowStarts[rowCount]);
+        rowStarts = Arrays.copyOf(rowStarts, rowCount + 1);
+        rowLayouts = Arrays.copyOf(rowLayouts, rowCount);
+    }
+    
+    // Null when the file has no such column, or the row's season didn't have it, or the cell was empty
+    public Double value(int row, String name) {
+        Column column = column(name);
+        if (column == null || !column.present().get(row)) {
+            return null;
+        }
+        return column.values()[row];
+    }
+    
+    // Decodes the column now rather than on first read, for callers that know they will need it
+    public void decode(String name) {
+        column(name);
+    }
+    
+    private Column column(String name) {
+        if (!columnNames.contains(name)) {
+            return null;
+        }
+        return decoded.computeIfAbsent(name, this::decodeColumn);
+    }
+    
+    private Column decodeColumn(String name) {
+        int[] positions = new int[layouts.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = layouts.get(i).getOrDefault(name, -1);
+        }
+        
+        double[] values = new double[rowCount];
+        BitSet present = new BitSet(rowCount);
+        CsvCells cells = new CsvCells();
+        for (int row = 0; row < rowCount; row++) {
+            int layout = rowLayouts[row];
+            if (layout < 0 || positions[layout] < 0) {
+                continue;
+            }
+            // Only the cells up to the wanted one are split
+            int position = positions[layout];
+            cells.scan(data, rowStarts[row], rowStarts[row + 1], position + 1);
+            Double value = cells.doubleValue(data, position);
+            if (value != null) {
+                values[row] = value;
+                present.set(row);
+            }
+        }
+        return new Column(values, present);
+    }
+    
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(new ArrayList<>(columnNames));
+    }
+    
+    public int getDecodedColumnCount() {
+        return decoded.size();
+    }
+    
+    public int getRowCount() {
+        return rowCount;
+    }
+}
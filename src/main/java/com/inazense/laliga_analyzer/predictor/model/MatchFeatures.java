@@ -52,6 +52,10 @@ public class MatchFeatures {
     private Double avgDrawOdds;
     private Double avgAwayOdds;
     
+    // Elo ratings before the match (only in Elo rating mode, and only for teams already rated)
+    private Double homeRating;
+    private Double awayRating;
+    
     // Number of matches used for features
     private int homeMatchCount;
     private int awayMatchCount;
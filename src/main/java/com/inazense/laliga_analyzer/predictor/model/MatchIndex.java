@@ -0,0 +1,161 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Read-only lookup of historical matches by team and by fixture. Each list is kept in date order next to
+// its epoch days, so "matches before a date" is a binary search plus a sublist view instead of a scan
+// over the whole history. Built once per data load and shared by every prediction; a recorded result
+// produces a new index rather than changing this one.
+public class MatchIndex {
+    
+    private static final List<Match> NONE = List.of();
+    
+    private final Map<String, Entries> byTeam = new HashMap<>();
+    private final Map<String, Entries> byFixture = new HashMap<>();
+    private final int size;
+    private final LocalDate lastDate;
+    
+    public MatchIndex(List<Match> matches) {
+        // Stable sort keeps the file order of matches played on the same day
+        List<Match> sorted = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            if (match.getDate() != null) {
+                sorted.add(match);
+            }
+        }
+        sorted.sort(Comparator.comparing(Match::getDate));
+        
+        for (Match match : sorted) {
+            byTeam.computeIfAbsent(match.getHomeTeam(), team -> new Entries()).add(match);
+            byTeam.computeIfAbsent(match.getAwayTeam(), team -> new Entries()).add(match);
+            byFixture.computeIfAbsent(fixtureKey(match.getHomeTeam(), match.getAwayTeam()), key -> new Entries())
+                    .add(match);
+        }
+        size = sorted.size();
+        lastDate = sorted.isEmpty() ? null : sorted.get(sorted.size() - 1).getDate();
+    }
+    
+    private MatchIndex(MatchIndex source, Match match) {
+        byTeam.putAll(source.byTeam);
+        byFixture.putAll(source.byFixture);
+        byTeam.put(match.getHomeTeam(), Entries.with(byTeam.get(match.getHomeTeam()), match));
+        byTeam.put(match.getAwayTeam(), Entries.with(byTeam.get(match.getAwayTeam()), match));
+        String fixture = fixtureKey(match.getHomeTeam(), match.getAwayTeam());
+        byFixture.put(fixture, Entries.with(byFixture.get(fixture), match));
+        size = source.size + 1;
+        lastDate = source.lastDate == null || match.getDate().isAfter(source.lastDate) ? match.getDate() : source.lastDate;
+    }
+    
+    // A new index with one more match; only the lists of its two teams and its fixture are copied, the
+    // rest are shared with this index, which is left unchanged for the requests still reading it
+    public MatchIndex with(Match match) {
+        return new MatchIndex(this, match);
+    }
+    
+    // True when the index already holds this fixture (same home and away team) on this date
+    public boolean contains(String homeTeam, String awayTeam, LocalDate date) {
+        Entries entries = byFixture.get(fixtureKey(homeTeam, awayTeam));
+        if (entries == null) {
+            return false;
+        }
+        for (Match match : entries.on(date)) {
+            if (match.getHomeTeam().equals(homeTeam) && match.getAwayTeam().equals(awayTeam)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Matches the team played strictly before the date, oldest first
+    public List<Match> teamMatchesBefore(String team, LocalDate date) {
+        Entries entries = byTeam.get(team);
+        return entries != null ? entries.before(date) : NONE;
+    }
+    
+    // Meetings between the two teams (either venue) strictly before the date, oldest first
+    public List<Match> headToHeadBefore(String team1, String team2, LocalDate date) {
+        Entries entries = byFixture.get(fixtureKey(team1, team2));
+        return entries != null ? entries.before(date) : NONE;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    // Every team with at least one indexed match, in no particular order
+    public Set<String> teams() {
+        return Collections.unmodifiableSet(byTeam.keySet());
+    }
+    
+    // Date of the most recent indexed match, or null for an empty index
+    public LocalDate lastDate() {
+        return lastDate;
+    }
+    
+    private static String fixtureKey(String team1, String team2) {
+        return team1.compareTo(team2) <= 0 ? team1 + '\u0000' + team2 : team2 + '\u0000' + team1;
+    }
+    
+    private static class Entries {
+        private final List<Match> matches = new ArrayList<>();
+        private long[] days = new long[8];
+        
+        void add(Match match) {
+            if (matches.size() == days.length) {
+                days = Arrays.copyOf(days, days.length * 2);
+            }
+            days[matches.size()] = match.getDate().toEpochDay();
+            matches.add(match);
+        }
+        
+        // A copy with the match inserted after any others of the same day, as the constructor's stable sort would
+        static Entries with(Entries source, Match match) {
+            Entries entries = new Entries();
+            if (source != null) {
+                entries.matches.addAll(source.matches);
+                entries.days = Arrays.copyOf(source.days, source.matches.size() + 1);
+            }
+            long day = match.getDate().toEpochDay();
+            int position = source != null ? source.firstAfter(day) : 0;
+            if (entries.matches.size() == entries.days.length) {
+                entries.days = Arrays.copyOf(entries.days, entries.days.length * 2);
+            }
+            System.arraycopy(entries.days, position, entries.days, position + 1, entries.matches.size() - position);
+            entries.days[position] = day;
+            entries.matches.add(position, match);
+            return entries;
+        }
+        
+        List<Match> before(LocalDate date) {
+            return Collections.unmodifiableList(matches.subList(0, firstAfter(date.toEpochDay() - 1)));
+        }
+        
+        List<Match> on(LocalDate date) {
+            long day = date.toEpochDay();
+            return matches.subList(firstAfter(day - 1), firstAfter(day));
+        }
+        
+        // First position whose day is after the given one
+        private int firstAfter(long day) {
+            int low = 0;
+            int high = matches.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
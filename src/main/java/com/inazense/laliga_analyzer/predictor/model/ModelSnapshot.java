@@ -0,0 +1,17 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Point-in-time copy of a trained model. Snapshots are never mutated after they are built,
+// so they can be persisted or read from several threads without locking.
+@Getter
+@Builder
+public class ModelSnapshot {
+    private String modelVersion;
+    private String dataFingerprint;
+    private long createdAt; // Epoch millis
+    private TeamRatings ratings;
+    private DecayedRatings decayedRatings; // Only present in decayed rating mode
+    private EloRatings eloRatings; // Only present in Elo rating mode
+}
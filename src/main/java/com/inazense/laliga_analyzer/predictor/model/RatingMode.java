@@ -0,0 +1,16 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import java.util.Locale;
+
+public enum RatingMode {
+    STATIC,
+    DECAYED,
+    ELO;
+
+    public static RatingMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return STATIC;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,119 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Progress of one model reload. Written by the reload thread and read by status requests, so every
+// access is synchronized and callers only ever see a consistent copy through toMap().
+public class ReloadJob {
+    
+    public enum State { QUEUED, RUNNING, SUCCEEDED, FAILED }
+    
+    public enum Stage { LOAD, INDEX, TRAIN, PERSIST }
+    
+    public enum StageState { PENDING, RUNNING, DONE, SKIPPED, FAILED }
+    
+    private final String id;
+    private final String league;
+    private final Instant requestedAt = Instant.now();
+    private Instant startedAt;
+    private Instant finishedAt;
+    private State state = State.QUEUED;
+    private String error;
+    
+    private final Map<Stage, StageState> stages = new EnumMap<>(Stage.class);
+    private final Map<Stage, String> details = new EnumMap<>(Stage.class);
+    private final Map<Stage, Long> stageMillis = new EnumMap<>(Stage.class);
+    private final Map<Stage, Long> stageStarts = new EnumMap<>(Stage.class);
+    
+    public ReloadJob(String id, String league) {
+        this.id = id;
+        this.league = league;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, StageState.PENDING);
+        }
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getLeague() {
+        return league;
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+    
+    public synchronized void start() {
+        state = State.RUNNING;
+        startedAt = Instant.now();
+    }
+    
+    public synchronized void startStage(Stage stage) {
+        stages.put(stage, StageState.RUNNING);
+        stageStarts.put(stage, System.nanoTime());
+    }
+    
+    public synchronized void finishStage(Stage stage, String detail) {
+        endStage(stage, StageState.DONE, detail);
+    }
+    
+    public synchronized void skipStage(Stage stage, String detail) {
+        endStage(stage, StageState.SKIPPED, detail);
+    }
+    
+    public synchronized void succeed() {
+        state = State.SUCCEEDED;
+        finishedAt = Instant.now();
+    }
+    
+    // Marks whichever stage was running as the one that failed
+    public synchronized void fail(Throwable cause) {
+        for (Map.Entry<Stage, StageState> entry : stages.entrySet()) {
+            if (entry.getValue() == StageState.RUNNING) {
+                endStage(entry.getKey(), StageState.FAILED, null);
+            }
+        }
+        state = State.FAILED;
+        error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        finishedAt = Instant.now();
+    }
+    
+    private void endStage(Stage stage, StageState stageState, String detail) {
+        stages.put(stage, stageState);
+        if (detail != null) {
+            details.put(stage, detail);
+        }
+        Long stageStart = stageStarts.get(stage);
+        if (stageStart != null) {
+            stageMillis.put(stage, (System.nanoTime() - stageStart) / 1_000_000);
+        }
+    }
+    
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("jobId", id);
+        job.put("league", league);
+        job.put("state", state);
+        job.put("requestedAt", requestedAt.toString());
+        job.put("startedAt", startedAt != null ? startedAt.toString() : null);
+        job.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        
+        Map<String, Object> stageStatus = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("state", stages.get(stage));
+            entry.put("durationMs", stageMillis.get(stage));
+            entry.put("detail", details.get(stage));
+            stageStatus.put(stage.name().toLowerCase(Locale.ROOT), entry);
+        }
+        job.put("stages", stageStatus);
+        job.put("error", error);
+        return job;
+    }
+}
@@ -0,0 +1,222 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import com.inazense.laliga_analyzer.predictor.util.BinaryCodec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-team sufficient statistics kept in primitive arrays indexed by team id.
+// Adding a match is O(1) and copying is O(teams); strengths and league averages are derived on read.
+// Not thread-safe: callers guard mutations.
+public class TeamRatings {
+    
+    public static final double DEFAULT_HOME_ADVANTAGE = 1.15;
+    
+    private static final int INITIAL_CAPACITY = 32;
+    
+    private final Map<String, Integer> teamIndex = new HashMap<>();
+    private String[] teamNames;
+    private int[] matchesPlayed;
+    private int[] goalsScored;
+    private int[] goalsConceded;
+    private int[] wins;
+    private int[] draws;
+    private int[] losses;
+    private int teamCount;
+    
+    private long totalGoals;
+    private int totalMatches;
+    private int totalHomeWins;
+    
+    public TeamRatings() {
+        teamNames = new String[INITIAL_CAPACITY];
+        matchesPlayed = new int[INITIAL_CAPACITY];
+        goalsScored = new int[INITIAL_CAPACITY];
+        goalsConceded = new int[INITIAL_CAPACITY];
+        wins = new int[INITIAL_CAPACITY];
+        draws = new int[INITIAL_CAPACITY];
+        losses = new int[INITIAL_CAPACITY];
+    }
+    
+    private TeamRatings(TeamRatings source) {
+        teamIndex.putAll(source.teamIndex);
+        teamNames = source.teamNames.clone();
+        matchesPlayed = source.matchesPlayed.clone();
+        goalsScored = source.goalsScored.clone();
+        goalsConceded = source.goalsConceded.clone();
+        wins = source.wins.clone();
+        draws = source.draws.clone();
+        losses = source.losses.clone();
+        teamCount = source.teamCount;
+        totalGoals = source.totalGoals;
+        totalMatches = source.totalMatches;
+        totalHomeWins = source.totalHomeWins;
+    }
+    
+    public TeamRatings copy() {
+        return new TeamRatings(this);
+    }
+    
+    public void add(Match match) {
+        int home = indexOrCreate(match.getHomeTeam());
+        int away = indexOrCreate(match.getAwayTeam());
+        int homeGoals = match.getFullTimeHomeGoals();
+        int awayGoals = match.getFullTimeAwayGoals();
+        String result = match.getFullTimeResult();
+        
+        matchesPlayed[home]++;
+        goalsScored[home] += homeGoals;
+        goalsConceded[home] += awayGoals;
+        
+        matchesPlayed[away]++;
+        goalsScored[away] += awayGoals;
+        goalsConceded[away] += homeGoals;
+        
+        if ("H".equals(result)) {
+            wins[home]++;
+            losses[away]++;
+            totalHomeWins++;
+        } else if ("D".equals(result)) {
+            draws[home]++;
+            draws[away]++;
+        } else {
+            losses[home]++;
+            wins[away]++;
+        }
+        
+        totalGoals += homeGoals + awayGoals;
+        totalMatches++;
+    }
+    
+    private int indexOrCreate(String teamName) {
+        Integer index = teamIndex.get(teamName);
+        if (index != null) {
+            return index;
+        }
+        
+        if (teamCount == teamNames.length) {
+            int capacity = teamNames.length * 2;
+            teamNames = Arrays.copyOf(teamNames, capacity);
+            matchesPlayed = Arrays.copyOf(matchesPlayed, capacity);
+            goalsScored = Arrays.copyOf(goalsScored, capacity);
+            goalsConceded = Arrays.copyOf(goalsConceded, capacity);
+            wins = Arrays.copyOf(wins, capacity);
+            draws = Arrays.copyOf(draws, capacity);
+            losses = Arrays.copyOf(losses, capacity);
+        }
+        
+        int newIndex = teamCount++;
+        teamNames[newIndex] = teamName;
+        teamIndex.put(teamName, newIndex);
+        return newIndex;
+    }
+    
+    // Returns -1 when the team has no matches in the current statistics
+    public int indexOf(String teamName) {
+        Integer index = teamIndex.get(teamName);
+        if (index == null || matchesPlayed[index] <= 0) {
+            return -1;
+        }
+        return index;
+    }
+    
+    public double attackStrength(int team) {
+        if (matchesPlayed[team] <= 0) {
+            return 1.0;
+        }
+        return ((double) goalsScored[team] / matchesPlayed[team]) / leagueAvgGoals();
+    }
+    
+    public double defenseStrength(int team) {
+        if (matchesPlayed[team] <= 0) {
+            return 1.0;
+        }
+        return ((double) goalsConceded[team] / matchesPlayed[team]) / leagueAvgGoals();
+    }
+    
+    public double homeAdvantage(int team) {
+        return DEFAULT_HOME_ADVANTAGE;
+    }
+    
+    public double leagueAvgGoals() {
+        return totalMatches == 0 ? 0.0 : (double) totalGoals / (totalMatches * 2);
+    }
+    
+    public double homeWinRate() {
+        return totalMatches == 0 ? 0.0 : (double) totalHomeWins / totalMatches;
+    }
+    
+    public int getTeamCount() {
+        return teamCount;
+    }
+    
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+    
+    public Map<String, TeamStats> toTeamStatsMap() {
+        Map<String, TeamStats> teamStatsMap = new LinkedHashMap<>();
+        for (int i = 0; i < teamCount; i++) {
+            if (matchesPlayed[i] <= 0) {
+                continue;
+            }
+            teamStatsMap.put(teamNames[i], TeamStats.builder()
+                    .teamName(teamNames[i])
+                    .attackStrength(attackStrength(i))
+                    .defenseStrength(defenseStrength(i))
+                    .homeAdvantage(homeAdvantage(i))
+                    .matchesPlayed(matchesPlayed[i])
+                    .goalsScored(goalsScored[i])
+                    .goalsConceded(goalsConceded[i])
+                    .wins(wins[i])
+                    .draws(draws[i])
+                    .losses(losses[i])
+                    .build());
+        }
+        return teamStatsMap;
+    }
+    
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            BinaryCodec.writeString(out, teamNames[i]);
+        }
+        out.writeLong(totalGoals);
+        out.writeInt(totalMatches);
+        out.writeInt(totalHomeWins);
+        BinaryCodec.writeInts(out, matchesPlayed, teamCount);
+        BinaryCodec.writeInts(out, goalsScored, teamCount);
+        BinaryCodec.writeInts(out, goalsConceded, teamCount);
+        BinaryCodec.writeInts(out, wins, teamCount);
+        BinaryCodec.writeInts(out, draws, teamCount);
+        BinaryCodec.writeInts(out, losses, teamCount);
+    }
+    
+    public static TeamRatings readFrom(ByteBuffer buffer) {
+        TeamRatings ratings = new TeamRatings();
+        int count = buffer.getInt();
+        int capacity = Math.max(INITIAL_CAPACITY, count);
+        
+        ratings.teamNames = new String[capacity];
+        for (int i = 0; i < count; i++) {
+            ratings.teamNames[i] = BinaryCodec.readString(buffer);
+            ratings.teamIndex.put(ratings.teamNames[i], i);
+        }
+        ratings.teamCount = count;
+        ratings.totalGoals = buffer.getLong();
+        ratings.totalMatches = buffer.getInt();
+        ratings.totalHomeWins = buffer.getInt();
+        ratings.matchesPlayed = BinaryCodec.readInts(buffer, count, capacity);
+        ratings.goalsScored = BinaryCodec.readInts(buffer, count, capacity);
+        ratings.goalsConceded = BinaryCodec.readInts(buffer, count, capacity);
+        ratings.wins = BinaryCodec.readInts(buffer, count, capacity);
+        ratings.draws = BinaryCodec.readInts(buffer, count, capacity);
+        ratings.losses = BinaryCodec.readInts(buffer, count, capacity);
+        return ratings;
+    }
+}
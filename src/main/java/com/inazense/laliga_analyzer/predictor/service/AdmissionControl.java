@@ -0,0 +1,55 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.util.Bulkhead;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Separate bulkheads for cheap predictions and expensive maintenance (reload, retrain), so a reload
+// can never eat the capacity that serves predictions during a kickoff spike, and vice versa.
+@Service
+@Slf4j
+public class AdmissionControl {
+    
+    @Value("${predictor.bulkhead.predict.maxConcurrent:32}")
+    private int predictMaxConcurrent;
+    
+    @Value("${predictor.bulkhead.predict.maxQueue:256}")
+    private int predictMaxQueue;
+    
+    @Value("${predictor.bulkhead.predict.maxWaitMillis:100}")
+    private long predictMaxWaitMillis;
+    
+    @Value("${predictor.bulkhead.maintenance.maxConcurrent:4}")
+    private int maintenanceMaxConcurrent;
+    
+    @Value("${predictor.bulkhead.maintenance.maxQueue:64}")
+    private int maintenanceMaxQueue;
+    
+    @Value("${predictor.bulkhead.maintenance.maxWaitMillis:600000}")
+    private long maintenanceMaxWaitMillis;
+    
+    private Bulkhead predict;
+    private Bulkhead maintenance;
+    
+    @PostConstruct
+    public void init() {
+        predict = new Bulkhead("predict", predictMaxConcurrent, predictMaxQueue, predictMaxWaitMillis);
+        // Reloads of one league never overlap, so the limit caps how many leagues reload at once. The others
+        // wait their turn: a reload-all over more leagues than the limit queues instead of failing, and the
+        // wait is as long as a few reloads, not a request's latency budget
+        maintenance = new Bulkhead("maintenance", maintenanceMaxConcurrent, maintenanceMaxQueue, maintenanceMaxWaitMillis);
+        log.info("Admission control: predict {} concurrent / {} queued / {} ms budget, maintenance {} concurrent / {} queued / {} ms budget",
+                predictMaxConcurrent, predictMaxQueue, predictMaxWaitMillis, 
+                maintenanceMaxConcurrent, maintenanceMaxQueue, maintenanceMaxWaitMillis);
+    }
+    
+    public Bulkhead predict() {
+        return predict;
+    }
+    
+    public Bulkhead maintenance() {
+        return maintenance;
+    }
+}
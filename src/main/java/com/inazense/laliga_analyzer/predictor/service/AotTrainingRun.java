@@ -0,0 +1,145 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inazense.laliga_analyzer.commons.constants.Endpoints;
+import com.inazense.laliga_analyzer.predictor.dto.PredictionRequest;
+import com.inazense.laliga_analyzer.predictor.model.Match;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Training run for the JVM's AOT cache (JDK 25, -XX:AOTCacheOutput) or a CDS archive: once the app is up,
+// sends a spread of real requests through the whole HTTP stack, so every class and hot method that serving
+// needs gets loaded, linked and profiled, then shuts down so the JVM writes the cache on exit.
+// Off unless predictor.aot.trainingRun=true. Checked at runtime rather than with a bean condition, because
+// Spring AOT fixes bean conditions at build time.
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AotTrainingRun {
+    
+    private final CsvDataLoader csvDataLoader;
+    private final ObjectMapper objectMapper;
+    private final LeagueSettings leagueSettings;
+    
+    private static final String PREDICTOR = Endpoints.PREDICTOR_REQUEST_MAPPING;
+    private static final String PREDICT = PREDICTOR + Endpoints.PREDICTOR_ENDPOINT_PREDICT_PATH;
+    
+    @Value("${predictor.aot.trainingRun:false}")
+    private boolean enabled;
+    
+    @Value("${predictor.aot.trainingRequests:200}")
+    private int trainingRequests;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void run(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        
+        ApplicationContext context = event.getApplicationContext();
+        int failures;
+        try {
+            failures = sendRequests(((WebServerApplicationContext) context).getWebServer().getPort());
+        } catch (Exception e) {
+            log.error("Training run failed: {}", e.getMessage());
+            failures = -1;
+        }
+        
+        int exitCode = failures == 0 ? 0 : 1;
+        log.info("Training run finished with {} failed requests, shutting down", Math.max(failures, 0));
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+    
+    private int sendRequests(int port) throws Exception {
+        URI base = URI.create("http://localhost:" + port);
+        HttpClient client = HttpClient.newHttpClient();
+        
+        // The most recent complete fixtures of the default league, so teams and dates are ones the model knows
+        String league = leagueSettings.getDefaultLeague();
+        List<Match> matches = csvDataLoader.loadMatches(leagueSettings.csvPath(league), league).stream()
+                .filter(m -> m.getFullTimeHomeGoals() != null && 
+                             m.getFullTimeAwayGoals() != null && 
+                             m.getFullTimeResult() != null)
+                .collect(Collectors.toList());
+        List<Match> fixtures = matches.subList(Math.max(0, matches.size() - trainingRequests), matches.size());
+        
+        List<HttpRequest> requests = new ArrayList<>();
+        List<PredictionRequest> bodies = new ArrayList<>();
+        for (int i = 0; i < fixtures.size(); i++) {
+            Match match = fixtures.get(i);
+            PredictionRequest body = new PredictionRequest();
+            body.setHomeTeam(match.getHomeTeam());
+            body.setAwayTeam(match.getAwayTeam());
+            body.setDate(match.getDate().toString());
+            bodies.add(body);
+            String query = "?homeTeam=" + encode(match.getHomeTeam())
+                    + "&awayTeam=" + encode(match.getAwayTeam())
+                    + "&date=" + match.getDate();
+            
+            // Every representation and endpoint shape the API serves
+            switch (i % 4) {
+                case 0 -> requests.add(get(base, PREDICT + query));
+                case 1 -> requests.add(post(base, PREDICT, body));
+                case 2 -> requests.add(get(base, PREDICT + query + "&projection=MINIMAL&compact=true"));
+                default -> requests.add(post(base, PREDICT + "?projection=SCORES", body));
+            }
+        }
+        List<PredictionRequest> batch = bodies.subList(0, Math.min(50, bodies.size()));
+        requests.add(post(base, PREDICTOR + Endpoints.PREDICTOR_ENDPOINT_BATCH_PATH, batch));
+        requests.add(post(base, PREDICTOR + Endpoints.PREDICTOR_ENDPOINT_STREAM_PATH, batch));
+        requests.add(get(base, PREDICTOR + "/status"));
+        requests.add(get(base, PREDICTOR + Endpoints.PREDICTOR_ENDPOINT_MODELS_PATH));
+        requests.add(get(base, "/actuator/prometheus"));
+        
+        int failures = 0;
+        for (HttpRequest request : requests) {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                log.warn("Training request {} answered {}", request.uri(), response.statusCode());
+                failures++;
+            }
+            // Revalidate cacheable responses too, so the 304 path is part of the training run
+            String etag = response.headers().firstValue("ETag").orElse(null);
+            if (etag != null && "GET".equals(request.method())) {
+                HttpRequest revalidate = HttpRequest.newBuilder(request.uri()).header("If-None-Match", etag).GET().build();
+                if (client.send(revalidate, HttpResponse.BodyHandlers.discarding()).statusCode() != 304) {
+                    failures++;
+                }
+            }
+        }
+        log.info("Training run sent {} requests", requests.size());
+        return failures;
+    }
+    
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+    }
+    
+    private HttpRequest post(URI base, String path, Object body) throws Exception {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -1,24 +1,36 @@
 package com.inazense.laliga_analyzer.predictor.service;
 
+import com.inazense.laliga_analyzer.predictor.jfr.CsvLoadEvent;
 import com.inazense.laliga_analyzer.predictor.model.Match;
+import com.inazense.laliga_analyzer.predictor.model.MatchColumns;
+import com.inazense.laliga_analyzer.predictor.util.CsvCells;
+import com.inazense.laliga_analyzer.predictor.util.DataFingerprint;
 import com.inazense.laliga_analyzer.predictor.util.TeamNormalizer;
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.FileReader;
+import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class CsvDataLoader {
     
     private static final DateTimeFormatter[] DATE_FORMATTERS = {
@@ -27,53 +39,482 @@ public class CsvDataLoader {
         DateTimeFormatter.ofPattern("yyyy-MM-dd")
     };
     
-    public List<Match> loadMatches(String csvPath) throws IOException, CsvException {
+    private static final DateTimeFormatter APPEND_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    
+    // Bytes read from the file at a time; a row longer than that grows the buffer
+    private static final int CHUNK_SIZE = 1 << 20;
+    
+    // How many bytes before its offset a tail remembers, to tell that the file still continues from it
+    private static final int TAIL_CHECK_BYTES = 64;
+    
+    // Columns parsed into Match fields or never numeric; every other column goes to the column store
+    private static final Set<String> MATCH_COLUMNS = Set.of(
+            "Div", "Date", "Time", "HomeTeam", "AwayTeam", "FTHG", "FTAG", "FTR", "HTHG", "HTAG", "HTR", "Referee");
+    
+    private final PredictorMetrics metrics;
+    
+    private int chunkSize = CHUNK_SIZE;
+    
+    public List<Match> loadMatches(String csvPath) throws IOException {
+        return loadMatches(csvPath, null);
+    }
+    
+    public List<Match> loadMatches(String csvPath, String division) throws IOException {
+        return loadMatches(csvPath, division, Set.of());
+    }
+    
+    // Only rows of the given division (Div column) are kept, so several leagues can share one file.
+    // Rows without a Div column are kept for any division; a null division keeps every row.
+    // Football-data files change layout from season to season, and a download keeps each season's header
+    // in front of its rows: every header row re-maps the columns for the rows that follow it.
+    // Only the Match fields are parsed here. Statistics and odds stay as raw bytes in the column store and
+    // are decoded column by column on first read, except the columns listed, which are decoded before
+    // returning.
+    public List<Match> loadMatches(String csvPath, String division, Set<String> columns) throws IOException {
+        return read(csvPath, division, columns, null).matches();
+    }
+    
+    // The matches together with the fingerprint of the division's rows, hashed during the same pass, and the
+    // tail of the file, from which appendMatch carries on without reading the file again
+    public LoadResult load(String csvPath, String division, Set<String> columns) throws IOException {
+        return read(csvPath, division, columns, new DataFingerprint());
+    }
+    
+    public record LoadResult(List<Match> matches, Tail tail) {
+        
+        public DataFingerprint fingerprint() {
+            return tail.fingerprint();
+        }
+    }
+    
+    // Where a pass over one division's rows stopped: the offset past the last row read, the bytes just before
+    // it (to check the file still continues from there), the names of the last header, and the fingerprint of
+    // the division's rows so far. Never changed once made; reading on gives a new tail.
+    public record Tail(long offset, byte[] lastBytes, List<String> header, DataFingerprint fingerprint) {
+        
+        static Tail start() {
+            return new Tail(0, new byte[0], null, new DataFingerprint());
+        }
+    }
+    
+    // Only a load with a fingerprint keeps the tail
+    private LoadResult read(String csvPath, String division, Set<String> columns, 
+                            DataFingerprint fingerprint) throws IOException {
+        CsvLoadEvent event = new CsvLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
         List<Match> matches = new ArrayList<>();
+        MatchColumns store = new MatchColumns();
+        int dataRows = 0;
+        int failedRows = 0;
+        int headers = 0;
+        int unmappedRows = 0;
+        int skippedRows = 0;
         
-        try (CSVReader reader = new CSVReader(new FileReader(csvPath))) {
-            List<String[]> rows = reader.readAll();
-            
-            if (rows.isEmpty()) {
+        // The file is read in chunks and split into cells in place; only the cells a Match needs become
+        // Strings, and only the rows that are kept are copied into the column store
+        CsvCells cells = new CsvCells();
+        long end = 0;
+        Layout layout = null;
+        try (RowReader rows = new RowReader(Path.of(csvPath), cells, chunkSize, 0)) {
+            if (rows.fileSize() == 0) {
                 log.warn("CSV file is empty: {}", csvPath);
-                return matches;
+                return new LoadResult(matches, fingerprint != null ? new Tail(0, new byte[0], null, fingerprint) : null);
             }
             
-            // Parse header
-            String[] header = rows.get(0);
-            Map<String, Integer> columnIndex = buildColumnIndex(header);
-            
-            // Parse data rows
-            for (int i = 1; i < rows.size(); i++) {
-                String[] row = rows.get(i);
+            for (int i = 0; rows.next(); i++) {
+                byte[] data = rows.data();
+                if (cells.isUnterminated()) {
+                    throw new IOException("Unterminated quoted field in row " + (i + 1) + " of " + csvPath);
+                }
+                end = rows.rowEndOffset();
+                
+                // The first row is always a header; later ones are recognised by their HomeTeam column
+                if (layout == null || isHeader(data, cells)) {
+                    layout = new Layout(data, cells, store);
+                    headers++;
+                    if (fingerprint != null) {
+                        fingerprint.addHeader(data, rows.rowStart(), rows.rowEnd());
+                    }
+                    continue;
+                }
+                dataRows++;
+                if (fingerprint != null && layout.includes(data, cells, division) && !isBlank(data, cells)) {
+                    fingerprint.addRow(data, rows.rowStart(), rows.rowEnd());
+                }
                 
                 try {
-                    Match match = parseMatch(row, columnIndex);
-                    if (match != null) {
-                        matches.add(match);
+                    Match match = parseMatch(data, cells, layout, division);
+                    if (match == null) {
+                        continue;
                     }
+                    // Goals that are there but aren't numbers: the row's columns are not where its header says,
+                    // as with a season that added a Time column but lost its header, so nothing in it is trusted
+                    if (!layout.resultsParse(data, cells, match)) {
+                        skippedRows++;
+                        continue;
+                    }
+                    // More cells than its header names: the season's own header is missing, so only the
+                    // leading result columns can be trusted and its statistics and odds stay null
+                    boolean mapped = layout.describes(data, cells);
+                    if (!mapped) {
+                        unmappedRows++;
+                    }
+                    match.setColumns(store);
+                    match.setRow(store.addRow(data, rows.rowStart(), rows.rowEnd(), mapped ? layout.storeLayout : -1));
+                    matches.add(match);
                 } catch (Exception e) {
                     log.warn("Failed to parse row {}: {}", i, e.getMessage());
+                    failedRows++;
+                }
+            }
+        }
+        store.trimToSize();
+        for (String column : columns) {
+            store.decode(column);
+        }
+        
+        if (division != null) {
+            log.info("Loaded {} {} matches from {} ({} headers, {} numeric columns, {} decoded)", 
+                    matches.size(), division, csvPath, headers, store.getColumnNames().size(), store.getDecodedColumnCount());
+        } else {
+            log.info("Loaded {} matches from {} ({} headers, {} numeric columns, {} decoded)", 
+                    matches.size(), csvPath, headers, store.getColumnNames().size(), store.getDecodedColumnCount());
+        }
+        if (unmappedRows > 0) {
+            log.warn("{} rows in {} are wider than their header; their statistics and odds were skipped. " 
+                    + "Download the data again to get every season's header", unmappedRows, csvPath);
+        }
+        if (skippedRows > 0) {
+            log.warn("{} rows in {} have goals that don't parse under their header and were skipped. " 
+                    + "Download the data again to get every season's header", skippedRows, csvPath);
+        }
+        metrics.recordDataLoad(start, matches.size());
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = csvPath;
+            event.rows = dataRows;
+            event.matches = matches.size();
+            event.failedRows = failedRows;
+            event.unmappedRows = unmappedRows;
+            event.skippedRows = skippedRows;
+            event.commit();
+        }
+        Tail tail = fingerprint != null 
+                ? new Tail(end, bytesBefore(Path.of(csvPath), end), layout != null ? layout.names : null, fingerprint) 
+                : null;
+        return new LoadResult(matches, tail);
+    }
+    
+    // Appends a played match as a new row under the file's last header, so reloads and the data fingerprint
+    // include it. Only the result columns are written; the header's other cells are left empty. Reads only
+    // what was added after the tail, which is usually nothing, so the cost doesn't grow with the file. A file
+    // that no longer continues from the tail (downloaded again, say) is read once more from the start.
+    // Returns the tail past the new row.
+    public Tail appendMatch(String csvPath, String division, Tail tail, Match match) throws IOException {
+        Path path = Path.of(csvPath);
+        Tail current = advance(path, division, tail);
+        List<String> header = current.header();
+        if (header == null || !header.contains("HomeTeam")) {
+            throw new IOException("No header with a HomeTeam column in " + csvPath);
+        }
+        
+        Map<String, String> values = new HashMap<>();
+        values.put("Div", match.getDivision());
+        values.put("Date", match.getDate().format(APPEND_DATE_FORMATTER));
+        values.put("HomeTeam", match.getHomeTeam());
+        values.put("AwayTeam", match.getAwayTeam());
+        values.put("FTHG", String.valueOf(match.getFullTimeHomeGoals()));
+        values.put("FTAG", String.valueOf(match.getFullTimeAwayGoals()));
+        values.put("FTR", match.getFullTimeResult());
+        
+        StringBuilder row = new StringBuilder();
+        if (!endsWithLineBreak(path)) {
+            row.append('\n');
+        }
+        for (int i = 0; i < header.size(); i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            String value = values.get(header.get(i));
+            if (value != null) {
+                row.append(value.contains(",") || value.contains("\"") 
+                        ? '"' + value.replace("\"", "\"\"") + '"' 
+                        : value);
+            }
+        }
+        row.append('\n');
+        Files.write(path, row.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        return advance(path, division, current);
+    }
+    
+    // Reads the rows after the tail and returns the tail past them. Only rows ending in a line break count,
+    // since the last one may still be being written; they are hashed the way a load would hash them.
+    private Tail advance(Path path, String division, Tail tail) throws IOException {
+        if (!continuesFrom(path, tail)) {
+            log.info("{} changed since it was loaded, reading it again for the {} fingerprint", path, division);
+            tail = Tail.start();
+        }
+        long offset = tail.offset();
+        List<String> header = tail.header();
+        int divisionCell = header != null ? header.indexOf("Div") : -1;
+        DataFingerprint fingerprint = tail.fingerprint().copy();
+        
+        CsvCells cells = new CsvCells();
+        try (RowReader rows = new RowReader(path, cells, chunkSize, offset)) {
+            while (rows.next() && rows.isTerminated()) {
+                byte[] data = rows.data();
+                if (header == null || isHeader(data, cells)) {
+                    header = headerNames(data, cells);
+                    divisionCell = header.indexOf("Div");
+                    fingerprint.addHeader(data, rows.rowStart(), rows.rowEnd());
+                } else if (includes(data, cells, divisionCell, division) && !isBlank(data, cells)) {
+                    fingerprint.addRow(data, rows.rowStart(), rows.rowEnd());
+                }
+                offset = rows.rowEndOffset();
+            }
+        }
+        return new Tail(offset, bytesBefore(path, offset), header, fingerprint);
+    }
+    
+    // Whether the file still holds, right before the tail's offset, the bytes that were there when it was made
+    private static boolean continuesFrom(Path path, Tail tail) throws IOException {
+        return Files.size(path) >= tail.offset() && Arrays.equals(bytesBefore(path, tail.offset()), tail.lastBytes());
+    }
+    
+    private static byte[] bytesBefore(Path path, long offset) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate((int) Math.min(offset, TAIL_CHECK_BYTES));
+        long start = offset - bytes.capacity();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (bytes.hasRemaining() && channel.read(bytes, start + bytes.position()) > 0) {
+                // Short reads just go round again
+            }
+        }
+        return bytes.array();
+    }
+    
+    private static boolean endsWithLineBreak(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            return last.get(0) == '\n' || last.get(0) == '\r';
+        }
+    }
+    
+    // Package-private so tests can make rows cross chunk boundaries
+    void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+    
+    private static boolean isBlank(byte[] data, CsvCells cells) {
+        for (int i = 0; i < cells.getCount(); i++) {
+            if (!cells.isBlank(data, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Rows of other divisions are left out; rows with no division belong to every one
+    private static boolean includes(byte[] data, CsvCells row, int divisionCell, String wanted) {
+        return wanted == null || divisionCell < 0 || row.isBlank(data, divisionCell) || row.matches(data, divisionCell, wanted);
+    }
+    
+    private static List<String> headerNames(byte[] data, CsvCells header) {
+        List<String> names = new ArrayList<>(header.getCount());
+        for (int i = 0; i < header.getCount(); i++) {
+            String name = header.text(data, i);
+            // A UTF-8 byte order mark sticks to the first name
+            names.add(name != null ? name.replace("\uFEFF", "").trim() : "");
+        }
+        return names;
+    }
+    
+    private static boolean isHeader(byte[] data, CsvCells cells) {
+        for (int i = 0; i < cells.getCount(); i++) {
+            if (cells.matches(data, i, "HomeTeam")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Hands out a file's rows one at a time while holding only a chunk of it. A row that runs past the end of
+    // the chunk is moved to the front of the buffer and scanned again once the next chunk is in; the buffer
+    // grows for a row longer than itself. Each row is split into the given cells.
+    private static class RowReader implements Closeable {
+        private final FileChannel channel;
+        private final CsvCells cells;
+        private final long fileSize;
+        private long bufferOffset;
+        private byte[] buffer;
+        private int next;
+        private int limit;
+        private boolean endOfFile;
+        private int rowStart;
+        private int rowEnd;
+        
+        // Starts at the given offset into the file, which must be the start of a row
+        RowReader(Path path, CsvCells cells, int chunkSize, long offset) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.cells = cells;
+            this.fileSize = channel.size();
+            this.buffer = new byte[chunkSize];
+            this.bufferOffset = offset;
+            channel.position(offset);
+        }
+        
+        // Scans the next row; false at the end of the file
+        boolean next() throws IOException {
+            while (true) {
+                if (next < limit) {
+                    int end = cells.scan(buffer, next, limit);
+                    // A row that reaches the end of the chunk may go on in the next one
+                    if (end < limit || endOfFile) {
+                        rowStart = next;
+                        rowEnd = end;
+                        next = end;
+                        return true;
+                    }
+                } else if (endOfFile) {
+                    return false;
                 }
+                fill();
+            }
+        }
+        
+        private void fill() throws IOException {
+            int pending = limit - next;
+            bufferOffset += next;
+            if (next > 0) {
+                System.arraycopy(buffer, next, buffer, 0, pending);
+            } else if (pending == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
             }
+            next = 0;
+            limit = pending;
+            int read = channel.read(ByteBuffer.wrap(buffer, limit, buffer.length - limit));
+            if (read < 0) {
+                endOfFile = true;
+            } else {
+                limit += read;
+            }
+        }
+        
+        // The buffer holding the current row, valid until the next call to next()
+        byte[] data() {
+            return buffer;
+        }
+        
+        int rowStart() {
+            return rowStart;
+        }
+        
+        int rowEnd() {
+            return rowEnd;
+        }
+        
+        // Offset into the file just past the current row
+        long rowEndOffset() {
+            return bufferOffset + rowEnd;
+        }
+        
+        // Whether the current row is complete: closed quotes and a line break at its end
+        boolean isTerminated() {
+            return !cells.isUnterminated() && rowEnd > rowStart 
+                    && (buffer[rowEnd - 1] == '\n' || buffer[rowEnd - 1] == '\r');
+        }
+        
+        long fileSize() {
+            return fileSize;
         }
         
-        log.info("Loaded {} matches from {}", matches.size(), csvPath);
-        return matches;
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
     }
     
-    private Map<String, Integer> buildColumnIndex(String[] header) {
-        Map<String, Integer> index = new HashMap<>();
-        for (int i = 0; i < header.length; i++) {
-            index.put(header[i].trim(), i);
+    // One season's header: the cell positions of the Match fields (-1 when absent), and its layout in the store
+    private static class Layout {
+        private final List<String> names;
+        private final int width;
+        private final int storeLayout;
+        private final int division;
+        private final int date;
+        private final int homeTeam;
+        private final int awayTeam;
+        private final int fullTimeHomeGoals;
+        private final int fullTimeAwayGoals;
+        private final int fullTimeResult;
+        private final int halfTimeHomeGoals;
+        private final int halfTimeAwayGoals;
+        private final int halfTimeResult;
+        
+        Layout(byte[] data, CsvCells header, MatchColumns store) {
+            names = headerNames(data, header);
+            width = names.size();
+            Map<String, Integer> columnIndex = new HashMap<>();
+            Map<String, Integer> storeColumns = new HashMap<>();
+            for (int i = 0; i < width; i++) {
+                if (header.text(data, i) == null) {
+                    continue;
+                }
+                String name = names.get(i);
+                columnIndex.put(name, i);
+                if (!name.isEmpty() && !MATCH_COLUMNS.contains(name)) {
+                    storeColumns.put(name, i);
+                }
+            }
+            storeLayout = store.addLayout(storeColumns);
+            division = columnIndex.getOrDefault("Div", -1);
+            date = columnIndex.getOrDefault("Date", -1);
+            homeTeam = columnIndex.getOrDefault("HomeTeam", -1);
+            awayTeam = columnIndex.getOrDefault("AwayTeam", -1);
+            fullTimeHomeGoals = columnIndex.getOrDefault("FTHG", -1);
+            fullTimeAwayGoals = columnIndex.getOrDefault("FTAG", -1);
+            fullTimeResult = columnIndex.getOrDefault("FTR", -1);
+            halfTimeHomeGoals = columnIndex.getOrDefault("HTHG", -1);
+            halfTimeAwayGoals = columnIndex.getOrDefault("HTAG", -1);
+            halfTimeResult = columnIndex.getOrDefault("HTR", -1);
+        }
+        
+        boolean includes(byte[] data, CsvCells row, String wanted) {
+            return CsvDataLoader.includes(data, row, division, wanted);
+        }
+        
+        // A blank goal cell is a fixture not played yet; anything else must have parsed
+        boolean resultsParse(byte[] data, CsvCells row, Match match) {
+            return (match.getFullTimeHomeGoals() != null || fullTimeHomeGoals < 0 || row.isBlank(data, fullTimeHomeGoals)) 
+                    && (match.getFullTimeAwayGoals() != null || fullTimeAwayGoals < 0 || row.isBlank(data, fullTimeAwayGoals));
+        }
+        
+        // Shorter rows are fine (trailing empty cells get trimmed); extra non-empty cells are not
+        boolean describes(byte[] data, CsvCells row) {
+            for (int i = width; i < row.getCount(); i++) {
+                if (!row.isBlank(data, i)) {
+                    return false;
+                }
+            }
+            return true;
         }
-        return index;
     }
     
-    private Match parseMatch(String[] row, Map<String, Integer> columnIndex) {
+    private Match parseMatch(byte[] data, CsvCells row, Layout layout, String division) {
+        // Rows of other divisions are skipped before anything else is decoded
+        if (!layout.includes(data, row, division)) {
+            return null;
+        }
+        String rowDivision = getStringValue(data, row, layout.division);
+        
         // Required fields
-        String homeTeam = getStringValue(row, columnIndex, "HomeTeam");
-        String awayTeam = getStringValue(row, columnIndex, "AwayTeam");
-        String dateStr = getStringValue(row, columnIndex, "Date");
+        String homeTeam = getStringValue(data, row, layout.homeTeam);
+        String awayTeam = getStringValue(data, row, layout.awayTeam);
+        String dateStr = getStringValue(data, row, layout.date);
         
         if (homeTeam == null || awayTeam == null || dateStr == null) {
             return null;
@@ -85,36 +526,18 @@ public class CsvDataLoader {
         }
         
         Match.MatchBuilder builder = Match.builder()
-                .division(getStringValue(row, columnIndex, "Div"))
+                .division(rowDivision != null ? rowDivision : division)
                 .date(date)
-                .homeTeam(TeamNormalizer.normalize(homeTeam))
-                .awayTeam(TeamNormalizer.normalize(awayTeam))
-                .fullTimeHomeGoals(getIntValue(row, columnIndex, "FTHG"))
-                .fullTimeAwayGoals(getIntValue(row, columnIndex, "FTAG"))
-                .fullTimeResult(getStringValue(row, columnIndex, "FTR"))
-                .halfTimeHomeGoals(getIntValue(row, columnIndex, "HTHG"))
-                .halfTimeAwayGoals(getIntValue(row, columnIndex, "HTAG"))
-                .halfTimeResult(getStringValue(row, columnIndex, "HTR"));
-        
-        // Optional statistics
-        builder.homeShots(getIntValue(row, columnIndex, "HS"))
-                .awayShots(getIntValue(row, columnIndex, "AS"))
-                .homeShotsOnTarget(getIntValue(row, columnIndex, "HST"))
-                .awayShotsOnTarget(getIntValue(row, columnIndex, "AST"))
-                .homeCorners(getIntValue(row, columnIndex, "HC"))
-                .awayCorners(getIntValue(row, columnIndex, "AC"))
-                .homeFouls(getIntValue(row, columnIndex, "HF"))
-                .awayFouls(getIntValue(row, columnIndex, "AF"))
-                .homeYellowCards(getIntValue(row, columnIndex, "HY"))
-                .awayYellowCards(getIntValue(row, columnIndex, "AY"))
-                .homeRedCards(getIntValue(row, columnIndex, "HR"))
-                .awayRedCards(getIntValue(row, columnIndex, "AR"));
-        
-        // Optional betting odds
-        builder.avgHomeOdds(getDoubleValue(row, columnIndex, "AvgH"))
-                .avgDrawOdds(getDoubleValue(row, columnIndex, "AvgD"))
-                .avgAwayOdds(getDoubleValue(row, columnIndex, "AvgA"));
+                .homeTeam(TeamNormalizer.normalize(rowDivision != null ? rowDivision : division, homeTeam))
+                .awayTeam(TeamNormalizer.normalize(rowDivision != null ? rowDivision : division, awayTeam))
+                .fullTimeHomeGoals(getIntValue(data, row, layout.fullTimeHomeGoals))
+                .fullTimeAwayGoals(getIntValue(data, row, layout.fullTimeAwayGoals))
+                .fullTimeResult(getStringValue(data, row, layout.fullTimeResult))
+                .halfTimeHomeGoals(getIntValue(data, row, layout.halfTimeHomeGoals))
+                .halfTimeAwayGoals(getIntValue(data, row, layout.halfTimeAwayGoals))
+                .halfTimeResult(getStringValue(data, row, layout.halfTimeResult));
         
+        // Statistics and odds are stored by the caller, in the column store
         return builder.build();
     }
     
@@ -134,36 +557,11 @@ public class CsvDataLoader {
         return null;
     }
     
-    private String getStringValue(String[] row, Map<String, Integer> index, String columnName) {
-        Integer colIndex = index.get(columnName);
-        if (colIndex == null || colIndex >= row.length) {
-            return null;
-        }
-        String value = row[colIndex].trim();
-        return value.isEmpty() ? null : value;
-    }
-    
-    private Integer getIntValue(String[] row, Map<String, Integer> index, String columnName) {
-        String value = getStringValue(row, index, columnName);
-        if (value == null) {
-            return null;
-        }
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    private String getStringValue(byte[] data, CsvCells row, int cell) {
+        return cell < 0 ? null : row.text(data, cell);
     }
     
-    private Double getDoubleValue(String[] row, Map<String, Integer> index, String columnName) {
-        String value = getStringValue(row, index, columnName);
-        if (value == null) {
-            return null;
-        }
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    private Integer getIntValue(byte[] data, CsvCells row, int cell) {
+        return cell < 0 ? null : row.intValue(data, cell);
     }
 }
@@ -1,7 +1,11 @@
 package com.inazense.laliga_analyzer.predictor.service;
 
+import com.inazense.laliga_analyzer.predictor.jfr.FeatureBuildEvent;
+import com.inazense.laliga_analyzer.predictor.model.EloRatings;
 import com.inazense.laliga_analyzer.predictor.model.Match;
 import com.inazense.laliga_analyzer.predictor.model.MatchFeatures;
+import com.inazense.laliga_analyzer.predictor.model.MatchIndex;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -14,24 +18,62 @@ import java.util.stream.Collectors;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class FeatureBuilder {
     
+    private final PredictorMetrics metrics;
+    
     @Value("${predictor.windowSize:10}")
     private int windowSize;
     
     @Value("${predictor.minMatchesForFeatures:5}")
     private int minMatchesForFeatures;
     
-    public MatchFeatures buildFeatures(String homeTeam, String awayTeam, LocalDate matchDate, List<Match> historicalMatches) {
-        // Filter matches before the target date
-        List<Match> priorMatches = historicalMatches.stream()
-                .filter(m -> m.getDate().isBefore(matchDate))
-                .collect(Collectors.toList());
+    public MatchFeatures buildFeatures(String homeTeam, String awayTeam, LocalDate matchDate, MatchIndex matchIndex) {
+        return buildFeatures(homeTeam, awayTeam, matchDate, matchIndex, null);
+    }
+    
+    public MatchFeatures buildFeatures(String homeTeam, String awayTeam, LocalDate matchDate, MatchIndex matchIndex, 
+                                       EloRatings eloRatings) {
+        return buildFeatures(homeTeam, awayTeam, matchDate, matchIndex, eloRatings, true);
+    }
+    
+    // With Elo ratings (null in the other rating modes), the features also carry both teams' ratings as of the match
+    // date. Unrecorded builds (the startup warm-up) leave the feature meter alone.
+    public MatchFeatures buildFeatures(String homeTeam, String awayTeam, LocalDate matchDate, MatchIndex matchIndex, 
+                                       EloRatings eloRatings, boolean recorded) {
+        FeatureBuildEvent event = new FeatureBuildEvent();
+        event.begin();
+        long start = System.nanoTime();
+        MatchFeatures features = computeFeatures(homeTeam, awayTeam, matchDate, matchIndex);
+        if (eloRatings != null && matchDate != null) {
+            long epochDay = matchDate.toEpochDay();
+            features.setHomeRating(eloRatings.ratingOf(homeTeam, epochDay));
+            features.setAwayRating(eloRatings.ratingOf(awayTeam, epochDay));
+        }
+        if (recorded) {
+            metrics.recordFeatureBuild(start);
+        }
         
-        // Get team-specific matches
-        List<Match> homeTeamMatches = getTeamMatches(homeTeam, priorMatches);
-        List<Match> awayTeamMatches = getTeamMatches(awayTeam, priorMatches);
-        List<Match> h2hMatches = getHeadToHeadMatches(homeTeam, awayTeam, priorMatches);
+        event.end();
+        if (event.shouldCommit()) {
+            event.homeTeam = homeTeam;
+            event.awayTeam = awayTeam;
+            event.matchDate = String.valueOf(matchDate);
+            event.windowSize = windowSize;
+            event.homeMatches = features.getHomeMatchCount();
+            event.awayMatches = features.getAwayMatchCount();
+            event.headToHeadMatches = features.getH2hMatchCount();
+            event.commit();
+        }
+        return features;
+    }
+    
+    private MatchFeatures computeFeatures(String homeTeam, String awayTeam, LocalDate matchDate, MatchIndex matchIndex) {
+        // Get team-specific matches before the target date
+        List<Match> homeTeamMatches = matchIndex.teamMatchesBefore(homeTeam, matchDate);
+        List<Match> awayTeamMatches = matchIndex.teamMatchesBefore(awayTeam, matchDate);
+        List<Match> h2hMatches = matchIndex.headToHeadBefore(homeTeam, awayTeam, matchDate);
         
         // Get recent matches (last N)
         List<Match> recentHomeMatches = getLastNMatches(homeTeamMatches, windowSize);
@@ -92,25 +134,12 @@ public class FeatureBuilder {
         }
         
         // Days since last match
-        builder.homeDaysSinceLastMatch(calculateDaysSinceLastMatch(homeTeam, matchDate, priorMatches))
-                .awayDaysSinceLastMatch(calculateDaysSinceLastMatch(awayTeam, matchDate, priorMatches));
+        builder.homeDaysSinceLastMatch(calculateDaysSinceLastMatch(matchDate, homeTeamMatches))
+                .awayDaysSinceLastMatch(calculateDaysSinceLastMatch(matchDate, awayTeamMatches));
         
         return builder.build();
     }
     
-    private List<Match> getTeamMatches(String team, List<Match> matches) {
-        return matches.stream()
-                .filter(m -> m.getHomeTeam().equals(team) || m.getAwayTeam().equals(team))
-                .collect(Collectors.toList());
-    }
-    
-    private List<Match> getHeadToHeadMatches(String team1, String team2, List<Match> matches) {
-        return matches.stream()
-                .filter(m -> (m.getHomeTeam().equals(team1) && m.getAwayTeam().equals(team2)) ||
-                             (m.getHomeTeam().equals(team2) && m.getAwayTeam().equals(team1)))
-                .collect(Collectors.toList());
-    }
-    
     private List<Match> getLastNMatches(List<Match> matches, int n) {
         if (matches.size() <= n) {
             return new ArrayList<>(matches);
@@ -206,12 +235,11 @@ public class FeatureBuilder {
                 .orElse(0.0);
     }
     
-    private long calculateDaysSinceLastMatch(String team, LocalDate targetDate, List<Match> matches) {
-        return matches.stream()
-                .filter(m -> m.getHomeTeam().equals(team) || m.getAwayTeam().equals(team))
-                .map(Match::getDate)
-                .max(LocalDate::compareTo)
-                .map(lastDate -> ChronoUnit.DAYS.between(lastDate, targetDate))
-                .orElse(365L); // Default to 365 if no previous match
+    // Team matches are in date order, so the last one is the most recent
+    private long calculateDaysSinceLastMatch(LocalDate targetDate, List<Match> teamMatches) {
+        if (teamMatches.isEmpty()) {
+            return 365L; // Default to 365 if no previous match
+        }
+        return ChronoUnit.DAYS.between(teamMatches.get(teamMatches.size() - 1).getDate(), targetDate);
     }
 }
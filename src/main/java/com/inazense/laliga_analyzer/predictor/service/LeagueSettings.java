@@ -0,0 +1,69 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// The leagues this instance serves, by football-data division code (SP1, SP2, E0, I1, ...). The first one is
+// the default for requests that don't name a league. Each league reads its own rows from
+// predictor.csvPath, where "{league}" is replaced by the division code, so leagues can live in one file per
+// division or share a single file and be told apart by its Div column.
+@Service
+public class LeagueSettings {
+    
+    private static final String LEAGUE_PLACEHOLDER = "{league}";
+    
+    @Value("${predictor.leagues:SP1}")
+    private List<String> configuredLeagues;
+    
+    @Value("${predictor.csvPath:laliga.csv}")
+    private String csvPath;
+    
+    private List<String> leagues;
+    
+    // Upper-cased and de-duplicated once, since every request resolves its league against this list
+    @PostConstruct
+    public void init() {
+        leagues = configuredLeagues.stream()
+                .map(league -> league.trim().toUpperCase(Locale.ROOT))
+                .filter(league -> !league.isEmpty())
+                .distinct()
+                .collect(Collectors.toUnmodifiableList());
+        if (leagues.isEmpty()) {
+            throw new IllegalStateException("predictor.leagues must name at least one division");
+        }
+    }
+    
+    public List<String> getLeagues() {
+        return leagues;
+    }
+    
+    public String getDefaultLeague() {
+        return leagues.get(0);
+    }
+    
+    // True for a configured league, and for null or blank, which mean the default league
+    public boolean accepts(String league) {
+        return league == null || league.isBlank() || leagues.contains(league.trim().toUpperCase(Locale.ROOT));
+    }
+    
+    // Null or blank means the default league; anything else must be a configured league
+    public String resolve(String league) {
+        if (league == null || league.isBlank()) {
+            return getDefaultLeague();
+        }
+        String code = league.trim().toUpperCase(Locale.ROOT);
+        if (!leagues.contains(code)) {
+            throw new IllegalArgumentException("League not configured: " + league);
+        }
+        return code;
+    }
+    
+    public String csvPath(String league) {
+        return csvPath.replace(LEAGUE_PLACEHOLDER, league);
+    }
+}
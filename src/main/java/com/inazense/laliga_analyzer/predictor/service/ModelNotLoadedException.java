@@ -0,0 +1,9 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+// Thrown when a league has no serving model, either not loaded yet or gone while a request was running
+public class ModelNotLoadedException extends IllegalStateException {
+    
+    public ModelNotLoadedException(String league) {
+        super("Model not loaded for " + league + ". Please train or load the model first.");
+    }
+}
@@ -0,0 +1,158 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.model.ModelSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Serves persisted model versions side by side (shadow traffic, A/B comparisons).
+// Versions are loaded lazily from each league's models directory and kept in one LRU cache keyed by
+// league and version, so memory stays bounded however many versions and leagues exist on disk. A cached
+// version is only served while its file keeps the modification time it was loaded with, so a rewritten
+// file is loaded again. Versions that were not found are remembered for a short while, so repeated
+// requests for them neither touch the disk nor fill the log.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ModelRegistry {
+    
+    private static final Pattern VERSION_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    
+    private final ModelStore modelStore;
+    
+    @Value("${predictor.registry.maxLoadedModels:4}")
+    private int maxLoadedModels;
+    
+    @Value("${predictor.registry.missTtlSeconds:30}")
+    private long missTtlSeconds;
+    
+    @Value("${predictor.registry.maxMisses:1024}")
+    private int maxMisses;
+    
+    private record Entry(ModelSnapshot snapshot, long modifiedMillis) {}
+    
+    // Access-ordered, so iteration starts at the least recently used version
+    private final LinkedHashMap<String, Entry> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    
+    // Versions not found on disk, to the System.nanoTime() at which they may be looked up again; oldest first
+    private final LinkedHashMap<String, Long> misses = new LinkedHashMap<>();
+    
+    public ModelSnapshot get(String league, String version) throws IOException {
+        if (version == null || !VERSION_PATTERN.matcher(version).matches()) {
+            throw new NoSuchElementException("Invalid model version: " + version);
+        }
+        String key = key(league, version);
+        if (isRecentMiss(key)) {
+            throw new NoSuchElementException("Model version not found: " + version);
+        }
+        
+        long modified = modelStore.modelFileModified(league, version);
+        if (modified < 0) {
+            synchronized (loaded) {
+                loaded.remove(key);
+            }
+            throw notFound(key, version);
+        }
+        
+        synchronized (loaded) {
+            Entry entry = loaded.get(key);
+            if (entry != null && entry.modifiedMillis() == modified) {
+                return entry.snapshot();
+            }
+        }
+        
+        // Load outside the lock so a cold version doesn't stall requests for hot ones
+        ModelSnapshot snapshot = modelStore.loadModel(league, version);
+        if (snapshot == null || !version.equals(snapshot.getModelVersion())) {
+            throw notFound(key, version);
+        }
+        
+        synchronized (loaded) {
+            Entry existing = loaded.get(key);
+            if (existing != null && existing.modifiedMillis() >= modified) {
+                return existing.snapshot();
+            }
+            loaded.put(key, new Entry(snapshot, modified));
+            evictIfNeeded();
+            log.info("Registered model version {} for {} ({} loaded)", version, league, loaded.size());
+        }
+        return snapshot;
+    }
+    
+    // The version if it is already in the cache and its file is unchanged; never loads from disk
+    public ModelSnapshot getIfLoaded(String league, String version) {
+        String key = key(league, version);
+        Entry entry;
+        synchronized (loaded) {
+            entry = loaded.get(key);
+        }
+        if (entry == null || entry.modifiedMillis() != modelStore.modelFileModified(league, version)) {
+            return null;
+        }
+        return entry.snapshot();
+    }
+    
+    private boolean isRecentMiss(String key) {
+        synchronized (misses) {
+            Long retryAt = misses.get(key);
+            if (retryAt == null) {
+                return false;
+            }
+            if (System.nanoTime() - retryAt < 0) {
+                return true;
+            }
+            misses.remove(key);
+            return false;
+        }
+    }
+    
+    private NoSuchElementException notFound(String key, String version) {
+        synchronized (misses) {
+            misses.remove(key);
+            misses.put(key, System.nanoTime() + TimeUnit.SECONDS.toNanos(missTtlSeconds));
+            while (misses.size() > Math.max(1, maxMisses)) {
+                misses.remove(misses.keySet().iterator().next());
+            }
+        }
+        return new NoSuchElementException("Model version not found: " + version);
+    }
+    
+    private void evictIfNeeded() {
+        while (loaded.size() > Math.max(1, maxLoadedModels)) {
+            Map.Entry<String, Entry> eldest = loaded.entrySet().iterator().next();
+            loaded.remove(eldest.getKey());
+            log.info("Evicted model version {} from registry", eldest.getKey());
+        }
+    }
+    
+    public List<String> getLoadedVersions(String league) {
+        String prefix = key(league, "");
+        List<String> versions = new ArrayList<>();
+        synchronized (loaded) {
+            for (String key : loaded.keySet()) {
+                if (key.startsWith(prefix)) {
+                    versions.add(key.substring(prefix.length()));
+                }
+            }
+        }
+        return versions;
+    }
+    
+    public List<String> getAvailableVersions(String league) throws IOException {
+        return modelStore.listVersions(league);
+    }
+    
+    private static String key(String league, String version) {
+        return league + "/" + version;
+    }
+}
@@ -1,87 +1,316 @@
 package com.inazense.laliga_analyzer.predictor.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inazense.laliga_analyzer.predictor.model.DecayedRatings;
+import com.inazense.laliga_analyzer.predictor.model.EloRatings;
+import com.inazense.laliga_analyzer.predictor.model.ModelSnapshot;
+import com.inazense.laliga_analyzer.predictor.model.TeamRatings;
 import com.inazense.laliga_analyzer.predictor.model.TeamStats;
+import com.inazense.laliga_analyzer.predictor.util.BinaryCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class ModelStore {
     
+    // Binary model layout (big-endian):
+    //   int magic, int formatVersion, string modelVersion, string dataFingerprint, long createdAt, int flags,
+    //   string metadata (JSON), so the metadata is covered by the checksum and replaced with the model,
+    //   team ratings section (dictionary + primitive arrays),
+    //   decayed ratings section when FLAG_DECAYED is set,
+    //   Elo ratings section when FLAG_ELO is set,
+    //   long CRC32 of everything before it
+    private static final int MAGIC = 0x4C4C474D; // "LLGM"
+    private static final int FORMAT_VERSION = 5;
+    private static final int FLAG_DECAYED = 1;
+    private static final int FLAG_ELO = 2;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String EVALUATION_DIR = "evaluation";
+    
     @Value("${predictor.modelsPath:models}")
     private String modelsPath;
     
     @Value("${predictor.modelVersion:v0.1}")
     private String modelVersion;
     
+    @Value("${predictor.exportJson:false}")
+    private boolean exportJson;
+    
+    private final PredictorMetrics metrics;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
-    public void saveModel(Map<String, TeamStats> teamStatsMap, Map<String, Object> metadata) throws IOException {
-        // Create models directory if it doesn't exist
-        Path modelsDir = Paths.get(modelsPath);
+    // Single writer thread: saves are applied in submission order and never block a request
+    private final ExecutorService persistenceExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "model-persistence");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public CompletableFuture<Void> saveModelAsync(String league, ModelSnapshot snapshot, Map<String, Object> metadata) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                saveModel(league, snapshot, metadata);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, persistenceExecutor);
+    }
+    
+    // Every league has its own directory under the models path, so leagues never read each other's models
+    public void saveModel(String league, ModelSnapshot snapshot, Map<String, Object> metadata) throws IOException {
+        save(leagueDir(league), snapshot, metadata);
+    }
+    
+    // Models trained on the evaluation's training slice go to the league's evaluation directory, which
+    // serving, the registry and the version listing never read
+    public void saveEvaluationModel(String league, ModelSnapshot snapshot, Map<String, Object> metadata) throws IOException {
+        save(leagueDir(league).resolve(EVALUATION_DIR), snapshot, metadata);
+    }
+    
+    private void save(Path modelsDir, ModelSnapshot snapshot, Map<String, Object> metadata) throws IOException {
+        long start = System.nanoTime();
+        
+        // Create the models directory if it doesn't exist
         if (!Files.exists(modelsDir)) {
             Files.createDirectories(modelsDir);
         }
         
-        // Save team stats
-        String teamStatsFilename = String.format("%s/team_stats_%s.json", modelsPath, modelVersion);
-        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(teamStatsFilename), teamStatsMap);
-        log.info("Saved team stats to {}", teamStatsFilename);
+        // Save binary model, metadata included, in a single rename
+        Path modelFile = modelsDir.resolve(String.format("model_%s.bin", snapshot.getModelVersion()));
+        String metadataJson = objectMapper.writeValueAsString(metadata);
+        writeAtomically(modelFile, out -> writeModel(out, snapshot, metadataJson));
+        log.info("Saved model to {}", modelFile);
         
-        // Save metadata
-        String metadataFilename = String.format("%s/metadata_%s.json", modelsPath, modelVersion);
-        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(metadataFilename), metadata);
-        log.info("Saved metadata to {}", metadataFilename);
+        if (exportJson) {
+            exportJson(modelsDir, snapshot, metadata);
+        }
+        metrics.recordStoreSave(start);
     }
     
-    @SuppressWarnings("unchecked")
-    public Map<String, TeamStats> loadTeamStats(String version) throws IOException {
-        String filename = String.format("%s/team_stats_%s.json", modelsPath, version);
-        File file = new File(filename);
+    // Human-readable export of the metadata and team ratings; never read back by the application
+    private void exportJson(Path modelsDir, ModelSnapshot snapshot, Map<String, Object> metadata) throws IOException {
+        Path metadataFile = modelsDir.resolve(String.format("metadata_%s.json", snapshot.getModelVersion()));
+        writeAtomically(metadataFile, out -> out.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(metadata)));
+        log.info("Exported metadata to {}", metadataFile);
         
-        if (!file.exists()) {
-            log.warn("Team stats file not found: {}", filename);
-            return new HashMap<>();
+        Path teamStatsFile = modelsDir.resolve(String.format("team_stats_%s.json", snapshot.getModelVersion()));
+        Map<String, TeamStats> teamStats = snapshot.getRatings().toTeamStatsMap();
+        writeAtomically(teamStatsFile, out -> out.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(teamStats)));
+        log.info("Exported team stats to {}", teamStatsFile);
+    }
+    
+    // Writes to a temp file in the target directory, syncs it and renames it over the target, so readers
+    // only ever see the previous file or the complete new one
+    private void writeAtomically(Path target, ContentWriter writer) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString() + ".", TEMP_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(
+                         new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+                writer.write(out);
+                out.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private void writeModel(DataOutputStream out, ModelSnapshot snapshot, String metadataJson) throws IOException {
+        CRC32 crc = new CRC32();
+        DataOutputStream checked = new DataOutputStream(new CheckedOutputStream(out, crc));
+        writeModelBody(checked, snapshot, metadataJson);
+        checked.flush();
+        out.writeLong(crc.getValue());
+    }
+    
+    private void writeModelBody(DataOutputStream out, ModelSnapshot snapshot, String metadataJson) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        BinaryCodec.writeString(out, snapshot.getModelVersion());
+        BinaryCodec.writeString(out, snapshot.getDataFingerprint() != null ? snapshot.getDataFingerprint() : "");
+        out.writeLong(snapshot.getCreatedAt());
+        int flags = (snapshot.getDecayedRatings() != null ? FLAG_DECAYED : 0) 
+                | (snapshot.getEloRatings() != null ? FLAG_ELO : 0);
+        out.writeInt(flags);
+        BinaryCodec.writeString(out, metadataJson);
+        snapshot.getRatings().writeTo(out);
+        if (snapshot.getDecayedRatings() != null) {
+            snapshot.getDecayedRatings().writeTo(out);
+        }
+        if (snapshot.getEloRatings() != null) {
+            snapshot.getEloRatings().writeTo(out);
+        }
+    }
+    
+    // Returns null when no model has been saved for the version
+    public ModelSnapshot loadModel(String league, String version) throws IOException {
+        Path modelFile = modelFile(league, version);
+        
+        if (!Files.exists(modelFile)) {
+            log.warn("Model file not found: {}", modelFile);
+            return null;
         }
         
-        Map<String, Object> rawMap = objectMapper.readValue(file, Map.class);
-        Map<String, TeamStats> teamStatsMap = new HashMap<>();
+        long start = System.nanoTime();
+        ByteBuffer buffer = readModelFile(modelFile);
+        String storedVersion = BinaryCodec.readString(buffer);
+        String dataFingerprint = BinaryCodec.readString(buffer);
+        long createdAt = buffer.getLong();
+        int flags = buffer.getInt();
+        BinaryCodec.readString(buffer); // metadata, read by loadMetadata
+        TeamRatings ratings = TeamRatings.readFrom(buffer);
+        DecayedRatings decayedRatings = (flags & FLAG_DECAYED) != 0 ? DecayedRatings.readFrom(buffer) : null;
+        EloRatings eloRatings = (flags & FLAG_ELO) != 0 ? EloRatings.readFrom(buffer) : null;
         
-        for (Map.Entry<String, Object> entry : rawMap.entrySet()) {
-            TeamStats stats = objectMapper.convertValue(entry.getValue(), TeamStats.class);
-            teamStatsMap.put(entry.getKey(), stats);
+        log.info("Loaded model {} from {}", storedVersion, modelFile);
+        metrics.recordStoreLoad(start);
+        return ModelSnapshot.builder()
+                .modelVersion(storedVersion)
+                .dataFingerprint(dataFingerprint)
+                .createdAt(createdAt)
+                .ratings(ratings)
+                .decayedRatings(decayedRatings)
+                .eloRatings(eloRatings)
+                .build();
+    }
+    
+    // Reads the whole file onto the heap rather than mapping it: every section is copied into arrays on
+    // load anyway, and a mapping would keep the file open until the buffer happens to be garbage collected,
+    // which on Windows also blocks the rename of the next save. Returns the buffer positioned after the
+    // magic number and format version, once both and the checksum have been verified.
+    private ByteBuffer readModelFile(Path modelFile) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(modelFile));
+        verifyChecksum(buffer, modelFile);
+        
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a model file: " + modelFile);
+        }
+        int formatVersion = buffer.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported model format " + formatVersion + " in " + modelFile);
+        }
+        return buffer;
+    }
+    
+    // Rejects truncated or corrupted files before any section is decoded
+    private void verifyChecksum(ByteBuffer buffer, Path modelFile) throws IOException {
+        int bodyLength = buffer.limit() - Long.BYTES;
+        if (bodyLength < 2 * Integer.BYTES) {
+            throw new IOException("Truncated model file: " + modelFile);
         }
         
-        log.info("Loaded team stats from {}", filename);
-        return teamStatsMap;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(bodyLength));
+        if (crc.getValue() != buffer.getLong(bodyLength)) {
+            throw new IOException("Checksum mismatch in model file: " + modelFile);
+        }
+    }
+    
+    // Modification time of the version's model file in epoch millis, or -1 when there is none
+    public long modelFileModified(String league, String version) {
+        try {
+            return Files.getLastModifiedTime(modelFile(league, version)).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
     }
     
+    // The metadata saved with the version's model, read from the model file so it always belongs to that
+    // model; empty when no model has been saved for the version
     @SuppressWarnings("unchecked")
-    public Map<String, Object> loadMetadata(String version) throws IOException {
-        String filename = String.format("%s/metadata_%s.json", modelsPath, version);
-        File file = new File(filename);
+    public Map<String, Object> loadMetadata(String league, String version) throws IOException {
+        Path modelFile = modelFile(league, version);
         
-        if (!file.exists()) {
-            log.warn("Metadata file not found: {}", filename);
+        if (!Files.exists(modelFile)) {
+            log.warn("Model file not found: {}", modelFile);
             return new HashMap<>();
         }
         
-        Map<String, Object> metadata = objectMapper.readValue(file, Map.class);
-        log.info("Loaded metadata from {}", filename);
+        ByteBuffer buffer = readModelFile(modelFile);
+        BinaryCodec.readString(buffer); // model version
+        BinaryCodec.readString(buffer); // data fingerprint
+        buffer.getLong(); // createdAt
+        buffer.getInt(); // flags
+        Map<String, Object> metadata = objectMapper.readValue(BinaryCodec.readString(buffer), Map.class);
+        log.info("Loaded metadata from {}", modelFile);
         return metadata;
     }
     
+    public List<String> listVersions(String league) throws IOException {
+        Path modelsDir = leagueDir(league);
+        if (!Files.isDirectory(modelsDir)) {
+            return List.of();
+        }
+        
+        try (Stream<Path> files = Files.list(modelsDir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("model_") && name.endsWith(".bin"))
+                    .map(name -> name.substring("model_".length(), name.length() - ".bin".length()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    private Path leagueDir(String league) {
+        return Paths.get(modelsPath, league);
+    }
+    
+    private Path modelFile(String league, String version) {
+        return leagueDir(league).resolve(String.format("model_%s.bin", version));
+    }
+    
     public String getModelVersion() {
         return modelVersion;
     }
+    
+    // Let queued saves finish on a graceful shutdown
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        persistenceExecutor.shutdown();
+        if (!persistenceExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Model persistence did not finish before shutdown");
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
 }
@@ -1,12 +1,20 @@
 package com.inazense.laliga_analyzer.predictor.service;
 
+import com.inazense.laliga_analyzer.predictor.jfr.ModelPredictEvent;
+import com.inazense.laliga_analyzer.predictor.jfr.ModelTrainEvent;
+import com.inazense.laliga_analyzer.predictor.model.DecayedRatings;
+import com.inazense.laliga_analyzer.predictor.model.EloRatings;
 import com.inazense.laliga_analyzer.predictor.model.Match;
 import com.inazense.laliga_analyzer.predictor.model.MatchFeatures;
+import com.inazense.laliga_analyzer.predictor.model.ModelSnapshot;
 import com.inazense.laliga_analyzer.predictor.model.PredictionResult;
+import com.inazense.laliga_analyzer.predictor.model.RatingMode;
 import com.inazense.laliga_analyzer.predictor.model.ScorePrediction;
-import com.inazense.laliga_analyzer.predictor.model.TeamStats;
+import com.inazense.laliga_analyzer.predictor.model.TeamRatings;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.math3.distribution.PoissonDistribution;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -18,118 +26,246 @@ import java.util.stream.Collectors;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class PoissonModel {
     
-    private Map<String, TeamStats> teamStatsMap;
-    private double leagueAvgGoals;
-    private double homeAdvantage;
+    private final PredictorMetrics metrics;
     
-    public void train(List<Match> trainingMatches) {
-        teamStatsMap = new HashMap<>();
+    @Value("${predictor.ratingMode:static}")
+    private String ratingMode;
+    
+    @Value("${predictor.decayHalfLifeDays:365}")
+    private double decayHalfLifeDays;
+    
+    @Value("${predictor.elo.kFactor:20}")
+    private double eloKFactor;
+    
+    @Value("${predictor.elo.homeAdvantage:100}")
+    private double eloHomeAdvantage;
+    
+    @Value("${predictor.elo.goalScale:1200}")
+    private double eloGoalScale;
+    
+    @Value("${predictor.elo.seasonRegression:0.1}")
+    private double eloSeasonRegression;
+    
+    // Trains into a new snapshot; the model keeps no state of its own, so a caller can build the next model
+    // while the current one keeps serving
+    public ModelSnapshot fit(List<Match> trainingMatches, String modelVersion, String dataFingerprint) {
+        ModelTrainEvent event = new ModelTrainEvent();
+        event.begin();
+        long start = System.nanoTime();
         
         // Filter out matches without complete data
         List<Match> validMatches = trainingMatches.stream()
-                .filter(m -> m.getFullTimeHomeGoals() != null && 
-                             m.getFullTimeAwayGoals() != null && 
-                             m.getFullTimeResult() != null)
+                .filter(PoissonModel::isComplete)
                 .collect(java.util.stream.Collectors.toList());
         
         log.info("Training with {} valid matches (filtered from {})", validMatches.size(), trainingMatches.size());
         
-        // Calculate overall league statistics
-        int totalGoals = 0;
-        int totalMatches = validMatches.size();
-        int totalHomeWins = 0;
-        
-        // First pass: collect basic stats
+        // Accumulate sufficient statistics; strengths are derived from them on read
+        TeamRatings trained = new TeamRatings();
         for (Match match : validMatches) {
-            totalGoals += match.getFullTimeHomeGoals() + match.getFullTimeAwayGoals();
-            if ("H".equals(match.getFullTimeResult())) {
-                totalHomeWins++;
-            }
-            
-            updateTeamStats(match.getHomeTeam(), match, true);
-            updateTeamStats(match.getAwayTeam(), match, false);
+            trained.add(match);
         }
         
-        leagueAvgGoals = (double) totalGoals / (totalMatches * 2);
-        homeAdvantage = (double) totalHomeWins / totalMatches;
-        
-        // Second pass: calculate attack and defense strengths
-        for (TeamStats stats : teamStatsMap.values()) {
-            if (stats.getMatchesPlayed() > 0) {
-                double avgGoalsScored = (double) stats.getGoalsScored() / stats.getMatchesPlayed();
-                double avgGoalsConceded = (double) stats.getGoalsConceded() / stats.getMatchesPlayed();
-                
-                stats.setAttackStrength(avgGoalsScored / leagueAvgGoals);
-                stats.setDefenseStrength(avgGoalsConceded / leagueAvgGoals);
+        // Decayed sums and Elo ratings are built in chronological order so every update only touches the latest state
+        DecayedRatings trainedDecayed = null;
+        EloRatings trainedElo = null;
+        if (getRatingMode() != RatingMode.STATIC) {
+            List<Match> chronological = new ArrayList<>(validMatches);
+            chronological.sort(Comparator.comparing(Match::getDate));
+            if (getRatingMode() == RatingMode.DECAYED) {
+                trainedDecayed = new DecayedRatings(decayHalfLifeDays);
+                chronological.forEach(trainedDecayed::add);
+            } else {
+                trainedElo = new EloRatings(eloKFactor, eloHomeAdvantage, eloGoalScale, eloSeasonRegression);
+                chronological.forEach(trainedElo::add);
             }
         }
         
         log.info("Trained Poisson model with {} teams, league avg goals: {}, home advantage: {}", 
-                teamStatsMap.size(), leagueAvgGoals, homeAdvantage);
+                trained.getTeamCount(), trained.leagueAvgGoals(), trained.homeWinRate());
+        metrics.recordModelTrain(start);
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.modelVersion = modelVersion;
+            event.ratingMode = getRatingMode().name();
+            event.matches = trainingMatches.size();
+            event.validMatches = validMatches.size();
+            event.teams = trained.getTeamCount();
+            event.commit();
+        }
+        return ModelSnapshot.builder()
+                .modelVersion(modelVersion)
+                .dataFingerprint(dataFingerprint)
+                .createdAt(System.currentTimeMillis())
+                .ratings(trained)
+                .decayedRatings(trainedDecayed)
+                .eloRatings(trainedElo)
+                .build();
     }
     
-    private void updateTeamStats(String teamName, Match match, boolean isHome) {
-        TeamStats stats = teamStatsMap.computeIfAbsent(teamName, k -> TeamStats.builder()
-                .teamName(teamName)
-                .attackStrength(1.0)
-                .defenseStrength(1.0)
-                .homeAdvantage(1.15) // Default home advantage multiplier
-                .matchesPlayed(0)
-                .goalsScored(0)
-                .goalsConceded(0)
-                .wins(0)
-                .draws(0)
-                .losses(0)
-                .build());
-        
-        stats.setMatchesPlayed(stats.getMatchesPlayed() + 1);
-        
-        if (isHome) {
-            stats.setGoalsScored(stats.getGoalsScored() + match.getFullTimeHomeGoals());
-            stats.setGoalsConceded(stats.getGoalsConceded() + match.getFullTimeAwayGoals());
+    // The snapshot with one more played match, as a new snapshot, so a result reaches the serving model without
+    // retraining on the whole history. Copying the ratings is O(teams): the histories are shared with the
+    // snapshot's, and a result in date order only appends to them. A late result rewrites the entries after
+    // its date, in copies of the histories of its two teams and the league.
+    public ModelSnapshot update(ModelSnapshot snapshot, Match match, String dataFingerprint) {
+        if (!isComplete(match)) {
+            throw new IllegalArgumentException("Match has no final score: " + match.getHomeTeam() + " vs " + match.getAwayTeam());
+        }
+        TeamRatings updated = snapshot.getRatings().copy();
+        updated.add(match);
+        DecayedRatings updatedDecayed = null;
+        if (snapshot.getDecayedRatings() != null) {
+            updatedDecayed = snapshot.getDecayedRatings().copy();
+            updatedDecayed.add(match);
+        }
+        EloRatings updatedElo = null;
+        if (snapshot.getEloRatings() != null) {
+            updatedElo = snapshot.getEloRatings().copy();
+            updatedElo.add(match);
+        }
+        return ModelSnapshot.builder()
+                .modelVersion(snapshot.getModelVersion())
+                .dataFingerprint(dataFingerprint)
+                .createdAt(System.currentTimeMillis())
+                .ratings(updated)
+                .decayedRatings(updatedDecayed)
+                .eloRatings(updatedElo)
+                .build();
+    }
+    
+    private static boolean isComplete(Match match) {
+        return match.getFullTimeHomeGoals() != null && 
+               match.getFullTimeAwayGoals() != null && 
+               match.getFullTimeResult() != null;
+    }
+    
+    // Snapshots are immutable, so any number of threads can score against one without locking
+    public PredictionResult predict(ModelSnapshot snapshot, String homeTeam, String awayTeam, MatchFeatures features) {
+        return predict(snapshot, homeTeam, awayTeam, features, true);
+    }
+    
+    // Unrecorded predictions (the startup warm-up) leave the predict-path meters alone
+    public PredictionResult predict(ModelSnapshot snapshot, String homeTeam, String awayTeam, MatchFeatures features, 
+                                    boolean recorded) {
+        Strengths strengths = lookupStrengths(snapshot.getRatings(), snapshot.getDecayedRatings(), 
+                snapshot.getEloRatings(), homeTeam, awayTeam, features);
+        return predict(strengths, homeTeam, awayTeam, features, snapshot.getModelVersion(), recorded);
+    }
+    
+    private Strengths lookupStrengths(TeamRatings ratings, DecayedRatings decayedRatings, EloRatings eloRatings, 
+                                      String homeTeam, String awayTeam, MatchFeatures features) {
+        if (eloRatings != null) {
+            // Ratings as of the match date, and goals scaled by the league average over the same matches the
+            // ratings were built from, so nothing from the count-based model leaks in
+            long epochDay = matchEpochDay(features);
+            int home = eloRatings.indexOf(homeTeam, epochDay);
+            int away = eloRatings.indexOf(awayTeam, epochDay);
             
-            if ("H".equals(match.getFullTimeResult())) {
-                stats.setWins(stats.getWins() + 1);
-            } else if ("D".equals(match.getFullTimeResult())) {
-                stats.setDraws(stats.getDraws() + 1);
-            } else {
-                stats.setLosses(stats.getLosses() + 1);
+            if (home < 0 || away < 0) {
+                return null;
             }
-        } else {
-            stats.setGoalsScored(stats.getGoalsScored() + match.getFullTimeAwayGoals());
-            stats.setGoalsConceded(stats.getGoalsConceded() + match.getFullTimeHomeGoals());
             
-            if ("A".equals(match.getFullTimeResult())) {
-                stats.setWins(stats.getWins() + 1);
-            } else if ("D".equals(match.getFullTimeResult())) {
-                stats.setDraws(stats.getDraws() + 1);
-            } else {
-                stats.setLosses(stats.getLosses() + 1);
+            return new Strengths(
+                    eloRatings.attackStrength(home, epochDay),
+                    eloRatings.defenseStrength(home, epochDay),
+                    eloRatings.homeAdvantageFactor(),
+                    eloRatings.attackStrength(away, epochDay),
+                    eloRatings.defenseStrength(away, epochDay),
+                    eloRatings.leagueAvgGoals(epochDay));
+        }
+        
+        if (decayedRatings != null) {
+            // Strengths as of the match date, so older goals weigh less than recent ones
+            long epochDay = matchEpochDay(features);
+            int home = decayedRatings.indexOf(homeTeam, epochDay);
+            int away = decayedRatings.indexOf(awayTeam, epochDay);
+            
+            if (home < 0 || away < 0) {
+                return null;
             }
+            
+            return new Strengths(
+                    decayedRatings.attackStrength(home, epochDay),
+                    decayedRatings.defenseStrength(home, epochDay),
+                    TeamRatings.DEFAULT_HOME_ADVANTAGE,
+                    decayedRatings.attackStrength(away, epochDay),
+                    decayedRatings.defenseStrength(away, epochDay),
+                    decayedRatings.leagueAvgGoals(epochDay));
         }
+        
+        int home = ratings.indexOf(homeTeam);
+        int away = ratings.indexOf(awayTeam);
+        
+        if (home < 0 || away < 0) {
+            return null;
+        }
+        
+        return new Strengths(
+                ratings.attackStrength(home),
+                ratings.defenseStrength(home),
+                ratings.homeAdvantage(home),
+                ratings.attackStrength(away),
+                ratings.defenseStrength(away),
+                ratings.leagueAvgGoals());
     }
     
-    public PredictionResult predict(String homeTeam, String awayTeam, MatchFeatures features, String modelVersion) {
-        TeamStats homeStats = teamStatsMap.get(homeTeam);
-        TeamStats awayStats = teamStatsMap.get(awayTeam);
+    // Without a date every known match counts
+    private static long matchEpochDay(MatchFeatures features) {
+        return features != null && features.getDate() != null ? features.getDate().toEpochDay() : Long.MAX_VALUE;
+    }
+    
+    private PredictionResult predict(Strengths strengths, String homeTeam, String awayTeam, 
+                                     MatchFeatures features, String modelVersion, boolean recorded) {
+        ModelPredictEvent event = new ModelPredictEvent();
+        event.begin();
+        long start = System.nanoTime();
+        PredictionResult result = score(strengths, homeTeam, awayTeam, features, modelVersion);
+        if (recorded) {
+            metrics.recordModelPredict(start);
+            if (strengths == null) {
+                metrics.countDefaultPrediction();
+            }
+        }
         
-        if (homeStats == null || awayStats == null) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.homeTeam = homeTeam;
+            event.awayTeam = awayTeam;
+            event.modelVersion = modelVersion;
+            event.defaultPrediction = strengths == null;
+            event.commit();
+        }
+        return result;
+    }
+    
+    private PredictionResult score(Strengths strengths, String homeTeam, String awayTeam, 
+                                   MatchFeatures features, String modelVersion) {
+        if (strengths == null) {
             log.warn("Team stats not found for {} vs {}", homeTeam, awayTeam);
             return createDefaultPrediction(modelVersion);
         }
         
+        double homeAttack = strengths.homeAttack();
+        double homeDefense = strengths.homeDefense();
+        double homeAdvantageFactor = strengths.homeAdvantage();
+        double awayAttack = strengths.awayAttack();
+        double awayDefense = strengths.awayDefense();
+        double leagueAvgGoals = strengths.leagueAvgGoals();
+        
         // Calculate expected goals using Poisson model
         // λ_home = home_attack * away_defense * home_advantage * league_avg
         // λ_away = away_attack * home_defense * league_avg
-        double homeExpectedGoals = homeStats.getAttackStrength() * 
-                                   awayStats.getDefenseStrength() * 
-                                   homeStats.getHomeAdvantage() * 
+        double homeExpectedGoals = homeAttack * 
+                                   awayDefense * 
+                                   homeAdvantageFactor * 
                                    leagueAvgGoals;
         
-        double awayExpectedGoals = awayStats.getAttackStrength() * 
-                                   homeStats.getDefenseStrength() * 
+        double awayExpectedGoals = awayAttack * 
+                                   homeDefense * 
                                    leagueAvgGoals;
         
         // Adjust with recent form if features are available
@@ -200,19 +336,19 @@ public class PoissonModel {
         List<PredictionResult.FeatureImportance> featureImportance = new ArrayList<>();
         featureImportance.add(PredictionResult.FeatureImportance.builder()
                 .feature("home_attack_strength")
-                .impact(homeStats.getAttackStrength() - 1.0)
+                .impact(homeAttack - 1.0)
                 .build());
         featureImportance.add(PredictionResult.FeatureImportance.builder()
                 .feature("away_attack_strength")
-                .impact(awayStats.getAttackStrength() - 1.0)
+                .impact(awayAttack - 1.0)
                 .build());
         featureImportance.add(PredictionResult.FeatureImportance.builder()
                 .feature("home_defense_strength")
-                .impact(1.0 - homeStats.getDefenseStrength())
+                .impact(1.0 - homeDefense)
                 .build());
         featureImportance.add(PredictionResult.FeatureImportance.builder()
                 .feature("away_defense_strength")
-                .impact(1.0 - awayStats.getDefenseStrength())
+                .impact(1.0 - awayDefense)
                 .build());
         
         if (features != null && features.getHomeMatchCount() >= 5) {
@@ -229,6 +365,14 @@ public class PoissonModel {
                     .build());
         }
         
+        // In units of 400 rating points, the gap at which the stronger side's expected score is ten to one
+        if (features != null && features.getHomeRating() != null && features.getAwayRating() != null) {
+            featureImportance.add(PredictionResult.FeatureImportance.builder()
+                    .feature("rating_difference")
+                    .impact((features.getHomeRating() - features.getAwayRating()) / 400.0)
+                    .build());
+        }
+        
         return PredictionResult.builder()
                 .probabilities(PredictionResult.ProbabilityOutcome.builder()
                         .homeWin(homeWinProb)
@@ -245,7 +389,8 @@ public class PoissonModel {
                 .build();
     }
     
-    private Map<String, Double> calculateScoreProbabilities(double homeExpectedGoals, double awayExpectedGoals) {
+    // Package-private so the benchmarks can measure it on its own
+    Map<String, Double> calculateScoreProbabilities(double homeExpectedGoals, double awayExpectedGoals) {
         Map<String, Double> probabilities = new HashMap<>();
         
         PoissonDistribution homePoisson = new PoissonDistribution(homeExpectedGoals);
@@ -283,7 +428,31 @@ public class PoissonModel {
                 .build();
     }
     
-    public Map<String, TeamStats> getTeamStatsMap() {
-        return teamStatsMap;
+    public RatingMode getRatingMode() {
+        return RatingMode.from(ratingMode);
+    }
+    
+    public double getDecayHalfLifeDays() {
+        return decayHalfLifeDays;
+    }
+    
+    public double getEloKFactor() {
+        return eloKFactor;
+    }
+    
+    public double getEloHomeAdvantage() {
+        return eloHomeAdvantage;
+    }
+    
+    public double getEloGoalScale() {
+        return eloGoalScale;
+    }
+    
+    public double getEloSeasonRegression() {
+        return eloSeasonRegression;
+    }
+    
+    private record Strengths(double homeAttack, double homeDefense, double homeAdvantage,
+                             double awayAttack, double awayDefense, double leagueAvgGoals) {
     }
 }
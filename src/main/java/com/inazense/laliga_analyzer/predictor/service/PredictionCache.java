@@ -0,0 +1,100 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A prediction is fully determined by the serving model (version, data fingerprint, rating settings) and
+// the request, so both get hashed into a strong ETag. Serialised responses are kept in a small LRU keyed by
+// that ETag, so repeat requests skip feature building, scoring and JSON serialisation. Every league has its
+// own LRU, so a busy league can't evict another league's entries and a reload only clears its own league.
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PredictionCache {
+    
+    @Value("${predictor.cache.maxEntries:1024}")
+    private int maxEntries;
+    
+    @Value("${predictor.cache.maxAgeSeconds:300}")
+    private long maxAgeSeconds;
+    
+    private final PredictorMetrics metrics;
+    
+    // Access-ordered per league, so iteration starts at the least recently used entry
+    private final Map<String, LinkedHashMap<String, byte[]>> leagues = new ConcurrentHashMap<>();
+    
+    public String etag(String servingTag, String homeTeam, String awayTeam, LocalDate matchDate) {
+        String key = String.join("\u0000", servingTag, homeTeam, awayTeam, matchDate.toString());
+        byte[] hash = sha256().digest(key.getBytes(StandardCharsets.UTF_8));
+        return "\"" + HexFormat.of().formatHex(Arrays.copyOf(hash, 16)) + "\"";
+    }
+    
+    public byte[] get(String league, String etag) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        LinkedHashMap<String, byte[]> entries = entries(league);
+        byte[] body;
+        synchronized (entries) {
+            body = entries.get(etag);
+        }
+        if (body != null) {
+            metrics.countCacheHit();
+        } else {
+            metrics.countCacheMiss();
+        }
+        return body;
+    }
+    
+    public void put(String league, String etag, byte[] body) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        LinkedHashMap<String, byte[]> entries = entries(league);
+        synchronized (entries) {
+            entries.put(etag, body);
+            while (entries.size() > maxEntries) {
+                Map.Entry<String, byte[]> eldest = entries.entrySet().iterator().next();
+                entries.remove(eldest.getKey());
+            }
+        }
+    }
+    
+    // Entries for an older model can never be requested again; dropping them just frees the memory
+    public void clear(String league) {
+        LinkedHashMap<String, byte[]> entries = entries(league);
+        synchronized (entries) {
+            int size = entries.size();
+            entries.clear();
+            log.info("Cleared {} cached {} prediction responses", size, league);
+        }
+    }
+    
+    private LinkedHashMap<String, byte[]> entries(String league) {
+        return leagues.computeIfAbsent(league, key -> new LinkedHashMap<>(64, 0.75f, true));
+    }
+    
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inazense.laliga_analyzer.predictor.dto.BatchPredictionResult;
+import com.inazense.laliga_analyzer.predictor.dto.PredictionRequest;
+import com.inazense.laliga_analyzer.predictor.dto.ResponseProjection;
+import com.inazense.laliga_analyzer.predictor.util.Bulkhead;
+import com.inazense.laliga_analyzer.predictor.util.BulkheadFullException;
+import com.inazense.laliga_analyzer.predictor.util.PredictionJson;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static com.inazense.laliga_analyzer.commons.enums.AppMessages.*;
+
+// Streams predictions for an arbitrarily long JSON array of requests. The array is read one element at a
+// time and every result is written and flushed as soon as it is computed, so memory stays flat whatever
+// the fixture count and a slow client simply blocks the writer. Each item takes its own predict permit and
+// gives it back before its result is written, so a long stream or a slow client never holds capacity that
+// other requests are waiting for.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PredictionStreamService {
+    
+    private final PredictorService predictorService;
+    private final AdmissionControl admissionControl;
+    private final ObjectMapper objectMapper;
+    
+    public void stream(InputStream requestBody, OutputStream out, boolean serverSentEvents, 
+                       ResponseProjection projection, boolean compact) throws IOException {
+        long start = System.nanoTime();
+        int count = 0;
+        
+        // One generator for the whole response; records are framed with raw newlines / SSE fields
+        try (JsonParser parser = objectMapper.getFactory().createParser(requestBody);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.setRootValueSeparator(null);
+            
+            try {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    writeError(generator, serverSentEvents, count);
+                    return;
+                }
+                
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT && token != JsonToken.VALUE_NULL) {
+                        writeError(generator, serverSentEvents, count);
+                        return;
+                    }
+                    
+                    // A null element is reported like any other invalid item
+                    PredictionRequest request = token == JsonToken.START_OBJECT 
+                            ? objectMapper.readValue(parser, PredictionRequest.class) 
+                            : null;
+                    writeRecord(generator, serverSentEvents, "prediction", predict(count, request), projection, compact);
+                    count++;
+                }
+            } catch (JsonProcessingException e) {
+                writeError(generator, serverSentEvents, count);
+                return;
+            }
+            
+            if (serverSentEvents) {
+                generator.writeRaw("event: end\ndata: " + count + "\n\n");
+                generator.flush();
+            }
+        }
+        log.info("Streamed {} predictions in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    // An item that gets no permit within the predict budget is reported busy and the stream carries on, so the
+    // client can resend just those items
+    private BatchPredictionResult predict(int index, PredictionRequest request) {
+        try (Bulkhead.Permit permit = admissionControl.predict().acquire()) {
+            return predictorService.predictItem(index, request);
+        } catch (BulkheadFullException e) {
+            return BatchPredictionResult.builder()
+                    .index(index)
+                    .code(PREDICTOR_PREDICT_FAIL_BUSY.getCode())
+                    .message(PREDICTOR_PREDICT_FAIL_BUSY.getMessage())
+                    .build();
+        }
+    }
+    
+    // Headers are already sent once streaming starts, so a malformed body ends the stream with an error record
+    private void writeError(JsonGenerator generator, boolean serverSentEvents, int index) throws IOException {
+        BatchPredictionResult error = BatchPredictionResult.builder()
+                .index(index)
+                .code(PREDICTOR_STREAM_FAIL_BODY.getCode())
+                .message(PREDICTOR_STREAM_FAIL_BODY.getMessage())
+                .build();
+        writeRecord(generator, serverSentEvents, "error", error, ResponseProjection.FULL, false);
+        log.warn("Prediction stream stopped after {} items: malformed request body", index);
+    }
+    
+    // One NDJSON line, or one SSE event carrying the same JSON as its data
+    private void writeRecord(JsonGenerator generator, boolean serverSentEvents, String event, 
+                             BatchPredictionResult record, ResponseProjection projection, 
+                             boolean compact) throws IOException {
+        if (serverSentEvents) {
+            generator.writeRaw("id: " + record.getIndex() + "\nevent: " + event + "\ndata: ");
+        }
+        PredictionJson.writeBatchItem(generator, record, projection, compact);
+        generator.writeRaw(serverSentEvents ? "\n\n" : "\n");
+        generator.flush();
+    }
+}
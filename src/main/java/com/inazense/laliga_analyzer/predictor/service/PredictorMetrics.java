@@ -0,0 +1,120 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+// Meters for every stage of the prediction and training pipeline, registered once and shared by the
+// services that record them. Percentiles and histograms are configured for the whole "predictor" prefix
+// through management.metrics.distribution.* so they can be tuned without code changes.
+@Service
+public class PredictorMetrics {
+    
+    private final Timer featureBuild;
+    private final Timer modelPredict;
+    private final Counter defaultPredictions;
+    private final Timer responseSerialize;
+    private final Timer dataLoad;
+    private final DistributionSummary dataRows;
+    private final Timer modelTrain;
+    private final Timer storeSave;
+    private final Timer storeLoad;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter notModified;
+    
+    public PredictorMetrics(MeterRegistry registry) {
+        featureBuild = Timer.builder("predictor.features.build")
+                .description("Feature building for one fixture")
+                .register(registry);
+        modelPredict = Timer.builder("predictor.model.predict")
+                .description("Poisson scoring for one fixture")
+                .register(registry);
+        defaultPredictions = Counter.builder("predictor.model.default.predictions")
+                .description("Predictions that fell back to league defaults because a team was unknown")
+                .register(registry);
+        responseSerialize = Timer.builder("predictor.response.serialize")
+                .description("Serialising a prediction response")
+                .register(registry);
+        dataLoad = Timer.builder("predictor.data.load")
+                .description("Parsing the match data file")
+                .register(registry);
+        dataRows = DistributionSummary.builder("predictor.data.rows")
+                .description("Matches parsed per data load")
+                .baseUnit("rows")
+                .register(registry);
+        modelTrain = Timer.builder("predictor.model.train")
+                .description("Training a model from matches")
+                .register(registry);
+        storeSave = Timer.builder("predictor.store.io")
+                .description("Model store I/O")
+                .tag("operation", "save")
+                .register(registry);
+        storeLoad = Timer.builder("predictor.store.io")
+                .description("Model store I/O")
+                .tag("operation", "load")
+                .register(registry);
+        cacheHits = Counter.builder("predictor.cache.requests")
+                .description("Prediction response cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        cacheMisses = Counter.builder("predictor.cache.requests")
+                .description("Prediction response cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+        notModified = Counter.builder("predictor.cache.requests")
+                .description("Prediction response cache lookups")
+                .tag("result", "not_modified")
+                .register(registry);
+    }
+    
+    // All durations are measured with System.nanoTime() by the caller, like the existing timing logs
+    public void recordFeatureBuild(long startNanos) {
+        featureBuild.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordModelPredict(long startNanos) {
+        modelPredict.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void countDefaultPrediction() {
+        defaultPredictions.increment();
+    }
+    
+    public void recordResponseSerialize(long startNanos) {
+        responseSerialize.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordDataLoad(long startNanos, int rows) {
+        dataLoad.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        dataRows.record(rows);
+    }
+    
+    public void recordModelTrain(long startNanos) {
+        modelTrain.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordStoreSave(long startNanos) {
+        storeSave.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordStoreLoad(long startNanos) {
+        storeLoad.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void countCacheHit() {
+        cacheHits.increment();
+    }
+    
+    public void countCacheMiss() {
+        cacheMisses.increment();
+    }
+    
+    public void countNotModified() {
+        notModified.increment();
+    }
+}
@@ -1,11 +1,17 @@
 package com.inazense.laliga_analyzer.predictor.service;
 
+import com.inazense.laliga_analyzer.commons.enums.AppMessages;
+import com.inazense.laliga_analyzer.predictor.dto.BatchPredictionResult;
+import com.inazense.laliga_analyzer.predictor.dto.PredictionRequest;
+import com.inazense.laliga_analyzer.predictor.model.EloRatings;
 import com.inazense.laliga_analyzer.predictor.model.Match;
 import com.inazense.laliga_analyzer.predictor.model.MatchFeatures;
+import com.inazense.laliga_analyzer.predictor.model.MatchIndex;
+import com.inazense.laliga_analyzer.predictor.model.ModelSnapshot;
 import com.inazense.laliga_analyzer.predictor.model.PredictionResult;
-import com.inazense.laliga_analyzer.predictor.model.TeamStats;
+import com.inazense.laliga_analyzer.predictor.model.RatingMode;
+import com.inazense.laliga_analyzer.predictor.model.ReloadJob;
 import com.inazense.laliga_analyzer.predictor.util.TeamNormalizer;
-import com.opencsv.exceptions.CsvException;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,8 +20,16 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static com.inazense.laliga_analyzer.commons.enums.AppMessages.*;
 
 @Service
 @RequiredArgsConstructor
@@ -26,102 +40,359 @@ public class PredictorService {
     private final FeatureBuilder featureBuilder;
     private final PoissonModel poissonModel;
     private final ModelStore modelStore;
+    private final ModelRegistry modelRegistry;
+    private final PredictionCache predictionCache;
+    private final LeagueSettings leagueSettings;
+    
+    @Value("${predictor.batch.maxSize:500}")
+    private int maxBatchSize;
     
-    @Value("${predictor.csvPath:laliga.csv}")
-    private String csvPath;
+    // Everything the predict path reads for one league, replaced in a single write once a reload has fully
+    // finished, and where in the data file the league's rows were last read up to, for recording results
+    private record ServingState(MatchIndex matchIndex, ModelSnapshot model, CsvDataLoader.Tail tail) {}
     
-    private List<Match> historicalMatches;
-    private boolean modelLoaded = false;
+    // One entry per league; a league's state is only ever read or replaced by requests and reloads for that league
+    private final Map<String, ServingState> serving = new ConcurrentHashMap<>();
     
+    // Leagues load in parallel and independently: one failing to load leaves the others serving
     @PostConstruct
     public void init() {
-        try {
-            loadModel();
-        } catch (Exception e) {
-            log.error("Failed to load model on startup: {}", e.getMessage());
-            log.info("Model will need to be trained or loaded manually");
-        }
+        leagueSettings.getLeagues().parallelStream().forEach(league -> {
+            try {
+                loadModel(new ReloadJob("startup-" + league, league));
+            } catch (Exception e) {
+                log.error("Failed to load {} model on startup: {}", league, e.getMessage());
+                log.info("Model will need to be trained or loaded manually");
+            }
+        });
     }
     
-    public void loadModel() throws IOException, CsvException {
-        log.info("Loading model...");
+    // Builds the league's next serving state on the calling thread while its current one keeps serving. The
+    // returned future completes once a freshly trained model has been persisted.
+    public CompletableFuture<Void> loadModel(ReloadJob job) throws IOException {
+        String league = job.getLeague();
+        String csvPath = leagueSettings.csvPath(league);
+        log.info("Loading {} model...", league);
+        long start = System.nanoTime();
         
         // Load historical matches for feature building
-        List<Match> allMatches = csvDataLoader.loadMatches(csvPath);
+        job.startStage(ReloadJob.Stage.LOAD);
+        CsvDataLoader.LoadResult loaded = csvDataLoader.load(csvPath, league, Set.of());
+        List<Match> allMatches = loaded.matches();
         
         // Filter valid matches
-        historicalMatches = allMatches.stream()
+        List<Match> historicalMatches = allMatches.stream()
                 .filter(m -> m.getFullTimeHomeGoals() != null && 
                              m.getFullTimeAwayGoals() != null && 
                              m.getFullTimeResult() != null)
                 .collect(java.util.stream.Collectors.toList());
+        // A misspelt league or a file without its rows must not end up serving an empty model
+        if (historicalMatches.isEmpty()) {
+            throw new IllegalStateException("No complete " + league + " matches in " + csvPath);
+        }
+        
+        // The serving model is trained on every row of the league in the data file
+        String dataFingerprint = loaded.fingerprint().value(league + ":all");
+        
+        log.info("Loaded {} valid historical {} matches (filtered from {})", 
+                historicalMatches.size(), league, allMatches.size());
+        job.finishStage(ReloadJob.Stage.LOAD, historicalMatches.size() + " valid matches");
+        
+        // Shared by every feature lookup until the next reload
+        job.startStage(ReloadJob.Stage.INDEX);
+        long indexStart = System.nanoTime();
+        MatchIndex matchIndex = new MatchIndex(historicalMatches);
+        log.info("Indexed {} matches in {} ms", matchIndex.size(), (System.nanoTime() - indexStart) / 1_000_000);
+        job.finishStage(ReloadJob.Stage.INDEX, matchIndex.size() + " matches indexed");
         
-        log.info("Loaded {} valid historical matches (filtered from {})", historicalMatches.size(), allMatches.size());
+        // Try to load saved model; only retrain when it is missing or stale
+        job.startStage(ReloadJob.Stage.TRAIN);
+        ModelSnapshot model = loadSavedModel(league, dataFingerprint);
+        boolean trained = model == null;
+        if (trained) {
+            // Train on all historical data for production use
+            // In evaluation mode, we use time-based split
+            model = poissonModel.fit(historicalMatches, modelStore.getModelVersion(), dataFingerprint);
+            job.finishStage(ReloadJob.Stage.TRAIN, "trained on " + historicalMatches.size() + " matches");
+        } else {
+            job.finishStage(ReloadJob.Stage.TRAIN, "restored saved model " + model.getModelVersion());
+        }
+        
+        // Requests already in flight finish on the old state; new ones see the complete new state
+        serving.put(league, new ServingState(matchIndex, model, loaded.tail()));
+        predictionCache.clear(league);
+        log.info("{} model loaded successfully in {} ms", league, (System.nanoTime() - start) / 1_000_000);
+        
+        if (!trained) {
+            job.skipStage(ReloadJob.Stage.PERSIST, "saved model is current");
+            return CompletableFuture.completedFuture(null);
+        }
+        job.startStage(ReloadJob.Stage.PERSIST);
+        return persistModel(league, model, historicalMatches.size())
+                .thenRun(() -> job.finishStage(ReloadJob.Stage.PERSIST, "saved " + modelStore.getModelVersion()));
+    }
+    
+    // Adds a played match to the league's serving model without retraining. The row is appended to the data
+    // file first, then a new index and model, built from copies of the serving ones, replace them in one
+    // write. None of it reads the whole file or copies the whole history: the append carries on from the
+    // serving state's tail, and the copies share their histories with the serving ones (see HistoryExtent).
+    // Persisting the updated model does write the whole model file, in the background.
+    // Runs on the league's reload thread so it never interleaves with a reload of the same league.
+    // The returned future completes once the updated model has been persisted.
+    public CompletableFuture<Void> recordResult(String league, Match match) throws IOException {
+        ServingState state = requireServing(league);
+        if (state.matchIndex().contains(match.getHomeTeam(), match.getAwayTeam(), match.getDate())) {
+            throw new IllegalArgumentException(match.getHomeTeam() + " vs " + match.getAwayTeam() + " on " 
+                    + match.getDate() + " is already recorded");
+        }
+        
+        String csvPath = leagueSettings.csvPath(league);
+        CsvDataLoader.Tail tail = csvDataLoader.appendMatch(csvPath, league, state.tail(), match);
+        // The league's rows changed, so its fingerprint (and with it every ETag of the league) changes too
+        String dataFingerprint = tail.fingerprint().value(league + ":all");
+        ModelSnapshot model = poissonModel.update(state.model(), match, dataFingerprint);
         
-        // Try to load saved model
+        serving.put(league, new ServingState(state.matchIndex().with(match), model, tail));
+        predictionCache.clear(league);
+        log.info("Recorded {} result {} {}-{} {} on {}", league, match.getHomeTeam(), 
+                match.getFullTimeHomeGoals(), match.getFullTimeAwayGoals(), match.getAwayTeam(), match.getDate());
+        return persistModel(league, model, state.matchIndex().size() + 1);
+    }
+    
+    // Returns null when there is no usable saved model and a new one has to be trained
+    private ModelSnapshot loadSavedModel(String league, String dataFingerprint) {
         try {
-            Map<String, TeamStats> teamStatsMap = modelStore.loadTeamStats(modelStore.getModelVersion());
+            long restoreStart = System.nanoTime();
+            ModelSnapshot savedModel = modelStore.loadModel(league, modelStore.getModelVersion());
             
-            if (teamStatsMap.isEmpty()) {
+            if (savedModel == null) {
                 log.warn("No saved model found, training new model...");
-                trainModel();
-            } else {
-                // Load team stats into the model
-                // For simplicity, we'll retrain if the model is not found
-                // In production, you would deserialize the full model state
-                log.info("Found saved model, retraining for consistency...");
-                trainModel();
+                return null;
+            }
+            if (!isCurrent(savedModel, dataFingerprint)) {
+                log.info("Saved model {} does not match the current data or settings, training new model...", 
+                        savedModel.getModelVersion());
+                return null;
             }
+            log.info("Restored saved model {} in {} ms", 
+                    savedModel.getModelVersion(), (System.nanoTime() - restoreStart) / 1_000_000);
+            return savedModel;
         } catch (Exception e) {
             log.warn("Failed to load saved model: {}, training new model...", e.getMessage());
-            trainModel();
+            return null;
         }
-        
-        modelLoaded = true;
-        log.info("Model loaded successfully");
     }
     
-    private void trainModel() throws IOException, CsvException {
-        // Train on all historical data for production use
-        // In evaluation mode, we use time-based split
-        poissonModel.train(historicalMatches);
+    private boolean isCurrent(ModelSnapshot savedModel, String dataFingerprint) {
+        if (!modelStore.getModelVersion().equals(savedModel.getModelVersion()) || 
+            !dataFingerprint.equals(savedModel.getDataFingerprint())) {
+            return false;
+        }
         
-        // Save the trained model
+        // The saved model must also have been trained with the configured rating mode and settings
+        EloRatings elo = savedModel.getEloRatings();
+        return switch (poissonModel.getRatingMode()) {
+            case DECAYED -> savedModel.getDecayedRatings() != null && elo == null && 
+                            savedModel.getDecayedRatings().getHalfLifeDays() == poissonModel.getDecayHalfLifeDays();
+            case ELO -> elo != null && savedModel.getDecayedRatings() == null && 
+                        elo.getKFactor() == poissonModel.getEloKFactor() && 
+                        elo.getHomeAdvantage() == poissonModel.getEloHomeAdvantage() && 
+                        elo.getGoalScale() == poissonModel.getEloGoalScale() && 
+                        elo.getSeasonRegression() == poissonModel.getEloSeasonRegression();
+            case STATIC -> savedModel.getDecayedRatings() == null && elo == null;
+        };
+    }
+    
+    private CompletableFuture<Void> persistModel(String league, ModelSnapshot model, int trainMatches) {
         Map<String, Object> metadata = Map.of(
-                "version", modelStore.getModelVersion(),
-                "trainMatches", historicalMatches.size(),
-                "trainedAt", LocalDate.now().toString()
+                "league", league,
+                "version", model.getModelVersion(),
+                "trainMatches", trainMatches,
+                "trainedAt", LocalDate.now().toString(),
+                "dataFingerprint", model.getDataFingerprint()
         );
-        modelStore.saveModel(poissonModel.getTeamStatsMap(), metadata);
+        
+        // Persist in the background; the freshly trained model serves requests straight away
+        long saveStart = System.nanoTime();
+        return modelStore.saveModelAsync(league, model, metadata).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.error("Failed to save {} model {}: {}", league, model.getModelVersion(), error.getMessage());
+            } else {
+                log.info("Persisted {} model {} in {} ms", 
+                        league, model.getModelVersion(), (System.nanoTime() - saveStart) / 1_000_000);
+            }
+        });
     }
     
-    public PredictionResult predict(String homeTeam, String awayTeam, LocalDate matchDate) {
-        if (!modelLoaded) {
-            throw new IllegalStateException("Model not loaded. Please train or load the model first.");
-        }
+    public PredictionResult predict(String league, String homeTeam, String awayTeam, LocalDate matchDate) throws IOException {
+        return predict(league, homeTeam, awayTeam, matchDate, null);
+    }
+    
+    public PredictionResult predict(String league, String homeTeam, String awayTeam, LocalDate matchDate, 
+                                    String modelVersion) throws IOException {
+        return predict(league, homeTeam, awayTeam, matchDate, modelVersion, true);
+    }
+    
+    // A null or default version is served by the league's live model; other versions come from the registry.
+    // The startup warm-up predicts unrecorded, so the predict-path meters only describe real traffic.
+    public PredictionResult predict(String league, String homeTeam, String awayTeam, LocalDate matchDate, 
+                                    String modelVersion, boolean recorded) throws IOException {
+        // Read the serving state once so the whole prediction uses one consistent model and index
+        ServingState state = requireServing(league);
+        
+        // Resolve the version first so unknown versions fail before any feature work
+        ModelSnapshot snapshot = isDefaultVersion(modelVersion) ? state.model() : modelRegistry.get(league, modelVersion);
         
         // Normalize team names
-        String normalizedHomeTeam = TeamNormalizer.normalize(homeTeam);
-        String normalizedAwayTeam = TeamNormalizer.normalize(awayTeam);
+        String normalizedHomeTeam = TeamNormalizer.normalize(league, homeTeam);
+        String normalizedAwayTeam = TeamNormalizer.normalize(league, awayTeam);
         
         // Build features
         MatchFeatures features = featureBuilder.buildFeatures(
                 normalizedHomeTeam, 
                 normalizedAwayTeam, 
                 matchDate, 
-                historicalMatches
+                state.matchIndex(), 
+                snapshot.getEloRatings(), 
+                recorded
         );
         
         // Predict
-        return poissonModel.predict(
-                normalizedHomeTeam, 
-                normalizedAwayTeam, 
-                features, 
-                modelStore.getModelVersion()
-        );
+        return poissonModel.predict(snapshot, normalizedHomeTeam, normalizedAwayTeam, features, recorded);
+    }
+    
+    // Strong ETag for a prediction; it changes whenever the serving model, its data or the request does.
+    // Another version still takes its features from the league's serving index, so the serving data
+    // fingerprint is in every tag, whichever version predicts. Only built from models already in memory: null
+    // when another version has not been loaded yet, in which case the caller predicts first (which loads it)
+    // and asks again.
+    public String predictionETag(String league, String homeTeam, String awayTeam, LocalDate matchDate, 
+                                 String modelVersion, String representation) {
+        ServingState state = requireServing(league);
+        ModelSnapshot snapshot = isDefaultVersion(modelVersion) 
+                ? state.model() 
+                : modelRegistry.getIfLoaded(league, modelVersion);
+        if (snapshot == null) {
+            return null;
+        }
+        String servingTag = String.join("|", league, snapshot.getModelVersion(), snapshot.getDataFingerprint(), 
+                state.model().getDataFingerprint(), ratingTag(snapshot), representation);
+        return predictionCache.etag(servingTag, 
+                TeamNormalizer.normalize(league, homeTeam), TeamNormalizer.normalize(league, awayTeam), matchDate);
+    }
+    
+    // The rating mode and settings a snapshot was trained with
+    private static String ratingTag(ModelSnapshot snapshot) {
+        if (snapshot.getDecayedRatings() != null) {
+            return RatingMode.DECAYED.name() + "|" + snapshot.getDecayedRatings().getHalfLifeDays();
+        }
+        EloRatings elo = snapshot.getEloRatings();
+        if (elo != null) {
+            return String.join("|", RatingMode.ELO.name(), String.valueOf(elo.getKFactor()), 
+                    String.valueOf(elo.getHomeAdvantage()), String.valueOf(elo.getGoalScale()), 
+                    String.valueOf(elo.getSeasonRegression()));
+        }
+        return RatingMode.STATIC.name();
+    }
+    
+    private ServingState requireServing(String league) {
+        ServingState state = serving.get(league);
+        if (state == null) {
+            throw new ModelNotLoadedException(league);
+        }
+        return state;
+    }
+    
+    private boolean isDefaultVersion(String modelVersion) {
+        return modelVersion == null || modelVersion.isBlank() || modelVersion.equals(modelStore.getModelVersion());
+    }
+    
+    // Scores every request in parallel against the same index and model. Results keep the request order
+    // and a failing item is reported in its own slot instead of failing the batch.
+    public List<BatchPredictionResult> predictBatch(List<PredictionRequest> requests) {
+        return predictBatch(requests, true);
+    }
+    
+    public List<BatchPredictionResult> predictBatch(List<PredictionRequest> requests, boolean recorded) {
+        BatchPredictionResult[] results = new BatchPredictionResult[requests.size()];
+        IntStream.range(0, requests.size()).parallel()
+                .forEach(i -> results[i] = predictItem(i, requests.get(i), recorded));
+        return Arrays.asList(results);
+    }
+    
+    public BatchPredictionResult predictItem(int index, PredictionRequest request) {
+        return predictItem(index, request, true);
+    }
+    
+    // Never throws: failures are returned as an error result for the item
+    public BatchPredictionResult predictItem(int index, PredictionRequest request, boolean recorded) {
+        if (request == null || request.getHomeTeam() == null || request.getAwayTeam() == null) {
+            return failedItem(index, PREDICTOR_PREDICT_FAIL_TEAMS, null);
+        }
+        if (!leagueSettings.accepts(request.getLeague())) {
+            return failedItem(index, PREDICTOR_PREDICT_FAIL_LEAGUE, null);
+        }
+        
+        LocalDate matchDate;
+        try {
+            matchDate = LocalDate.parse(request.getDate());
+        } catch (Exception e) {
+            return failedItem(index, PREDICTOR_PREDICT_FAIL_DATE, null);
+        }
+        
+        try {
+            PredictionResult prediction = predict(
+                    leagueSettings.resolve(request.getLeague()), 
+                    request.getHomeTeam(), 
+                    request.getAwayTeam(), 
+                    matchDate, 
+                    request.getModelVersion(), 
+                    recorded
+            );
+            return BatchPredictionResult.builder()
+                    .index(index)
+                    .code(PREDICTOR_PREDICT_OK.getCode())
+                    .message(PREDICTOR_PREDICT_OK.getMessage())
+                    .prediction(prediction)
+                    .build();
+        } catch (NoSuchElementException e) {
+            return failedItem(index, PREDICTOR_PREDICT_FAIL_VERSION, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Batch item {} failed: {}", index, e.getMessage());
+            return failedItem(index, PREDICTOR_PREDICT_FAIL, e.getMessage());
+        }
+    }
+    
+    private BatchPredictionResult failedItem(int index, AppMessages message, String detail) {
+        return BatchPredictionResult.builder()
+                .index(index)
+                .code(message.getCode())
+                .message(detail != null ? detail : message.getMessage())
+                .build();
+    }
+    
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+    
+    public String getDefaultModelVersion() {
+        return modelStore.getModelVersion();
+    }
+    
+    public boolean isModelLoaded(String league) {
+        return serving.containsKey(league);
+    }
+    
+    // Leagues with a serving model, in configuration order
+    public List<String> getLoadedLeagues() {
+        return leagueSettings.getLeagues().stream()
+                .filter(serving::containsKey)
+                .collect(java.util.stream.Collectors.toList());
     }
     
-    public boolean isModelLoaded() {
-        return modelLoaded;
+    // The index behind the league's serving model, or null while it has no model loaded
+    public MatchIndex getServingIndex(String league) {
+        ServingState state = serving.get(league);
+        return state != null ? state.matchIndex() : null;
     }
 }
@@ -0,0 +1,127 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.model.Match;
+import com.inazense.laliga_analyzer.predictor.model.ReloadJob;
+import com.inazense.laliga_analyzer.predictor.util.Bulkhead;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Runs model reloads as background jobs, on one thread per league so leagues reload in parallel and
+// independently. Per league, at most one job runs and one waits: a reload requested while another is still
+// queued joins that job, so bursts of requests coalesce into one run that is guaranteed to start after the
+// latest request. Recorded results run on the same thread, so they are ordered with the league's reloads.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReloadService {
+    
+    private final PredictorService predictorService;
+    private final AdmissionControl admissionControl;
+    
+    @Value("${predictor.reload.historySize:20}")
+    private int historySize;
+    
+    // Created on a league's first reload
+    private final Map<String, ExecutorService> reloadExecutors = new HashMap<>();
+    
+    // Insertion-ordered, oldest first, trimmed to historySize
+    private final LinkedHashMap<String, ReloadJob> jobs = new LinkedHashMap<>();
+    private final Map<String, ReloadJob> queued = new HashMap<>();
+    private final Set<String> running = new HashSet<>();
+    
+    // The league must already be resolved to a configured division code
+    public synchronized ReloadJob requestReload(String league) {
+        ReloadJob pending = queued.get(league);
+        if (pending != null) {
+            log.info("{} reload requested while job {} is queued, coalescing", league, pending.getId());
+            return pending;
+        }
+        
+        ReloadJob job = new ReloadJob(UUID.randomUUID().toString(), league);
+        queued.put(league, job);
+        jobs.put(job.getId(), job);
+        while (jobs.size() > Math.max(1, historySize)) {
+            jobs.remove(jobs.keySet().iterator().next());
+        }
+        reloadExecutors.computeIfAbsent(league, ReloadService::newReloadExecutor).execute(() -> run(job));
+        log.info("Queued {} reload job {}", league, job.getId());
+        return job;
+    }
+    
+    private static ExecutorService newReloadExecutor(String league) {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "model-reload-" + league);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    // Queued on the league's reload thread behind any reload already waiting there, and admitted like a
+    // reload, through the maintenance bulkhead. Completes once the result is serving; persisting the updated
+    // model carries on in the background.
+    public synchronized CompletableFuture<Void> recordResult(String league, Match match) {
+        ExecutorService executor = reloadExecutors.computeIfAbsent(league, ReloadService::newReloadExecutor);
+        return CompletableFuture.runAsync(() -> {
+            try (Bulkhead.Permit permit = admissionControl.maintenance().acquire()) {
+                predictorService.recordResult(league, match);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+    
+    public synchronized Optional<ReloadJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+    
+    // Whether a reload of the league is waiting or running, so a league without a model will have one shortly
+    public synchronized boolean isReloading(String league) {
+        return queued.containsKey(league) || running.contains(league);
+    }
+    
+    private void run(ReloadJob job) {
+        synchronized (this) {
+            // From here on a new request needs a new job, since this one may already have read the data
+            queued.remove(job.getLeague());
+            running.add(job.getLeague());
+        }
+        
+        // A job waiting for a maintenance permit still reports QUEUED
+        try (Bulkhead.Permit permit = admissionControl.maintenance().acquire()) {
+            job.start();
+            predictorService.loadModel(job).join();
+            job.succeed();
+            log.info("{} reload job {} succeeded", job.getLeague(), job.getId());
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            job.fail(cause);
+            log.error("{} reload job {} failed, previous model keeps serving: {}", 
+                    job.getLeague(), job.getId(), cause.getMessage());
+        } finally {
+            synchronized (this) {
+                running.remove(job.getLeague());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        reloadExecutors.values().forEach(ExecutorService::shutdownNow);
+    }
+}
@@ -1,21 +1,31 @@
 package com.inazense.laliga_analyzer.predictor.service;
 
+import com.inazense.laliga_analyzer.predictor.jfr.EvaluationEvent;
+import com.inazense.laliga_analyzer.predictor.model.EloRatings;
+import com.inazense.laliga_analyzer.predictor.model.EvaluationMetrics;
 import com.inazense.laliga_analyzer.predictor.model.Match;
 import com.inazense.laliga_analyzer.predictor.model.MatchFeatures;
+import com.inazense.laliga_analyzer.predictor.model.MatchIndex;
+import com.inazense.laliga_analyzer.predictor.model.ModelSnapshot;
 import com.inazense.laliga_analyzer.predictor.model.PredictionResult;
-import com.opencsv.exceptions.CsvException;
+import com.inazense.laliga_analyzer.predictor.util.Bootstrap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,19 +36,50 @@ public class TrainerService {
     private final FeatureBuilder featureBuilder;
     private final PoissonModel poissonModel;
     private final ModelStore modelStore;
-    
-    @Value("${predictor.csvPath:laliga.csv}")
-    private String csvPath;
+    private final LeagueSettings leagueSettings;
     
     @Value("${predictor.trainTestSplitYear:2018}")
     private int trainTestSplitYear;
     
-    public Map<String, Object> trainAndEvaluate() throws IOException, CsvException {
-        log.info("Starting training and evaluation...");
+    @Value("${predictor.bootstrapSamples:2000}")
+    private int bootstrapSamples;
+    
+    @Value("${predictor.confidenceLevel:0.95}")
+    private double confidenceLevel;
+    
+    @Value("${predictor.bootstrapSeed:42}")
+    private long bootstrapSeed;
+    
+    // Leagues train and evaluate in parallel and independently, on the common pool their own parallel
+    // evaluation also runs on; the result keeps the configured league order
+    public Map<String, Map<String, Object>> trainAndEvaluateAll() throws IOException {
+        List<String> leagues = leagueSettings.getLeagues();
+        Map<String, Map<String, Object>> results = new ConcurrentHashMap<>();
+        try {
+            leagues.parallelStream().forEach(league -> {
+                try {
+                    results.put(league, trainAndEvaluate(league));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        Map<String, Map<String, Object>> metricsByLeague = new LinkedHashMap<>();
+        leagues.forEach(league -> metricsByLeague.put(league, results.get(league)));
+        return metricsByLeague;
+    }
+    
+    public Map<String, Object> trainAndEvaluate(String league) throws IOException {
+        log.info("Starting training and evaluation for {}...", league);
+        String csvPath = leagueSettings.csvPath(league);
         
-        // Load all matches
-        List<Match> allMatches = csvDataLoader.loadMatches(csvPath);
-        log.info("Loaded {} total matches", allMatches.size());
+        // Load all matches of the league
+        CsvDataLoader.LoadResult loaded = csvDataLoader.load(csvPath, league, Set.of());
+        List<Match> allMatches = loaded.matches();
+        log.info("Loaded {} total {} matches", allMatches.size(), league);
         
         // Filter valid matches
         List<Match> validMatches = allMatches.stream()
@@ -47,7 +88,7 @@ public class TrainerService {
                              m.getFullTimeResult() != null)
                 .collect(Collectors.toList());
         
-        log.info("Valid matches with complete data: {}", validMatches.size());
+        log.info("Valid {} matches with complete data: {}", league, validMatches.size());
         
         // Split by date (temporal split)
         LocalDate splitDate = LocalDate.of(trainTestSplitYear, 1, 1);
@@ -59,121 +100,147 @@ public class TrainerService {
                 .filter(m -> !m.getDate().isBefore(splitDate))
                 .collect(Collectors.toList());
         
-        log.info("Training set: {} matches (before {})", trainMatches.size(), splitDate);
-        log.info("Test set: {} matches (from {} onwards)", testMatches.size(), splitDate);
+        log.info("{} training set: {} matches (before {})", league, trainMatches.size(), splitDate);
+        log.info("{} test set: {} matches (from {} onwards)", league, testMatches.size(), splitDate);
         
-        // Train model
-        poissonModel.train(trainMatches);
+        // Fingerprint scoped to the training slice, so the serving model never mistakes this one for its own
+        String dataFingerprint = loaded.fingerprint().value(league + ":before:" + splitDate);
+        
+        // Train model; the snapshot is local to this call, so leagues and concurrent runs never share state
+        ModelSnapshot model = poissonModel.fit(trainMatches, modelStore.getModelVersion(), dataFingerprint);
         
         // Evaluate on test set
-        Map<String, Object> metrics = evaluate(testMatches, validMatches);
+        Map<String, Object> metrics = evaluate(model, testMatches, validMatches);
         
         // Save model
         Map<String, Object> metadata = new HashMap<>();
+        metadata.put("league", league);
         metadata.put("version", modelStore.getModelVersion());
         metadata.put("trainMatches", trainMatches.size());
         metadata.put("testMatches", testMatches.size());
         metadata.put("splitDate", splitDate.toString());
+        metadata.put("dataFingerprint", dataFingerprint);
         metadata.put("metrics", metrics);
         
-        modelStore.saveModel(poissonModel.getTeamStatsMap(), metadata);
+        // Kept apart from the serving models, which are trained on every match
+        modelStore.saveEvaluationModel(league, model, metadata);
         
-        log.info("Training and evaluation completed successfully");
+        log.info("{} training and evaluation completed successfully", league);
         return metrics;
     }
     
-    private Map<String, Object> evaluate(List<Match> testMatches, List<Match> allMatches) {
+    private Map<String, Object> evaluate(ModelSnapshot model, List<Match> testMatches, List<Match> allMatches) {
         log.info("Evaluating model on {} test matches...", testMatches.size());
-        
-        int correct = 0;
-        int total = 0;
-        double brierScore = 0.0;
-        double logLoss = 0.0;
-        
-        Map<String, Integer> confusionMatrix = new HashMap<>();
-        confusionMatrix.put("HH", 0); // Predicted Home, Actual Home
-        confusionMatrix.put("HD", 0);
-        confusionMatrix.put("HA", 0);
-        confusionMatrix.put("DH", 0);
-        confusionMatrix.put("DD", 0);
-        confusionMatrix.put("DA", 0);
-        confusionMatrix.put("AH", 0);
-        confusionMatrix.put("AD", 0);
-        confusionMatrix.put("AA", 0);
-        
-        for (Match match : testMatches) {
+        EvaluationEvent event = new EvaluationEvent();
+        event.begin();
+        
+        // Features for every test match come from one shared index of the history, and in Elo rating mode
+        // from the trained ratings as of each match date
+        MatchIndex matchIndex = new MatchIndex(allMatches);
+        EloRatings eloRatings = model.getEloRatings();
+        
+        // Predict every test match once; metrics and all bootstrap resamples reuse these records
+        int n = testMatches.size();
+        double[][] probabilities = new double[n][];
+        int[] predicted = new int[n];
+        int[] actual = new int[n];
+        
+        IntStream.range(0, n).parallel().forEach(i -> {
+            Match match = testMatches.get(i);
             try {
                 // Build features from historical data (before this match)
                 MatchFeatures features = featureBuilder.buildFeatures(
                         match.getHomeTeam(), 
                         match.getAwayTeam(), 
                         match.getDate(), 
-                        allMatches
+                        matchIndex, 
+                        eloRatings
                 );
                 
                 // Predict
                 PredictionResult prediction = poissonModel.predict(
+                        model, 
                         match.getHomeTeam(), 
                         match.getAwayTeam(), 
-                        features, 
-                        modelStore.getModelVersion()
+                        features
                 );
                 
-                // Get actual result
-                String actualResult = match.getFullTimeResult();
-                String predictedResult = outcomeToResult(prediction.getPrediction().getOutcome());
-                
-                // Update confusion matrix
-                String key = predictedResult + actualResult;
-                confusionMatrix.put(key, confusionMatrix.get(key) + 1);
-                
-                // Check if prediction is correct
-                if (predictedResult.equals(actualResult)) {
-                    correct++;
-                }
-                total++;
-                
-                // Calculate Brier score
-                double homeActual = "H".equals(actualResult) ? 1.0 : 0.0;
-                double drawActual = "D".equals(actualResult) ? 1.0 : 0.0;
-                double awayActual = "A".equals(actualResult) ? 1.0 : 0.0;
-                
-                brierScore += Math.pow(prediction.getProbabilities().getHomeWin() - homeActual, 2);
-                brierScore += Math.pow(prediction.getProbabilities().getDraw() - drawActual, 2);
-                brierScore += Math.pow(prediction.getProbabilities().getAwayWin() - awayActual, 2);
-                
-                // Calculate log loss
-                double epsilon = 1e-15; // To avoid log(0)
-                if ("H".equals(actualResult)) {
-                    logLoss -= Math.log(Math.max(prediction.getProbabilities().getHomeWin(), epsilon));
-                } else if ("D".equals(actualResult)) {
-                    logLoss -= Math.log(Math.max(prediction.getProbabilities().getDraw(), epsilon));
-                } else {
-                    logLoss -= Math.log(Math.max(prediction.getProbabilities().getAwayWin(), epsilon));
-                }
-                
+                actual[i] = EvaluationMetrics.resultIndex(match.getFullTimeResult());
+                predicted[i] = EvaluationMetrics.resultIndex(outcomeToResult(prediction.getPrediction().getOutcome()));
+                probabilities[i] = new double[] {
+                        prediction.getProbabilities().getHomeWin(),
+                        prediction.getProbabilities().getDraw(),
+                        prediction.getProbabilities().getAwayWin()
+                };
             } catch (Exception e) {
                 log.warn("Failed to evaluate match {} vs {}: {}", 
                         match.getHomeTeam(), match.getAwayTeam(), e.getMessage());
             }
+        });
+        
+        // Each worker accumulates its own partial metrics, merged at the end
+        int[] evaluated = IntStream.range(0, n).filter(i -> probabilities[i] != null).toArray();
+        EvaluationMetrics metrics = Arrays.stream(evaluated).parallel()
+                .collect(EvaluationMetrics::new,
+                        (accumulator, i) -> accumulator.accept(
+                                probabilities[i][0], probabilities[i][1], probabilities[i][2], 
+                                predicted[i], actual[i]),
+                        EvaluationMetrics::merge);
+        
+        Map<String, Object> result = metrics.toMap();
+        if (metrics.isEmpty()) {
+            // No scores and no intervals rather than NaN, which the JSON metadata can't hold
+            log.warn("No test matches could be evaluated; metrics left out");
+        } else {
+            log.info("Evaluation metrics: Accuracy={}, Brier Score={}, Log Loss={}, RPS={}, ECE={}", 
+                    metrics.accuracy(), metrics.brierScore(), metrics.logLoss(), 
+                    metrics.rankedProbabilityScore(), metrics.expectedCalibrationError());
+            result.put("confidenceIntervals", bootstrapIntervals(evaluated, probabilities, predicted, actual));
         }
         
-        double accuracy = (double) correct / total;
-        brierScore = brierScore / (3 * total); // Normalize by number of classes and samples
-        logLoss = logLoss / total;
-        
-        Map<String, Object> metrics = new HashMap<>();
-        metrics.put("accuracy", accuracy);
-        metrics.put("brierScore", brierScore);
-        metrics.put("logLoss", logLoss);
-        metrics.put("totalPredictions", total);
-        metrics.put("correctPredictions", correct);
-        metrics.put("confusionMatrix", confusionMatrix);
-        
-        log.info("Evaluation metrics: Accuracy={}, Brier Score={}, Log Loss={}", 
-                accuracy, brierScore, logLoss);
+        event.end();
+        if (event.shouldCommit()) {
+            event.testMatches = n;
+            event.evaluatedMatches = evaluated.length;
+            event.bootstrapSamples = bootstrapSamples;
+            event.commit();
+        }
+        return result;
+    }
+    
+    private Map<String, Object> bootstrapIntervals(int[] evaluated, double[][] probabilities, int[] predicted, int[] actual) {
+        // Per-match scores whose means are accuracy, Brier score and log loss
+        int n = evaluated.length;
+        double[][] scores = new double[3][n];
+        for (int k = 0; k < n; k++) {
+            int i = evaluated[k];
+            double[] p = probabilities[i];
+            double brier = 0.0;
+            for (int outcome = 0; outcome < 3; outcome++) {
+                double observed = outcome == actual[i] ? 1.0 : 0.0;
+                brier += (p[outcome] - observed) * (p[outcome] - observed);
+            }
+            scores[0][k] = predicted[i] == actual[i] ? 1.0 : 0.0;
+            scores[1][k] = brier / 3;
+            scores[2][k] = -Math.log(Math.max(p[actual[i]], 1e-15));
+        }
         
-        return metrics;
+        long start = System.nanoTime();
+        double[][] intervals = Bootstrap.percentileIntervals(scores, bootstrapSamples, confidenceLevel, bootstrapSeed);
+        log.info("Computed {} bootstrap resamples over {} matches in {} ms", 
+                bootstrapSamples, n, (System.nanoTime() - start) / 1_000_000);
+        
+        String[] names = {"accuracy", "brierScore", "logLoss"};
+        Map<String, Object> confidenceIntervals = new LinkedHashMap<>();
+        confidenceIntervals.put("level", confidenceLevel);
+        confidenceIntervals.put("samples", bootstrapSamples);
+        for (int metric = 0; metric < names.length; metric++) {
+            confidenceIntervals.put(names[metric], Map.of(
+                    "lower", intervals[metric][0],
+                    "upper", intervals[metric][1]
+            ));
+        }
+        return confidenceIntervals;
     }
     
     private String outcomeToResult(String outcome) {
@@ -0,0 +1,176 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inazense.laliga_analyzer.predictor.dto.BatchPredictionResult;
+import com.inazense.laliga_analyzer.predictor.dto.PredictionRequest;
+import com.inazense.laliga_analyzer.predictor.dto.ResponseProjection;
+import com.inazense.laliga_analyzer.predictor.model.MatchIndex;
+import com.inazense.laliga_analyzer.predictor.model.PredictionResult;
+import com.inazense.laliga_analyzer.predictor.util.PredictionJson;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.inazense.laliga_analyzer.commons.enums.AppMessages.PREDICTOR_BATCH_OK;
+import static com.inazense.laliga_analyzer.commons.enums.AppMessages.PREDICTOR_PREDICT_OK;
+
+// Replays synthetic fixtures between every pair of known teams in every league through the predict path (features, scoring,
+// ETag hashing and every JSON encoding) before the instance takes traffic, so the first real requests find
+// compiled code instead of the interpreter. It runs inside the ApplicationReadyEvent, and Spring Boot only
+// publishes ReadinessState.ACCEPTING_TRAFFIC once every ready listener has returned, so
+// /actuator/health/readiness stays OUT_OF_SERVICE until the warm-up is over.
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WarmupService {
+    
+    public enum State {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        SKIPPED,
+        FAILED
+    }
+    
+    private final PredictorService predictorService;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${predictor.warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${predictor.warmup.predictions:5000}")
+    private int maxPredictions;
+    
+    @Value("${predictor.warmup.maxSeconds:30}")
+    private long maxSeconds;
+    
+    private static final int BATCH_SIZE = 50;
+    
+    private volatile State state = State.PENDING;
+    private volatile int predictions;
+    private volatile long durationMillis;
+    
+    // First of the ready listeners, so anything else reacting to startup already sees a warm instance
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void warmUp() {
+        if (!enabled) {
+            state = State.SKIPPED;
+            log.info("Warm-up disabled");
+            return;
+        }
+        List<String> leagues = predictorService.getLoadedLeagues();
+        if (leagues.isEmpty()) {
+            state = State.SKIPPED;
+            log.warn("Warm-up skipped: no model loaded");
+            return;
+        }
+        
+        // The code paths are shared, so leagues split the prediction budget rather than each getting all of it
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        long deadline = start + maxSeconds * 1_000_000_000L;
+        int budget = Math.max(1, maxPredictions / leagues.size());
+        // Synthetic fixtures are predicted unrecorded, so they never show up in the predict-path meters while
+        // real requests arriving alongside are still measured. Nothing is put in the response cache either: only
+        // the controller fills it, so the entries real requests left there are kept.
+        try {
+            for (String league : leagues) {
+                MatchIndex index = predictorService.getServingIndex(league);
+                if (index != null && index.teams().size() >= 2) {
+                    replay(league, index, budget, deadline);
+                }
+            }
+            state = State.COMPLETED;
+        } catch (Exception e) {
+            // A failed warm-up only costs latency; the instance still serves
+            state = State.FAILED;
+            log.error("Warm-up failed: {}", e.getMessage());
+        }
+        durationMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Warm-up {} with {} predictions over {} leagues in {} ms",
+                state.name().toLowerCase(Locale.ROOT), predictions, leagues.size(), durationMillis);
+    }
+    
+    // Pairs every team with every other one, round by round (offset 1, 2, ...), until the prediction budget or
+    // the time budget runs out. Fixtures are dated the day after the last known match, like the next matchday.
+    private void replay(String league, MatchIndex index, int budget, long deadline) throws Exception {
+        List<String> teams = new ArrayList<>(index.teams());
+        teams.sort(null);
+        LocalDate date = index.lastDate().plusDays(1);
+        ResponseProjection[] projections = ResponseProjection.values();
+        int teamCount = teams.size();
+        int limit = predictions + budget;
+        
+        int count = predictions;
+        List<PredictionRequest> batch = new ArrayList<>(BATCH_SIZE);
+        for (int offset = 1; count < limit && System.nanoTime() < deadline; offset = offset % (teamCount - 1) + 1) {
+            for (int i = 0; i < teamCount && count < limit; i++) {
+                String homeTeam = teams.get(i);
+                String awayTeam = teams.get((i + offset) % teamCount);
+                
+                // Same steps as a GET: ETag, prediction, then one of the encodings
+                ResponseProjection projection = projections[count % projections.length];
+                boolean compact = (count / projections.length) % 2 == 1;
+                predictorService.predictionETag(league, homeTeam, awayTeam, date, null,
+                        projection.name() + (compact ? "|compact" : ""));
+                PredictionResult result = predictorService.predict(league, homeTeam, awayTeam, date, null, false);
+                serialize(generator -> PredictionJson.writeResponse(generator, PREDICTOR_PREDICT_OK, result, projection, compact));
+                count++;
+                
+                // The same fixtures, collected into batches, also go through the parallel batch path
+                batch.add(request(league, homeTeam, awayTeam, date));
+                if (batch.size() == BATCH_SIZE) {
+                    List<BatchPredictionResult> results = predictorService.predictBatch(batch, false);
+                    serialize(generator -> PredictionJson.writeBatchResponse(generator, PREDICTOR_BATCH_OK, results, projection, compact));
+                    count += batch.size();
+                    batch.clear();
+                }
+                // Published as it goes, so /predictor/status shows progress
+                predictions = count;
+            }
+        }
+    }
+    
+    private interface JsonWriter {
+        void write(JsonGenerator generator) throws Exception;
+    }
+    
+    private void serialize(JsonWriter writer) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            writer.write(generator);
+        }
+    }
+    
+    private static PredictionRequest request(String league, String homeTeam, String awayTeam, LocalDate date) {
+        PredictionRequest request = new PredictionRequest();
+        request.setLeague(league);
+        request.setHomeTeam(homeTeam);
+        request.setAwayTeam(awayTeam);
+        request.setDate(date.toString());
+        return request;
+    }
+    
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("predictions", predictions);
+        status.put("durationMillis", durationMillis);
+        return status;
+    }
+}
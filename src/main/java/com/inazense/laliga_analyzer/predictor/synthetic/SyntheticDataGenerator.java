@@ -0,0 +1,302 @@
+package com.inazense.laliga_analyzer.predictor.synthetic;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Writes football-data-compatible CSVs (same column names as laliga.csv) for any number of leagues, teams
+// and seasons, so ingestion, training and prediction can be exercised far beyond the bundled ~10k rows.
+// Every team has hidden attack and defence strengths that drift each season; goals are drawn
+// from the same Poisson model the predictor fits, and odds are priced from the true probabilities plus a
+// bookmaker margin. Rows are streamed in date order, so output size is limited only by disk.
+@Slf4j
+public class SyntheticDataGenerator {
+    
+    static final String HEADER = "Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR,HTHG,HTAG,HTR,"
+            + "HS,AS,HST,AST,HF,AF,HC,AC,HY,AY,HR,AR,AvgH,AvgD,AvgA";
+    
+    // Real division codes first, so the output looks like a multi-league football-data download
+    private static final String[] DIVISIONS = {"SP1", "SP2", "E0", "E1", "I1", "I2", "D1", "D2", "F1", "F2", "N1", "P1"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    
+    private static final double LEAGUE_AVG_GOALS = 1.15;
+    private static final double HOME_ADVANTAGE = 1.25;
+    private static final double STRENGTH_SPREAD = 0.25;
+    private static final double SEASON_PERSISTENCE = 0.8;
+    private static final double HALF_TIME_SHARE = 0.45;
+    private static final double BOOKMAKER_MARGIN = 1.05;
+    private static final int MAX_GOALS = 10;
+    private static final int MAX_WEEKLY_ROUNDS = 40;
+    private static final long SEASON_DAYS = 280;
+    
+    private final int leagues;
+    private final int teamsPerLeague;
+    private final int seasons;
+    private final int firstSeason;
+    private final SplittableRandom random;
+    
+    public SyntheticDataGenerator(int leagues, int teamsPerLeague, int seasons, int firstSeason, long seed) {
+        if (leagues < 1 || teamsPerLeague < 2 || seasons < 1) {
+            throw new IllegalArgumentException("Need at least 1 league, 2 teams and 1 season");
+        }
+        if (firstSeason + seasons > 9999) {
+            throw new IllegalArgumentException("Seasons must end before the year 9999");
+        }
+        this.leagues = leagues;
+        this.teamsPerLeague = teamsPerLeague;
+        this.seasons = seasons;
+        this.firstSeason = firstSeason;
+        this.random = new SplittableRandom(seed);
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(
+                Integer.parseInt(values.getOrDefault("leagues", "1")),
+                Integer.parseInt(values.getOrDefault("teams", "20")),
+                Integer.parseInt(values.getOrDefault("seasons", "10")),
+                Integer.parseInt(values.getOrDefault("firstSeason", "2000")),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+        Path output = Paths.get(values.getOrDefault("output", "build/synthetic/synthetic.csv"));
+        
+        log.info("Generating {} matches into {}", generator.expectedMatches(), output);
+        long start = System.nanoTime();
+        long matches = generator.writeTo(output);
+        log.info("Wrote {} matches to {} in {} ms", matches, output, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    public long expectedMatches() {
+        int rounds = 2 * (teamsPerLeague % 2 == 0 ? teamsPerLeague - 1 : teamsPerLeague);
+        long perRound = teamsPerLeague / 2;
+        return (long) leagues * seasons * rounds * perRound;
+    }
+    
+    public long writeTo(Path output) throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            return write(writer);
+        }
+    }
+    
+    public long write(Writer writer) throws IOException {
+        League[] divisions = new League[leagues];
+        for (int l = 0; l < leagues; l++) {
+            divisions[l] = new League(divisionCode(l), teamsPerLeague, random);
+        }
+        
+        writer.write(HEADER);
+        writer.write('\n');
+        StringBuilder row = new StringBuilder(160);
+        long written = 0;
+        
+        // Circle-method double round robin: every team meets every other once at home and once away.
+        // An odd team count gets a bye slot, so one team rests each round.
+        int slots = teamsPerLeague % 2 == 0 ? teamsPerLeague : teamsPerLeague + 1;
+        int roundsPerHalf = slots - 1;
+        
+        for (int season = 0; season < seasons; season++) {
+            for (League league : divisions) {
+                league.drift(random);
+            }
+            
+            // One round per weekend from mid-August; big leagues squeeze their rounds closer together so
+            // every season still ends by May and the rows stay in date order
+            LocalDate firstRound = LocalDate.of(firstSeason + season, 8, 15)
+                    .with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
+            int totalRounds = 2 * roundsPerHalf;
+            for (int round = 0; round < totalRounds; round++) {
+                long dayOffset = totalRounds <= MAX_WEEKLY_ROUNDS ? 7L * round : SEASON_DAYS * round / totalRounds;
+                String date = firstRound.plusDays(dayOffset).format(DATE_FORMAT);
+                boolean secondHalf = round >= roundsPerHalf;
+                int r = round % roundsPerHalf;
+                
+                for (League league : divisions) {
+                    for (int pair = 0; pair < slots / 2; pair++) {
+                        int first = pair == 0 ? 0 : 1 + (r + pair - 1) % (slots - 1);
+                        int second = 1 + (r + slots - 2 - pair) % (slots - 1);
+                        if (first >= teamsPerLeague || second >= teamsPerLeague) {
+                            continue; // bye
+                        }
+                        // Alternate home sides within a half, and swap them for the return fixture
+                        boolean firstAtHome = (pair == 0 ? r % 2 == 0 : pair % 2 == 1) != secondHalf;
+                        int home = firstAtHome ? first : second;
+                        int away = firstAtHome ? second : first;
+                        
+                        row.setLength(0);
+                        league.appendMatch(row, date, home, away, random);
+                        writer.append(row);
+                        written++;
+                    }
+                }
+            }
+        }
+        return written;
+    }
+    
+    private static String divisionCode(int index) {
+        return index < DIVISIONS.length ? DIVISIONS[index] : "L" + (index + 1);
+    }
+    
+    // Teams of one division and their current hidden strengths
+    private static final class League {
+        
+        private final String division;
+        private final String[] names;
+        private final double[] attack;
+        private final double[] defense;
+        
+        League(String division, int teams, SplittableRandom random) {
+            this.division = division;
+            this.names = new String[teams];
+            this.attack = new double[teams];
+            this.defense = new double[teams];
+            for (int t = 0; t < teams; t++) {
+                names[t] = String.format(Locale.ROOT, "%s Team %02d", division, t + 1);
+                attack[t] = Math.exp(STRENGTH_SPREAD * random.nextGaussian());
+                defense[t] = Math.exp(STRENGTH_SPREAD * random.nextGaussian());
+            }
+        }
+        
+        // Squads change between seasons. Log-strengths follow an AR(1) process that keeps the same spread
+        // however many seasons are generated, so clubs rise and fall without the league drifting apart.
+        void drift(SplittableRandom random) {
+            double noise = STRENGTH_SPREAD * Math.sqrt(1 - SEASON_PERSISTENCE * SEASON_PERSISTENCE);
+            for (int t = 0; t < names.length; t++) {
+                attack[t] = Math.exp(SEASON_PERSISTENCE * Math.log(attack[t]) + noise * random.nextGaussian());
+                defense[t] = Math.exp(SEASON_PERSISTENCE * Math.log(defense[t]) + noise * random.nextGaussian());
+            }
+        }
+        
+        void appendMatch(StringBuilder row, String date, int home, int away, SplittableRandom random) {
+            // Same form as PoissonModel: attack of one side times defence (goals conceded) of the other
+            double homeLambda = LEAGUE_AVG_GOALS * HOME_ADVANTAGE * attack[home] * defense[away];
+            double awayLambda = LEAGUE_AVG_GOALS * attack[away] * defense[home];
+            
+            int homeGoals = poisson(homeLambda, random);
+            int awayGoals = poisson(awayLambda, random);
+            int homeHalfTime = binomial(homeGoals, HALF_TIME_SHARE, random);
+            int awayHalfTime = binomial(awayGoals, HALF_TIME_SHARE, random);
+            
+            // Match statistics loosely follow the expected goals
+            int homeShots = poisson(4 + 6 * homeLambda, random);
+            int awayShots = poisson(4 + 6 * awayLambda, random);
+            
+            double[] outcome = outcomeProbabilities(homeLambda, awayLambda);
+            
+            row.append(division).append(',')
+                    .append(date).append(',')
+                    .append(names[home]).append(',')
+                    .append(names[away]).append(',')
+                    .append(homeGoals).append(',')
+                    .append(awayGoals).append(',')
+                    .append(result(homeGoals, awayGoals)).append(',')
+                    .append(homeHalfTime).append(',')
+                    .append(awayHalfTime).append(',')
+                    .append(result(homeHalfTime, awayHalfTime)).append(',')
+                    .append(homeShots).append(',')
+                    .append(awayShots).append(',')
+                    .append(binomial(homeShots, 0.35, random)).append(',')
+                    .append(binomial(awayShots, 0.35, random)).append(',')
+                    .append(poisson(12, random)).append(',')
+                    .append(poisson(12, random)).append(',')
+                    .append(poisson(5.5, random)).append(',')
+                    .append(poisson(4.5, random)).append(',')
+                    .append(poisson(2, random)).append(',')
+                    .append(poisson(2.3, random)).append(',')
+                    .append(poisson(0.1, random)).append(',')
+                    .append(poisson(0.12, random)).append(',');
+            appendOdds(row, outcome[0]).append(',');
+            appendOdds(row, outcome[1]).append(',');
+            appendOdds(row, outcome[2]).append('\n');
+        }
+    }
+    
+    // Home win, draw and away win probabilities for independent Poisson scores
+    static double[] outcomeProbabilities(double homeLambda, double awayLambda) {
+        double[] homePmf = pmf(homeLambda);
+        double[] awayPmf = pmf(awayLambda);
+        double homeWin = 0.0;
+        double draw = 0.0;
+        double awayWin = 0.0;
+        for (int h = 0; h <= MAX_GOALS; h++) {
+            for (int a = 0; a <= MAX_GOALS; a++) {
+                double p = homePmf[h] * awayPmf[a];
+                if (h > a) {
+                    homeWin += p;
+                } else if (h == a) {
+                    draw += p;
+                } else {
+                    awayWin += p;
+                }
+            }
+        }
+        double total = homeWin + draw + awayWin;
+        return new double[] {homeWin / total, draw / total, awayWin / total};
+    }
+    
+    private static double[] pmf(double lambda) {
+        double[] pmf = new double[MAX_GOALS + 1];
+        pmf[0] = Math.exp(-lambda);
+        for (int k = 1; k <= MAX_GOALS; k++) {
+            pmf[k] = pmf[k - 1] * lambda / k;
+        }
+        return pmf;
+    }
+    
+    // Decimal odds rounded to two places, the way football-data publishes them
+    private static StringBuilder appendOdds(StringBuilder row, double probability) {
+        long hundredths = Math.round(100.0 / (probability * BOOKMAKER_MARGIN));
+        return row.append(hundredths / 100).append('.')
+                .append(hundredths % 100 < 10 ? "0" : "").append(hundredths % 100);
+    }
+    
+    private static char result(int homeGoals, int awayGoals) {
+        return homeGoals > awayGoals ? 'H' : homeGoals == awayGoals ? 'D' : 'A';
+    }
+    
+    // Knuth's method; fine for the small means used here
+    private static int poisson(double lambda, SplittableRandom random) {
+        double limit = Math.exp(-lambda);
+        double product = random.nextDouble();
+        int k = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            k++;
+        }
+        return k;
+    }
+    
+    private static int binomial(int trials, double p, SplittableRandom random) {
+        int successes = 0;
+        for (int i = 0; i < trials; i++) {
+            if (random.nextDouble() < p) {
+                successes++;
+            }
+        }
+        return successes;
+    }
+}
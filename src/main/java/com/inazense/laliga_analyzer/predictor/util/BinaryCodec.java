@@ -0,0 +1,63 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Helpers for the binary model format: written with a DataOutputStream, read back from a heap
+// ByteBuffer. Both sides are big-endian; arrays are read with bulk gets instead of per-entry parsing.
+public class BinaryCodec {
+    
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    public static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    public static void writeInts(DataOutputStream out, int[] values, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+    
+    public static void writeLongs(DataOutputStream out, long[] values, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            out.writeLong(values[i]);
+        }
+    }
+    
+    public static void writeDoubles(DataOutputStream out, double[] values, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            out.writeDouble(values[i]);
+        }
+    }
+    
+    // Reads length values into an array of the given capacity
+    public static int[] readInts(ByteBuffer buffer, int length, int capacity) {
+        int[] values = new int[capacity];
+        buffer.asIntBuffer().get(values, 0, length);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+    
+    public static long[] readLongs(ByteBuffer buffer, int length, int capacity) {
+        long[] values = new long[capacity];
+        buffer.asLongBuffer().get(values, 0, length);
+        buffer.position(buffer.position() + length * Long.BYTES);
+        return values;
+    }
+    
+    public static double[] readDoubles(ByteBuffer buffer, int length, int capacity) {
+        double[] values = new double[capacity];
+        buffer.asDoubleBuffer().get(values, 0, length);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        return values;
+    }
+}
@@ -0,0 +1,59 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+public class Bootstrap {
+    
+    // Percentile bootstrap intervals for the mean of each per-match score array.
+    // scores[metric][match]; returns [metric][lower, upper]. Resamples run in parallel, and each one
+    // derives its own generator from the seed so results don't depend on thread scheduling.
+    public static double[][] percentileIntervals(double[][] scores, int samples, double level, long seed) {
+        int metricCount = scores.length;
+        int n = metricCount == 0 ? 0 : scores[0].length;
+        double[][] intervals = new double[metricCount][2];
+        if (n == 0 || samples <= 0) {
+            return intervals;
+        }
+        
+        // resampledMeans[metric][sample]
+        double[][] resampledMeans = new double[metricCount][samples];
+        
+        IntStream.range(0, samples).parallel().forEach(sample -> {
+            SplittableRandom random = new SplittableRandom(mix(seed, sample));
+            double[] sums = new double[metricCount];
+            for (int i = 0; i < n; i++) {
+                int index = random.nextInt(n);
+                for (int metric = 0; metric < metricCount; metric++) {
+                    sums[metric] += scores[metric][index];
+                }
+            }
+            for (int metric = 0; metric < metricCount; metric++) {
+                resampledMeans[metric][sample] = sums[metric] / n;
+            }
+        });
+        
+        double alpha = (1.0 - level) / 2;
+        for (int metric = 0; metric < metricCount; metric++) {
+            double[] means = resampledMeans[metric];
+            Arrays.sort(means);
+            intervals[metric][0] = percentile(means, alpha);
+            intervals[metric][1] = percentile(means, 1.0 - alpha);
+        }
+        return intervals;
+    }
+    
+    // Stafford variant 13 mixer, so neighbouring sample numbers get unrelated generator streams
+    private static long mix(long seed, int sample) {
+        long z = seed ^ (sample * 0xBF58476D1CE4E5B9L + 0x94D049BB133111EBL);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    private static double percentile(double[] sorted, double quantile) {
+        int index = (int) Math.round(quantile * (sorted.length - 1));
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,74 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caps how many callers run a kind of work at once. Callers beyond the cap wait in a bounded queue for at
+// most the latency budget; anyone who would wait longer is rejected straight away instead of piling up.
+// Cheap with virtual threads, where a blocked waiter does not pin a platform thread.
+public class Bulkhead {
+    
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicLong rejected = new AtomicLong();
+    
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, long maxWaitMillis) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+    }
+    
+    // Use with try-with-resources; throws BulkheadFullException when the bulkhead is full
+    public Permit acquire() {
+        boolean acquired = permits.tryAcquire();
+        if (!acquired && maxWaitMillis > 0 && permits.getQueueLength() < maxQueue) {
+            try {
+                acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        if (!acquired) {
+            rejected.incrementAndGet();
+            throw new BulkheadFullException(name);
+        }
+        return new Permit();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getInUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+    
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+    
+    public long getRejected() {
+        return rejected.get();
+    }
+    
+    public class Permit implements AutoCloseable {
+        
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        // Idempotent, so a permit handed to another thread can't be released twice
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import java.util.concurrent.RejectedExecutionException;
+
+// Thrown by Bulkhead.acquire when no permit came free within the bulkhead's wait budget. A subtype of
+// RejectedExecutionException, so callers can tell a full bulkhead from an executor refusing work.
+public class BulkheadFullException extends RejectedExecutionException {
+    
+    public BulkheadFullException(String bulkhead) {
+        super("Bulkhead '" + bulkhead + "' is full");
+    }
+}
@@ -0,0 +1,184 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Splits one CSV row held as UTF-8 bytes into cell offsets, without creating a String per cell: cells are
+// only decoded when a caller asks for them. Follows RFC 4180 quoting (quoted cells may hold commas, line
+// breaks and doubled quotes). One instance is reused row after row; not thread-safe.
+public class CsvCells {
+    
+    private static final int INITIAL_CELLS = 128;
+    
+    private int[] starts = new int[INITIAL_CELLS];
+    private int[] ends = new int[INITIAL_CELLS];
+    private boolean[] quoted = new boolean[INITIAL_CELLS];
+    private int count;
+    private boolean unterminated;
+    
+    // Scans the row starting at pos and returns the offset just past its line break (or limit)
+    public int scan(byte[] data, int pos, int limit) {
+        return scan(data, pos, limit, Integer.MAX_VALUE);
+    }
+    
+    // Stops after maxCells cells, for callers that only need the leading ones; the returned offset is then
+    // somewhere inside the row
+    public int scan(byte[] data, int pos, int limit, int maxCells) {
+        count = 0;
+        unterminated = false;
+        while (count < maxCells) {
+            int cell = count++;
+            if (cell == starts.length) {
+                starts = Arrays.copyOf(starts, cell * 2);
+                ends = Arrays.copyOf(ends, cell * 2);
+                quoted = Arrays.copyOf(quoted, cell * 2);
+            }
+            
+            if (pos < limit && data[pos] == '"') {
+                // Quoted: runs to the closing quote, a doubled quote is a literal one
+                quoted[cell] = true;
+                starts[cell] = ++pos;
+                while (pos < limit && !(data[pos] == '"' && (pos + 1 >= limit || data[pos + 1] != '"'))) {
+                    pos += data[pos] == '"' ? 2 : 1;
+                }
+                unterminated = pos >= limit;
+                ends[cell] = pos;
+                // Anything between the closing quote and the delimiter is dropped
+                while (pos < limit && data[pos] != ',' && data[pos] != '\n' && data[pos] != '\r') {
+                    pos++;
+                }
+            } else {
+                quoted[cell] = false;
+                starts[cell] = pos;
+                while (pos < limit && data[pos] != ',' && data[pos] != '\n' && data[pos] != '\r') {
+                    pos++;
+                }
+                ends[cell] = pos;
+            }
+            
+            if (pos >= limit) {
+                return limit;
+            }
+            if (data[pos] != ',') {
+                // Line break: \n, \r\n or a lone \r
+                if (data[pos] == '\r' && pos + 1 < limit && data[pos + 1] == '\n') {
+                    pos++;
+                }
+                return pos + 1;
+            }
+            pos++;
+        }
+        return pos;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    // True when the last scan reached the end of the data inside a quoted cell
+    public boolean isUnterminated() {
+        return unterminated;
+    }
+    
+    // Empty or whitespace only, or past the end of the row
+    public boolean isBlank(byte[] data, int cell) {
+        if (cell >= count) {
+            return true;
+        }
+        for (int i = starts[cell]; i < ends[cell]; i++) {
+            if ((data[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Compares the trimmed cell with an ASCII string, without decoding it
+    public boolean matches(byte[] data, int cell, String value) {
+        if (cell >= count) {
+            return false;
+        }
+        int start = trimStart(data, cell);
+        int end = trimEnd(data, cell, start);
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (data[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // The trimmed cell, or null when it is blank or past the end of the row
+    public String text(byte[] data, int cell) {
+        if (cell >= count) {
+            return null;
+        }
+        int start = trimStart(data, cell);
+        int end = trimEnd(data, cell, start);
+        if (start == end) {
+            return null;
+        }
+        String text = new String(data, start, end - start, StandardCharsets.UTF_8);
+        return quoted[cell] ? text.replace("\"\"", "\"") : text;
+    }
+    
+    // Null when the cell is blank or not a whole number
+    public Integer intValue(byte[] data, int cell) {
+        if (cell >= count) {
+            return null;
+        }
+        int start = trimStart(data, cell);
+        int end = trimEnd(data, cell, start);
+        if (start == end) {
+            return null;
+        }
+        
+        boolean negative = data[start] == '-';
+        int i = negative || data[start] == '+' ? start + 1 : start;
+        // Longer numbers could overflow; goals and counts never get there
+        if (i == end || end - i > 9) {
+            return null;
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+    
+    // Null when the cell is blank or not a number
+    public Double doubleValue(byte[] data, int cell) {
+        String text = text(data, cell);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private int trimStart(byte[] data, int cell) {
+        int start = starts[cell];
+        while (start < ends[cell] && (data[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+    
+    private int trimEnd(byte[] data, int cell, int start) {
+        int end = ends[cell];
+        while (end > start && (data[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,78 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+// SHA-256 over the rows of one league in a data file, in file order, each preceded by the header it was read
+// under. Rows of other leagues don't count, so a result recorded for one league, or another division
+// downloaded into the same file, leaves every other league's fingerprint as it was. The loader feeds it row
+// by row during its single pass over the file. Line breaks are left out, so a row hashes the same whatever
+// line break ends it. Not thread-safe: callers guard mutations.
+public class DataFingerprint {
+
+    private final MessageDigest digest;
+    private byte[] header;
+    private boolean headerHashed;
+
+    public DataFingerprint() {
+        this.digest = sha256();
+    }
+
+    private DataFingerprint(DataFingerprint source) {
+        try {
+            this.digest = (MessageDigest) source.digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest can't be copied", e);
+        }
+        this.header = source.header;
+        this.headerHashed = source.headerHashed;
+    }
+
+    public DataFingerprint copy() {
+        return new DataFingerprint(this);
+    }
+
+    // A header row, hashed in front of the next row added under it; a header with no rows of the league under
+    // it doesn't count
+    public void addHeader(byte[] data, int start, int end) {
+        header = Arrays.copyOfRange(data, start, trimLineBreak(data, start, end));
+        headerHashed = false;
+    }
+
+    public void addRow(byte[] data, int start, int end) {
+        if (header != null && !headerHashed) {
+            digest.update(header);
+            digest.update((byte) '\n');
+            headerHashed = true;
+        }
+        digest.update(data, start, trimLineBreak(data, start, end) - start);
+        digest.update((byte) '\n');
+    }
+
+    // The fingerprint of the rows so far plus a scope describing which of them the model was trained on (e.g.
+    // all rows, or rows before an evaluation split), so models trained on different slices never match
+    public String value(String scope) {
+        MessageDigest result = copy().digest;
+        result.update((byte) 0);
+        result.update(scope.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(result.digest());
+    }
+
+    private static int trimLineBreak(byte[] data, int start, int end) {
+        while (end > start && (data[end - 1] == '\n' || data[end - 1] == '\r')) {
+            end--;
+        }
+        return end;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.inazense.laliga_analyzer.commons.enums.AppMessages;
+import com.inazense.laliga_analyzer.predictor.dto.BatchPredictionResult;
+import com.inazense.laliga_analyzer.predictor.dto.ResponseProjection;
+import com.inazense.laliga_analyzer.predictor.model.PredictionResult;
+import com.inazense.laliga_analyzer.predictor.model.ScorePrediction;
+
+import java.io.IOException;
+import java.util.List;
+
+// Writes projected predictions straight to a JsonGenerator, with no intermediate maps or DTOs.
+// The compact encoding drops the ApiResponse envelope and uses short keys and positional arrays:
+//   {"v":"v0.1","p":[home,draw,away],"s":[["2-1",0.088],...],"o":"homeWin","c":0.57,"x":[["homeForm",0.2],...]}
+public class PredictionJson {
+    
+    public static void writeResponse(JsonGenerator generator, AppMessages message, PredictionResult result, 
+                                     ResponseProjection projection, boolean compact) throws IOException {
+        if (compact) {
+            writePrediction(generator, result, projection, true);
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeStringField("code", message.getCode());
+        generator.writeStringField("message", message.getMessage());
+        generator.writeFieldName("data");
+        writePrediction(generator, result, projection, false);
+        generator.writeEndObject();
+    }
+    
+    public static void writeBatchResponse(JsonGenerator generator, AppMessages message, List<BatchPredictionResult> items, 
+                                          ResponseProjection projection, boolean compact) throws IOException {
+        if (!compact) {
+            generator.writeStartObject();
+            generator.writeStringField("code", message.getCode());
+            generator.writeStringField("message", message.getMessage());
+            generator.writeFieldName("data");
+        }
+        generator.writeStartArray();
+        for (BatchPredictionResult item : items) {
+            writeBatchItem(generator, item, projection, compact);
+        }
+        generator.writeEndArray();
+        if (!compact) {
+            generator.writeEndObject();
+        }
+    }
+    
+    // Compact items carry the code and the prediction; the message is only kept for failed items
+    public static void writeBatchItem(JsonGenerator generator, BatchPredictionResult item, 
+                                      ResponseProjection projection, boolean compact) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField(compact ? "i" : "index", item.getIndex());
+        generator.writeStringField(compact ? "k" : "code", item.getCode());
+        if (!compact || item.getPrediction() == null) {
+            generator.writeStringField(compact ? "m" : "message", item.getMessage());
+        }
+        if (item.getPrediction() != null) {
+            generator.writeFieldName(compact ? "r" : "prediction");
+            writePrediction(generator, item.getPrediction(), projection, compact);
+        } else if (!compact) {
+            generator.writeNullField("prediction");
+        }
+        generator.writeEndObject();
+    }
+    
+    public static void writePrediction(JsonGenerator generator, PredictionResult result, 
+                                       ResponseProjection projection, boolean compact) throws IOException {
+        PredictionResult.ProbabilityOutcome probabilities = result.getProbabilities();
+        generator.writeStartObject();
+        
+        if (compact) {
+            generator.writeStringField("v", result.getModelVersion());
+            generator.writeFieldName("p");
+            generator.writeArray(new double[] {
+                    probabilities.getHomeWin(), probabilities.getDraw(), probabilities.getAwayWin()
+            }, 0, 3);
+        } else {
+            generator.writeObjectFieldStart("probabilities");
+            generator.writeNumberField("homeWin", probabilities.getHomeWin());
+            generator.writeNumberField("draw", probabilities.getDraw());
+            generator.writeNumberField("awayWin", probabilities.getAwayWin());
+            generator.writeEndObject();
+        }
+        
+        if (projection != ResponseProjection.MINIMAL && result.getTopScores() != null) {
+            generator.writeArrayFieldStart(compact ? "s" : "topScores");
+            for (ScorePrediction score : result.getTopScores()) {
+                if (compact) {
+                    generator.writeStartArray();
+                    generator.writeString(score.getScore());
+                    generator.writeNumber(score.getProb());
+                    generator.writeEndArray();
+                } else {
+                    generator.writeStartObject();
+                    generator.writeStringField("score", score.getScore());
+                    generator.writeNumberField("prob", score.getProb());
+                    generator.writeEndObject();
+                }
+            }
+            generator.writeEndArray();
+        }
+        
+        if (projection == ResponseProjection.FULL) {
+            if (result.getPrediction() != null) {
+                if (compact) {
+                    generator.writeStringField("o", result.getPrediction().getOutcome());
+                    generator.writeNumberField("c", result.getPrediction().getConfidence());
+                } else {
+                    generator.writeObjectFieldStart("prediction");
+                    generator.writeStringField("outcome", result.getPrediction().getOutcome());
+                    generator.writeNumberField("confidence", result.getPrediction().getConfidence());
+                    generator.writeEndObject();
+                }
+            }
+            if (result.getExplain() != null) {
+                generator.writeArrayFieldStart(compact ? "x" : "explain");
+                for (PredictionResult.FeatureImportance importance : result.getExplain()) {
+                    if (compact) {
+                        generator.writeStartArray();
+                        generator.writeString(importance.getFeature());
+                        generator.writeNumber(importance.getImpact());
+                        generator.writeEndArray();
+                    } else {
+                        generator.writeStartObject();
+                        generator.writeStringField("feature", importance.getFeature());
+                        generator.writeNumberField("impact", importance.getImpact());
+                        generator.writeEndObject();
+                    }
+                }
+                generator.writeEndArray();
+            }
+        }
+        
+        if (!compact) {
+            generator.writeStringField("modelVersion", result.getModelVersion());
+        }
+        generator.writeEndObject();
+    }
+}
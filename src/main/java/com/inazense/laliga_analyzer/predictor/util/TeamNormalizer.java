@@ -5,32 +5,41 @@ import java.util.Map;
 
 public class TeamNormalizer {
     
-    private static final Map<String, String> TEAM_NAME_MAPPINGS = new HashMap<>();
+    // Mappings are scoped by country, taken from the division code without its tier number (SP1 -> SP,
+    // E0 -> E, I1 -> I), so a short name like "Racing" only resolves within its own country's leagues
+    private static final Map<String, Map<String, String>> TEAM_NAME_MAPPINGS = new HashMap<>();
     
     static {
-        // Common variations of team names
-        TEAM_NAME_MAPPINGS.put("Ath Bilbao", "Athletic Bilbao");
-        TEAM_NAME_MAPPINGS.put("Ath Madrid", "Atletico Madrid");
-        TEAM_NAME_MAPPINGS.put("Atletico", "Atletico Madrid");
-        TEAM_NAME_MAPPINGS.put("Atl Madrid", "Atletico Madrid");
-        TEAM_NAME_MAPPINGS.put("Espanol", "Espanyol");
-        TEAM_NAME_MAPPINGS.put("La Coruna", "Deportivo La Coruna");
-        TEAM_NAME_MAPPINGS.put("Deportivo", "Deportivo La Coruna");
-        TEAM_NAME_MAPPINGS.put("Vallecano", "Rayo Vallecano");
-        TEAM_NAME_MAPPINGS.put("Sociedad", "Real Sociedad");
-        TEAM_NAME_MAPPINGS.put("Sp Gijon", "Sporting Gijon");
-        TEAM_NAME_MAPPINGS.put("Betis", "Real Betis");
-        TEAM_NAME_MAPPINGS.put("Santander", "Racing Santander");
-        TEAM_NAME_MAPPINGS.put("Racing", "Racing Santander");
-        TEAM_NAME_MAPPINGS.put("Sevilla FC", "Sevilla");
-        TEAM_NAME_MAPPINGS.put("Granada CF", "Granada");
-        TEAM_NAME_MAPPINGS.put("Cadiz CF", "Cadiz");
-        TEAM_NAME_MAPPINGS.put("Leganes", "CD Leganes");
-        TEAM_NAME_MAPPINGS.put("Almeria", "UD Almeria");
-        TEAM_NAME_MAPPINGS.put("Alaves", "Deportivo Alaves");
+        // Common variations of Spanish team names
+        Map<String, String> spain = new HashMap<>();
+        spain.put("Ath Bilbao", "Athletic Bilbao");
+        spain.put("Ath Madrid", "Atletico Madrid");
+        spain.put("Atletico", "Atletico Madrid");
+        spain.put("Atl Madrid", "Atletico Madrid");
+        spain.put("Espanol", "Espanyol");
+        spain.put("La Coruna", "Deportivo La Coruna");
+        spain.put("Deportivo", "Deportivo La Coruna");
+        spain.put("Vallecano", "Rayo Vallecano");
+        spain.put("Sociedad", "Real Sociedad");
+        spain.put("Sp Gijon", "Sporting Gijon");
+        spain.put("Betis", "Real Betis");
+        spain.put("Santander", "Racing Santander");
+        spain.put("Racing", "Racing Santander");
+        spain.put("Sevilla FC", "Sevilla");
+        spain.put("Granada CF", "Granada");
+        spain.put("Cadiz CF", "Cadiz");
+        spain.put("Leganes", "CD Leganes");
+        spain.put("Almeria", "UD Almeria");
+        spain.put("Alaves", "Deportivo Alaves");
+        TEAM_NAME_MAPPINGS.put("SP", spain);
+        
+        // Older English seasons spell some clubs differently from recent ones
+        Map<String, String> england = new HashMap<>();
+        england.put("Middlesboro", "Middlesbrough");
+        TEAM_NAME_MAPPINGS.put("E", england);
     }
     
-    public static String normalize(String teamName) {
+    public static String normalize(String division, String teamName) {
         if (teamName == null) {
             return null;
         }
@@ -38,11 +47,24 @@ public class TeamNormalizer {
         // Trim whitespace
         String normalized = teamName.trim();
         
-        // Check if there's a mapping
-        if (TEAM_NAME_MAPPINGS.containsKey(normalized)) {
-            normalized = TEAM_NAME_MAPPINGS.get(normalized);
+        // Check if there's a mapping for the division's country
+        Map<String, String> mappings = TEAM_NAME_MAPPINGS.get(country(division));
+        if (mappings != null && mappings.containsKey(normalized)) {
+            normalized = mappings.get(normalized);
         }
         
         return normalized;
     }
+    
+    private static String country(String division) {
+        if (division == null) {
+            return null;
+        }
+        String code = division.trim();
+        int end = code.length();
+        while (end > 0 && Character.isDigit(code.charAt(end - 1))) {
+            end--;
+        }
+        return code.substring(0, end);
+    }
 }
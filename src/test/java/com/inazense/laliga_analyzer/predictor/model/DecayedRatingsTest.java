@@ -0,0 +1,130 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import org.junit.jupiter.api.Test;
+
+import static com.inazense.laliga_analyzer.predictor.model.Matches.played;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DecayedRatingsTest {
+    
+    private static final double HALF_LIFE_DAYS = 10;
+    private static final double EPSILON = 1e-12;
+    
+    @Test
+    void matchWeightHalvesEveryHalfLife() {
+        DecayedRatings ratings = new DecayedRatings(HALF_LIFE_DAYS);
+        ratings.add(played(100, "Barcelona", "Sevilla", 2, 0));
+        int team = ratings.indexOf("Barcelona", 101);
+        
+        assertThat(ratings.effectiveMatches(team, 100)).isZero();
+        assertThat(ratings.effectiveMatches(team, 110)).isCloseTo(0.5, within(EPSILON));
+        assertThat(ratings.effectiveMatches(team, 120)).isCloseTo(0.25, within(EPSILON));
+    }
+    
+    @Test
+    void olderGoalsWeighLess() {
+        DecayedRatings ratings = new DecayedRatings(HALF_LIFE_DAYS);
+        ratings.add(played(100, "Barcelona", "Sevilla", 3, 0));
+        ratings.add(played(110, "Barcelona", "Sevilla", 0, 0));
+        int team = ratings.indexOf("Barcelona", 111);
+        
+        // Weights 0.5 and 1 at day 110: (3 * 0.5 + 0) / 1.5 goals per match, over a league average of
+        // (3 * 0.5 + 0) / (2 * 1.5)
+        assertThat(ratings.effectiveMatches(team, 111)).isCloseTo(1.5 * Math.pow(0.5, 0.1), within(EPSILON));
+        assertThat(ratings.leagueAvgGoals(111)).isCloseTo(0.5, within(EPSILON));
+        assertThat(ratings.attackStrength(team, 111)).isCloseTo(2.0, within(EPSILON));
+        assertThat(ratings.defenseStrength(ratings.indexOf("Sevilla", 111), 111)).isCloseTo(2.0, within(EPSILON));
+    }
+    
+    @Test
+    void pointInTimeQueriesOnlySeeEarlierMatches() {
+        DecayedRatings ratings = new DecayedRatings(HALF_LIFE_DAYS);
+        ratings.add(played(100, "Barcelona", "Sevilla", 1, 1));
+        ratings.add(played(110, "Barcelona", "Sevilla", 5, 0));
+        
+        assertThat(ratings.indexOf("Barcelona", 100)).isEqualTo(-1);
+        int team = ratings.indexOf("Barcelona", 101);
+        assertThat(ratings.attackStrength(team, 110)).isCloseTo(1.0, within(EPSILON));
+        assertThat(ratings.attackStrength(team, 111)).isGreaterThan(1.0);
+    }
+    
+    @Test
+    void lateResultMatchesChronologicalOrder() {
+        Match first = played(100, "Barcelona", "Sevilla", 2, 1);
+        Match late = played(105, "Sevilla", "Getafe", 0, 3);
+        Match last = played(110, "Getafe", "Barcelona", 1, 1);
+        
+        DecayedRatings chronological = new DecayedRatings(HALF_LIFE_DAYS);
+        chronological.add(first);
+        chronological.add(late);
+        chronological.add(last);
+        
+        DecayedRatings outOfOrder = new DecayedRatings(HALF_LIFE_DAYS);
+        outOfOrder.add(first);
+        outOfOrder.add(last);
+        outOfOrder.add(late);
+        
+        // Including dates between the late result and the latest entry
+        for (String team : new String[] {"Barcelona", "Sevilla", "Getafe"}) {
+            for (long day = 100; day <= 115; day++) {
+                int expected = chronological.indexOf(team, day);
+                assertThat(outOfOrder.indexOf(team, day)).isEqualTo(expected);
+                if (expected < 0) {
+                    continue;
+                }
+                int actual = outOfOrder.indexOf(team, day);
+                assertThat(outOfOrder.effectiveMatches(actual, day))
+                        .isCloseTo(chronological.effectiveMatches(expected, day), within(EPSILON));
+                assertThat(outOfOrder.attackStrength(actual, day))
+                        .isCloseTo(chronological.attackStrength(expected, day), within(EPSILON));
+                assertThat(outOfOrder.defenseStrength(actual, day))
+                        .isCloseTo(chronological.defenseStrength(expected, day), within(EPSILON));
+            }
+        }
+    }
+    
+    @Test
+    void copiesShareHistoryWithoutSeeingEachOthersResults() {
+        Match first = played(100, "Barcelona", "Sevilla", 2, 1);
+        Match second = played(110, "Barcelona", "Sevilla", 0, 1);
+        Match next = played(120, "Sevilla", "Barcelona", 4, 0);
+        Match late = played(105, "Sevilla", "Barcelona", 4, 0);
+        Match other = played(115, "Barcelona", "Sevilla", 1, 1);
+        DecayedRatings ratings = built(first, second);
+        DecayedRatings before = ratings.copy();
+        
+        // One copy appends in place, the other inserts a late result and has to copy the shared entries
+        DecayedRatings appended = ratings.copy();
+        appended.add(next);
+        DecayedRatings inserted = ratings.copy();
+        inserted.add(late);
+        ratings.add(other);
+        
+        assertSameStrengths(before, built(first, second));
+        assertSameStrengths(appended, built(first, second, next));
+        assertSameStrengths(inserted, built(first, late, second));
+        assertSameStrengths(ratings, built(first, second, other));
+    }
+    
+    private static DecayedRatings built(Match... matches) {
+        DecayedRatings ratings = new DecayedRatings(HALF_LIFE_DAYS);
+        for (Match match : matches) {
+            ratings.add(match);
+        }
+        return ratings;
+    }
+    
+    private static void assertSameStrengths(DecayedRatings actual, DecayedRatings expected) {
+        for (long day = 100; day <= 130; day++) {
+            for (String team : new String[] {"Barcelona", "Sevilla"}) {
+                int index = expected.indexOf(team, day);
+                assertThat(actual.indexOf(team, day)).isEqualTo(index);
+                if (index >= 0) {
+                    assertThat(actual.attackStrength(index, day)).isCloseTo(expected.attackStrength(index, day), within(EPSILON));
+                    assertThat(actual.effectiveMatches(index, day)).isCloseTo(expected.effectiveMatches(index, day), within(EPSILON));
+                }
+            }
+        }
+    }
+}
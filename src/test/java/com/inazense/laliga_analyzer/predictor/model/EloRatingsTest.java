@@ -0,0 +1,190 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static com.inazense.laliga_analyzer.predictor.model.Matches.played;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EloRatingsTest {
+    
+    private static final double K_FACTOR = 20;
+    private static final double HOME_ADVANTAGE = 100;
+    private static final double GOAL_SCALE = 1200;
+    private static final double EPSILON = 1e-9;
+    
+    // Expected home score between equal ratings: 1 / (1 + 10^(-100 / 400))
+    private static final double EXPECTED_HOME = 1.0 / (1.0 + Math.pow(10, -0.25));
+    
+    private static EloRatings ratings(double seasonRegression) {
+        return new EloRatings(K_FACTOR, HOME_ADVANTAGE, GOAL_SCALE, seasonRegression);
+    }
+    
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+    
+    @Test
+    void winMovesBothTeamsByTheSameStep() {
+        EloRatings ratings = ratings(0);
+        ratings.add(played("2020-09-12", "Barcelona", "Sevilla", 1, 0));
+        long after = day("2020-09-13");
+        
+        double change = K_FACTOR * (1 - EXPECTED_HOME);
+        assertThat(ratings.ratingOf("Barcelona", after)).isCloseTo(1500 + change, within(EPSILON));
+        assertThat(ratings.ratingOf("Sevilla", after)).isCloseTo(1500 - change, within(EPSILON));
+    }
+    
+    @Test
+    void drawAndMarginScaleTheStep() {
+        EloRatings ratings = ratings(0);
+        ratings.add(played("2020-09-12", "Barcelona", "Sevilla", 0, 0));
+        ratings.add(played("2020-09-12", "Getafe", "Osasuna", 2, 0));
+        ratings.add(played("2020-09-12", "Villarreal", "Eibar", 0, 5));
+        long after = day("2020-09-13");
+        
+        // A draw still costs the home side, which was expected to win; two goals count 1.5 times, five (11 + 5) / 8
+        assertThat(ratings.ratingOf("Barcelona", after)).isCloseTo(1500 + K_FACTOR * (0.5 - EXPECTED_HOME), within(EPSILON));
+        assertThat(ratings.ratingOf("Getafe", after)).isCloseTo(1500 + 1.5 * K_FACTOR * (1 - EXPECTED_HOME), within(EPSILON));
+        assertThat(ratings.ratingOf("Villarreal", after)).isCloseTo(1500 - 2.0 * K_FACTOR * EXPECTED_HOME, within(EPSILON));
+    }
+    
+    @Test
+    void strengthsSplitTheRatingGapOverGoalScale() {
+        EloRatings ratings = ratings(0);
+        ratings.add(played("2020-09-12", "Barcelona", "Sevilla", 4, 0));
+        long after = day("2020-09-13");
+        int home = ratings.indexOf("Barcelona", after);
+        int away = ratings.indexOf("Sevilla", after);
+        
+        double gap = ratings.rating(home, after) - ratings.rating(away, after);
+        assertThat(ratings.attackStrength(home, after) * ratings.defenseStrength(away, after))
+                .isCloseTo(Math.pow(10, gap / (2 * GOAL_SCALE)), within(EPSILON));
+        assertThat(ratings.homeAdvantageFactor()).isCloseTo(Math.pow(10, HOME_ADVANTAGE / (2 * GOAL_SCALE)), within(EPSILON));
+    }
+    
+    @Test
+    void sameDayMatchesChainInTheOrderAdded() {
+        EloRatings ratings = ratings(0);
+        ratings.add(played("2020-09-12", "Barcelona", "Sevilla", 1, 0));
+        double afterFirst = 1500 + K_FACTOR * (1 - EXPECTED_HOME);
+        ratings.add(played("2020-09-12", "Getafe", "Barcelona", 1, 0));
+        
+        // The second match starts from the first one's rating, and both show up from the next day on only
+        double expectedAway = 1.0 / (1.0 + Math.pow(10, (1500 - afterFirst + HOME_ADVANTAGE) / 400));
+        double afterSecond = afterFirst - K_FACTOR * expectedAway;
+        assertThat(ratings.ratingOf("Barcelona", day("2020-09-12"))).isNull();
+        assertThat(ratings.ratingOf("Barcelona", day("2020-09-13"))).isCloseTo(afterSecond, within(EPSILON));
+    }
+    
+    @Test
+    void lateResultIsRatedAtItsOwnDate() {
+        Match first = played("2020-09-12", "Barcelona", "Sevilla", 1, 0);
+        Match late = played("2020-09-19", "Osasuna", "Barcelona", 3, 0);
+        Match last = played("2020-09-26", "Barcelona", "Getafe", 0, 0);
+        
+        EloRatings chronological = ratings(0);
+        chronological.add(first);
+        chronological.add(late);
+        chronological.add(last);
+        
+        // Reported after the 26th for a match on the 19th
+        EloRatings outOfOrder = ratings(0);
+        outOfOrder.add(first);
+        outOfOrder.add(last);
+        double latest = outOfOrder.ratingOf("Barcelona", day("2020-09-27"));
+        outOfOrder.add(late);
+        
+        // Up to the next match, and for the league average on any day, it is as if it had come in on time
+        for (long day = day("2020-09-12"); day <= day("2020-09-30"); day++) {
+            assertThat(outOfOrder.leagueAvgGoals(day)).isCloseTo(chronological.leagueAvgGoals(day), within(EPSILON));
+            if (day <= day("2020-09-26")) {
+                assertThat(outOfOrder.ratingOf("Barcelona", day)).isEqualTo(chronological.ratingOf("Barcelona", day));
+                assertThat(outOfOrder.ratingOf("Osasuna", day)).isEqualTo(chronological.ratingOf("Osasuna", day));
+            }
+        }
+        
+        // The later match keeps its own change; the late one's is added on top of it
+        double lateChange = chronological.ratingOf("Barcelona", day("2020-09-20")) 
+                - chronological.ratingOf("Barcelona", day("2020-09-13"));
+        assertThat(lateChange).isNegative();
+        assertThat(outOfOrder.ratingOf("Barcelona", day("2020-09-27"))).isCloseTo(latest + lateChange, within(EPSILON));
+    }
+    
+    @Test
+    void lateChangeIsRegressedIntoLaterSeasons() {
+        EloRatings ratings = ratings(0.5);
+        ratings.add(played("2020-05-02", "Barcelona", "Sevilla", 1, 1));
+        ratings.add(played("2020-09-12", "Barcelona", "Getafe", 0, 0));
+        double latest = ratings.ratingOf("Barcelona", day("2020-09-13"));
+        
+        ratings.add(played("2020-06-20", "Barcelona", "Osasuna", 2, 0));
+        double lateChange = ratings.ratingOf("Barcelona", day("2020-06-21")) 
+                - ratings.ratingOf("Barcelona", day("2020-06-20"));
+        assertThat(lateChange).isPositive();
+        assertThat(ratings.ratingOf("Barcelona", day("2020-09-13"))).isCloseTo(latest + lateChange / 2, within(EPSILON));
+    }
+    
+    @Test
+    void firstMatchOfASeasonStartsFromARegressedRating() {
+        EloRatings ratings = ratings(0.5);
+        ratings.add(played("2020-05-02", "Barcelona", "Sevilla", 1, 0));
+        double edge = K_FACTOR * (1 - EXPECTED_HOME);
+        
+        // Ratings only regress when the team plays again, so a model without new results keeps them
+        assertThat(ratings.ratingOf("Barcelona", day("2020-07-01"))).isCloseTo(1500 + edge, within(EPSILON));
+        
+        // Half the distance to 1500 is given up at the season boundary, then the draw is rated from there
+        ratings.add(played("2020-09-12", "Barcelona", "Getafe", 0, 0));
+        double expected = 1.0 / (1.0 + Math.pow(10, -(edge / 2 + HOME_ADVANTAGE) / 400));
+        assertThat(ratings.ratingOf("Barcelona", day("2020-09-13")))
+                .isCloseTo(1500 + edge / 2 + K_FACTOR * (0.5 - expected), within(EPSILON));
+        
+        // Sevilla last played in 2019-20 and Getafe in 2020-21: three and two boundaries
+        ratings.add(played("2022-08-20", "Getafe", "Sevilla", 0, 0));
+        double getafe = 1500 + (ratings.ratingOf("Getafe", day("2022-08-20")) - 1500) / 4;
+        double sevilla = 1500 - edge / 8;
+        double expectedGetafe = 1.0 / (1.0 + Math.pow(10, -(getafe - sevilla + HOME_ADVANTAGE) / 400));
+        assertThat(ratings.ratingOf("Sevilla", day("2022-08-21")))
+                .isCloseTo(sevilla - K_FACTOR * (0.5 - expectedGetafe), within(EPSILON));
+    }
+    
+    @Test
+    void leagueAverageComesFromTheRatedMatches() {
+        EloRatings ratings = ratings(0);
+        ratings.add(played("2020-09-12", "Barcelona", "Sevilla", 2, 1));
+        ratings.add(played("2020-09-19", "Getafe", "Osasuna", 0, 0));
+        
+        assertThat(ratings.leagueAvgGoals(day("2020-09-12"))).isZero();
+        assertThat(ratings.leagueAvgGoals(day("2020-09-13"))).isCloseTo(1.5, within(EPSILON));
+        assertThat(ratings.leagueAvgGoals(day("2020-09-20"))).isCloseTo(0.75, within(EPSILON));
+        assertThat(ratings.copy().leagueAvgGoals(Long.MAX_VALUE)).isCloseTo(0.75, within(EPSILON));
+    }
+    
+    @Test
+    void copiesShareHistoryWithoutSeeingEachOthersResults() {
+        EloRatings ratings = ratings(0);
+        ratings.add(played("2020-09-12", "Barcelona", "Sevilla", 2, 1));
+        double barcelona = ratings.ratingOf("Barcelona", day("2020-09-13"));
+        
+        EloRatings appended = ratings.copy();
+        appended.add(played("2020-09-19", "Sevilla", "Barcelona", 3, 0));
+        EloRatings inserted = ratings.copy();
+        inserted.add(played("2020-09-05", "Sevilla", "Barcelona", 3, 0));
+        ratings.add(played("2020-09-19", "Barcelona", "Sevilla", 1, 1));
+        
+        assertThat(appended.ratingOf("Barcelona", day("2020-09-13"))).isCloseTo(barcelona, within(EPSILON));
+        assertThat(appended.ratingOf("Barcelona", day("2020-09-20"))).isLessThan(barcelona);
+        assertThat(inserted.ratingOf("Barcelona", day("2020-09-13"))).isLessThan(barcelona);
+        assertThat(inserted.ratingOf("Barcelona", day("2020-09-20"))).isCloseTo(
+                inserted.ratingOf("Barcelona", day("2020-09-13")), within(EPSILON));
+        assertThat(ratings.ratingOf("Barcelona", day("2020-09-20"))).isCloseTo(barcelona + K_FACTOR * (0.5 - 
+                1.0 / (1.0 + Math.pow(10, -(barcelona - ratings.ratingOf("Sevilla", day("2020-09-13")) + HOME_ADVANTAGE) / 400))), 
+                within(EPSILON));
+        assertThat(ratings.leagueAvgGoals(day("2020-09-20"))).isCloseTo(1.25, within(EPSILON));
+        assertThat(appended.leagueAvgGoals(day("2020-09-20"))).isCloseTo(1.5, within(EPSILON));
+        assertThat(inserted.leagueAvgGoals(day("2020-09-13"))).isCloseTo(1.5, within(EPSILON));
+    }
+}
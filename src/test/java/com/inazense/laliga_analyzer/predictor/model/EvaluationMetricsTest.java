@@ -0,0 +1,150 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EvaluationMetricsTest {
+    
+    private static final double TOLERANCE = 1e-12;
+    
+    // {homeWin, draw, awayWin, predicted, actual}
+    private static final double[][] TWO_PREDICTIONS = {
+            {0.7, 0.2, 0.1, 0, 0},
+            {0.5, 0.3, 0.2, 0, 2}
+    };
+    
+    @Test
+    void scoresMatchHandComputedValues() {
+        EvaluationMetrics metrics = of(TWO_PREDICTIONS);
+        
+        assertThat(metrics.getTotal()).isEqualTo(2);
+        assertThat(metrics.accuracy()).isCloseTo(0.5, within(TOLERANCE));
+        // (0.09 + 0.04 + 0.01) + (0.25 + 0.09 + 0.64), over 3 classes and 2 matches
+        assertThat(metrics.brierScore()).isCloseTo(1.12 / 6, within(TOLERANCE));
+        assertThat(metrics.logLoss()).isCloseTo((-Math.log(0.7) - Math.log(0.2)) / 2, within(TOLERANCE));
+        // Cumulative differences (-0.3, -0.1) for the home win and (0.5, 0.8) for the away win
+        assertThat(metrics.rankedProbabilityScore()).isCloseTo((0.05 + 0.445) / 2, within(TOLERANCE));
+        // Half the matches at confidence 0.7 all hit, half at 0.5 all missed
+        assertThat(metrics.expectedCalibrationError()).isCloseTo(0.5 * 0.3 + 0.5 * 0.5, within(TOLERANCE));
+    }
+    
+    @Test
+    void rankedProbabilityScorePenalisesDistantMissesMore() {
+        EvaluationMetrics drawPredicted = of(new double[][] {{0.0, 1.0, 0.0, 1, 2}});
+        EvaluationMetrics homePredicted = of(new double[][] {{1.0, 0.0, 0.0, 0, 2}});
+        
+        assertThat(drawPredicted.rankedProbabilityScore()).isCloseTo(0.5, within(TOLERANCE));
+        assertThat(homePredicted.rankedProbabilityScore()).isCloseTo(1.0, within(TOLERANCE));
+    }
+    
+    @Test
+    void logLossIsBoundedForZeroProbabilityOutcomes() {
+        EvaluationMetrics metrics = of(new double[][] {{1.0, 0.0, 0.0, 0, 1}});
+        
+        assertThat(metrics.logLoss()).isCloseTo(-Math.log(1e-15), within(TOLERANCE));
+        @SuppressWarnings("unchecked")
+        Map<String, Double> byOutcome = (Map<String, Double>) metrics.toMap().get("logLossByOutcome");
+        assertThat(byOutcome).containsEntry("H", 0.0).containsEntry("A", 0.0);
+        assertThat(byOutcome.get("D")).isCloseTo(-Math.log(1e-15), within(TOLERANCE));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void reliabilityBinsCountPredictionsAndHitsPerOutcome() {
+        Map<String, List<Map<String, Object>>> reliability =
+                (Map<String, List<Map<String, Object>>>) of(TWO_PREDICTIONS).toMap().get("reliability");
+        
+        List<Map<String, Object>> home = reliability.get("H");
+        assertThat(home).hasSize(2);
+        assertThat(home.get(0)).containsEntry("lower", 0.5).containsEntry("upper", 0.6)
+                .containsEntry("count", 1).containsEntry("observedFrequency", 0.0);
+        assertThat((double) home.get(0).get("meanPredicted")).isCloseTo(0.5, within(TOLERANCE));
+        assertThat(home.get(1)).containsEntry("lower", 0.7).containsEntry("count", 1)
+                .containsEntry("observedFrequency", 1.0);
+        
+        List<Map<String, Object>> away = reliability.get("A");
+        assertThat(away).extracting(bin -> bin.get("lower")).containsExactly(0.1, 0.2);
+        assertThat(away).extracting(bin -> bin.get("observedFrequency")).containsExactly(0.0, 1.0);
+        
+        // A certain prediction falls in the top bin rather than past it
+        List<Map<String, Object>> certain =
+                ((Map<String, List<Map<String, Object>>>) of(new double[][] {{1.0, 0.0, 0.0, 0, 0}})
+                        .toMap().get("reliability")).get("H");
+        assertThat(certain).singleElement().satisfies(bin -> assertThat(bin).containsEntry("lower", 0.9));
+    }
+    
+    @Test
+    void mergeIsAssociativeAndMatchesOneAccumulator() {
+        double[][] predictions = randomPredictions(300, 42);
+        double[][] a = Arrays.copyOfRange(predictions, 0, 100);
+        double[][] b = Arrays.copyOfRange(predictions, 100, 170);
+        double[][] c = Arrays.copyOfRange(predictions, 170, 300);
+        
+        EvaluationMetrics left = of(a).merge(of(b)).merge(of(c));
+        EvaluationMetrics right = of(a).merge(of(b).merge(of(c)));
+        EvaluationMetrics single = of(predictions);
+        
+        for (EvaluationMetrics merged : List.of(left, right)) {
+            assertSameMetrics(merged, single);
+        }
+    }
+    
+    @Test
+    void emptyMetricsLeaveScoresOut() {
+        EvaluationMetrics metrics = new EvaluationMetrics().merge(new EvaluationMetrics());
+        
+        assertThat(metrics.isEmpty()).isTrue();
+        Map<String, Object> map = metrics.toMap();
+        assertThat(map).doesNotContainKeys("accuracy", "brierScore", "logLoss",
+                "rankedProbabilityScore", "expectedCalibrationError");
+        assertThat(map).containsEntry("totalPredictions", 0).containsEntry("correctPredictions", 0);
+        assertThat(map.toString()).doesNotContain("NaN");
+    }
+    
+    private static void assertSameMetrics(EvaluationMetrics actual, EvaluationMetrics expected) {
+        assertThat(actual.getTotal()).isEqualTo(expected.getTotal());
+        assertThat(actual.accuracy()).isEqualTo(expected.accuracy());
+        assertThat(actual.brierScore()).isCloseTo(expected.brierScore(), within(TOLERANCE));
+        assertThat(actual.logLoss()).isCloseTo(expected.logLoss(), within(TOLERANCE));
+        assertThat(actual.rankedProbabilityScore()).isCloseTo(expected.rankedProbabilityScore(), within(TOLERANCE));
+        assertThat(actual.expectedCalibrationError())
+                .isCloseTo(expected.expectedCalibrationError(), within(TOLERANCE));
+        
+        Map<String, Object> actualMap = actual.toMap();
+        Map<String, Object> expectedMap = expected.toMap();
+        assertThat(actualMap.get("confusionMatrix")).isEqualTo(expectedMap.get("confusionMatrix"));
+        assertThat(actualMap.get("reliability")).usingRecursiveComparison()
+                .withComparatorForType((x, y) -> Math.abs(x - y) <= TOLERANCE ? 0 : Double.compare(x, y), Double.class)
+                .isEqualTo(expectedMap.get("reliability"));
+    }
+    
+    private static EvaluationMetrics of(double[][] predictions) {
+        EvaluationMetrics metrics = new EvaluationMetrics();
+        for (double[] p : predictions) {
+            metrics.accept(p[0], p[1], p[2], (int) p[3], (int) p[4]);
+        }
+        return metrics;
+    }
+    
+    private static double[][] randomPredictions(int count, long seed) {
+        Random random = new Random(seed);
+        double[][] predictions = new double[count][];
+        for (int i = 0; i < count; i++) {
+            double home = random.nextDouble();
+            double draw = random.nextDouble();
+            double away = random.nextDouble();
+            double sum = home + draw + away;
+            double[] p = {home / sum, draw / sum, away / sum};
+            int predicted = p[0] >= p[1] && p[0] >= p[2] ? 0 : p[1] >= p[2] ? 1 : 2;
+            predictions[i] = new double[] {p[0], p[1], p[2], predicted, random.nextInt(3)};
+        }
+        return predictions;
+    }
+}
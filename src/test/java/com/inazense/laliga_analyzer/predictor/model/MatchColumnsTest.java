@@ -0,0 +1,109 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchColumnsTest {
+    
+    private static int addRow(MatchColumns columns, String row, int layout) {
+        byte[] data = row.getBytes(StandardCharsets.UTF_8);
+        return columns.addRow(data, 0, data.length, layout);
+    }
+    
+    // Two seasons: the first has HS in cell 0 and no B365H, the second B365H in cell 0 and HS in cell 1
+    private static MatchColumns twoSeasons(int rowsPerSeason) {
+        MatchColumns columns = new MatchColumns();
+        int first = columns.addLayout(Map.of("HS", 0));
+        int second = columns.addLayout(Map.of("B365H", 0, "HS", 1));
+        for (int i = 0; i < rowsPerSeason; i++) {
+            addRow(columns, i + "\n", first);
+        }
+        for (int i = 0; i < rowsPerSeason; i++) {
+            addRow(columns, "1.5," + (100 + i) + "\n", second);
+        }
+        columns.trimToSize();
+        return columns;
+    }
+    
+    @Test
+    void columnsFollowEachRowsLayout() {
+        MatchColumns columns = twoSeasons(2);
+        
+        assertThat(columns.getColumnNames()).containsExactlyInAnyOrder("HS", "B365H");
+        assertThat(columns.getRowCount()).isEqualTo(4);
+        assertThat(columns.value(1, "HS")).isEqualTo(1.0);
+        assertThat(columns.value(3, "HS")).isEqualTo(101.0);
+        assertThat(columns.value(1, "B365H")).isNull();
+        assertThat(columns.value(3, "B365H")).isEqualTo(1.5);
+        assertThat(columns.value(0, "PSCH")).isNull();
+    }
+    
+    @Test
+    void missingCellsAndUnmappedRowsAreNull() {
+        MatchColumns columns = new MatchColumns();
+        int layout = columns.addLayout(Map.of("HS", 0, "AS", 1));
+        int empty = addRow(columns, ",0\n", layout);
+        int unmapped = addRow(columns, "7,8\n", -1);
+        
+        assertThat(columns.value(empty, "HS")).isNull();
+        assertThat(columns.value(empty, "AS")).isEqualTo(0.0);
+        assertThat(columns.value(unmapped, "HS")).isNull();
+    }
+    
+    @Test
+    void columnIsDecodedOnFirstReadOnly() {
+        MatchColumns columns = twoSeasons(2);
+        assertThat(columns.getDecodedColumnCount()).isZero();
+        
+        columns.value(0, "HS");
+        columns.value(3, "HS");
+        assertThat(columns.getDecodedColumnCount()).isEqualTo(1);
+        
+        // Unknown columns are never decoded
+        columns.value(0, "PSCH");
+        assertThat(columns.getDecodedColumnCount()).isEqualTo(1);
+        columns.decode("B365H");
+        assertThat(columns.getDecodedColumnCount()).isEqualTo(2);
+    }
+    
+    @Test
+    void concurrentFirstReadsSeeTheSameValues() throws Exception {
+        MatchColumns columns = twoSeasons(5_000);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Double>> sums = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                sums.add(executor.submit(() -> {
+                    start.await();
+                    double sum = 0;
+                    for (int row = 0; row < columns.getRowCount(); row++) {
+                        sum += columns.value(row, "HS");
+                    }
+                    return sum;
+                }));
+            }
+            start.countDown();
+            
+            // 0 + 1 + ... + 4999, then 100 + ... + 5099
+            double expected = 2 * (4_999.0 * 5_000 / 2) + 100.0 * 5_000;
+            for (Future<Double> sum : sums) {
+                assertThat(sum.get()).isEqualTo(expected);
+            }
+            assertThat(columns.getDecodedColumnCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
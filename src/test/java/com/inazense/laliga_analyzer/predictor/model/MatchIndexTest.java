@@ -0,0 +1,111 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.inazense.laliga_analyzer.predictor.model.Matches.played;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchIndexTest {
+    
+    private static final long DAY = LocalDate.of(2021, 1, 1).toEpochDay();
+    
+    private static MatchIndex index() {
+        // Out of date order on purpose; the index sorts by date and keeps file order within a day
+        return new MatchIndex(List.of(
+                played(DAY + 20, "Barcelona", "Sevilla", 1, 1),
+                played(DAY, "Barcelona", "Getafe", 2, 0),
+                played(DAY + 10, "Sevilla", "Barcelona", 0, 3),
+                played(DAY + 10, "Getafe", "Valencia", 1, 0),
+                Match.builder().homeTeam("Barcelona").awayTeam("Valencia").build()));
+    }
+    
+    private static List<Long> days(List<Match> matches) {
+        return matches.stream().map(match -> match.getDate().toEpochDay() - DAY).toList();
+    }
+    
+    @Test
+    void teamMatchesBeforeAreStrictAndInDateOrder() {
+        MatchIndex index = index();
+        
+        assertThat(days(index.teamMatchesBefore("Barcelona", LocalDate.ofEpochDay(DAY + 21)))).containsExactly(0L, 10L, 20L);
+        assertThat(days(index.teamMatchesBefore("Barcelona", LocalDate.ofEpochDay(DAY + 20)))).containsExactly(0L, 10L);
+        assertThat(index.teamMatchesBefore("Barcelona", LocalDate.ofEpochDay(DAY))).isEmpty();
+        assertThat(index.teamMatchesBefore("Osasuna", LocalDate.ofEpochDay(DAY + 30))).isEmpty();
+        // The match without a date is left out
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.lastDate()).isEqualTo(LocalDate.ofEpochDay(DAY + 20));
+        assertThat(index.teams()).containsExactlyInAnyOrder("Barcelona", "Sevilla", "Getafe", "Valencia");
+    }
+    
+    @Test
+    void headToHeadCoversBothVenues() {
+        MatchIndex index = index();
+        
+        List<Match> meetings = index.headToHeadBefore("Sevilla", "Barcelona", LocalDate.ofEpochDay(DAY + 30));
+        assertThat(meetings).extracting(Match::getHomeTeam).containsExactly("Sevilla", "Barcelona");
+        assertThat(index.headToHeadBefore("Barcelona", "Sevilla", LocalDate.ofEpochDay(DAY + 30))).isEqualTo(meetings);
+        assertThat(index.headToHeadBefore("Barcelona", "Valencia", LocalDate.ofEpochDay(DAY + 30))).isEmpty();
+    }
+    
+    @Test
+    void containsMatchesTheFixtureAndDay() {
+        MatchIndex index = index();
+        
+        assertThat(index.contains("Sevilla", "Barcelona", LocalDate.ofEpochDay(DAY + 10))).isTrue();
+        assertThat(index.contains("Barcelona", "Sevilla", LocalDate.ofEpochDay(DAY + 10))).isFalse();
+        assertThat(index.contains("Sevilla", "Barcelona", LocalDate.ofEpochDay(DAY + 11))).isFalse();
+        assertThat(index.contains("Osasuna", "Barcelona", LocalDate.ofEpochDay(DAY + 10))).isFalse();
+    }
+    
+    @Test
+    void withAddsAMatchAndLeavesTheSourceUnchanged() {
+        MatchIndex index = index();
+        MatchIndex next = index.with(played(DAY + 30, "Valencia", "Osasuna", 2, 2));
+        
+        assertThat(next.size()).isEqualTo(5);
+        assertThat(next.lastDate()).isEqualTo(LocalDate.ofEpochDay(DAY + 30));
+        assertThat(next.contains("Valencia", "Osasuna", LocalDate.ofEpochDay(DAY + 30))).isTrue();
+        assertThat(days(next.teamMatchesBefore("Valencia", LocalDate.ofEpochDay(DAY + 31)))).containsExactly(10L, 30L);
+        assertThat(next.teamMatchesBefore("Osasuna", LocalDate.ofEpochDay(DAY + 31))).hasSize(1);
+        // Lists of teams the match doesn't involve are shared as they were
+        assertThat(next.teamMatchesBefore("Barcelona", LocalDate.ofEpochDay(DAY + 31)))
+                .isEqualTo(index.teamMatchesBefore("Barcelona", LocalDate.ofEpochDay(DAY + 31)));
+        
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.lastDate()).isEqualTo(LocalDate.ofEpochDay(DAY + 20));
+        assertThat(index.contains("Valencia", "Osasuna", LocalDate.ofEpochDay(DAY + 30))).isFalse();
+        assertThat(index.teams()).doesNotContain("Osasuna");
+    }
+    
+    @Test
+    void lateResultLandsAtItsOwnDay() {
+        MatchIndex index = index();
+        Match late = played(DAY + 5, "Getafe", "Barcelona", 1, 2);
+        MatchIndex next = index.with(late);
+        
+        assertThat(days(next.teamMatchesBefore("Barcelona", LocalDate.ofEpochDay(DAY + 21)))).containsExactly(0L, 5L, 10L, 20L);
+        assertThat(next.teamMatchesBefore("Barcelona", LocalDate.ofEpochDay(DAY + 6))).last().isSameAs(late);
+        assertThat(days(next.teamMatchesBefore("Barcelona", LocalDate.ofEpochDay(DAY + 5)))).containsExactly(0L);
+        assertThat(next.headToHeadBefore("Barcelona", "Getafe", LocalDate.ofEpochDay(DAY + 30)))
+                .extracting(Match::getHomeTeam).containsExactly("Barcelona", "Getafe");
+        // An earlier date doesn't move the most recent one
+        assertThat(next.lastDate()).isEqualTo(LocalDate.ofEpochDay(DAY + 20));
+    }
+    
+    @Test
+    void sameDayResultGoesAfterTheDaysEarlierMatches() {
+        MatchIndex index = index();
+        Match sameDay = played(DAY + 10, "Valencia", "Sevilla", 0, 1);
+        MatchIndex next = index.with(sameDay);
+        
+        List<Match> sevilla = next.teamMatchesBefore("Sevilla", LocalDate.ofEpochDay(DAY + 11));
+        assertThat(sevilla).hasSize(2);
+        assertThat(sevilla.get(1)).isSameAs(sameDay);
+        assertThat(next.contains("Valencia", "Sevilla", LocalDate.ofEpochDay(DAY + 10))).isTrue();
+        assertThat(days(next.teamMatchesBefore("Valencia", LocalDate.ofEpochDay(DAY + 11)))).containsExactly(10L, 10L);
+        assertThat(next.teamMatchesBefore("Valencia", LocalDate.ofEpochDay(DAY + 11)).get(1)).isSameAs(sameDay);
+    }
+}
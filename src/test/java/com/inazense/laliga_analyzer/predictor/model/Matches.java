@@ -0,0 +1,27 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import java.time.LocalDate;
+
+// Played matches for the rating tests; the result letter follows from the score
+public class Matches {
+    
+    public static Match played(LocalDate date, String home, String away, int homeGoals, int awayGoals) {
+        return Match.builder()
+                .division("SP1")
+                .date(date)
+                .homeTeam(home)
+                .awayTeam(away)
+                .fullTimeHomeGoals(homeGoals)
+                .fullTimeAwayGoals(awayGoals)
+                .fullTimeResult(homeGoals > awayGoals ? "H" : homeGoals == awayGoals ? "D" : "A")
+                .build();
+    }
+    
+    public static Match played(String date, String home, String away, int homeGoals, int awayGoals) {
+        return played(LocalDate.parse(date), home, away, homeGoals, awayGoals);
+    }
+    
+    public static Match played(long epochDay, String home, String away, int homeGoals, int awayGoals) {
+        return played(LocalDate.ofEpochDay(epochDay), home, away, homeGoals, awayGoals);
+    }
+}
@@ -0,0 +1,39 @@
+package com.inazense.laliga_analyzer.predictor.model;
+
+import org.junit.jupiter.api.Test;
+
+import static com.inazense.laliga_analyzer.predictor.model.Matches.played;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamRatingsTest {
+    
+    @Test
+    void addCountsGoalsAndResults() {
+        TeamRatings ratings = new TeamRatings();
+        ratings.add(played("2024-01-01", "Barcelona", "Sevilla", 3, 1));
+        ratings.add(played("2024-01-08", "Sevilla", "Getafe", 0, 0));
+        
+        assertThat(ratings.getTotalMatches()).isEqualTo(2);
+        assertThat(ratings.leagueAvgGoals()).isEqualTo(1.0);
+        assertThat(ratings.homeWinRate()).isEqualTo(0.5);
+        TeamStats sevilla = ratings.toTeamStatsMap().get("Sevilla");
+        assertThat(sevilla.getMatchesPlayed()).isEqualTo(2);
+        assertThat(sevilla.getGoalsConceded()).isEqualTo(3);
+        assertThat(sevilla.getDraws()).isEqualTo(1);
+        assertThat(sevilla.getLosses()).isEqualTo(1);
+    }
+    
+    @Test
+    void copyIsIndependent() {
+        TeamRatings ratings = new TeamRatings();
+        ratings.add(played("2024-01-01", "Barcelona", "Sevilla", 3, 1));
+        
+        TeamRatings copy = ratings.copy();
+        copy.add(played("2024-01-08", "Sevilla", "Getafe", 0, 0));
+        
+        assertThat(ratings.getTotalMatches()).isEqualTo(1);
+        assertThat(ratings.indexOf("Getafe")).isEqualTo(-1);
+        assertThat(copy.getTotalMatches()).isEqualTo(2);
+        assertThat(copy.indexOf("Getafe")).isGreaterThanOrEqualTo(0);
+    }
+}
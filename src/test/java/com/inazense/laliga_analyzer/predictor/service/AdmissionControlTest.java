@@ -0,0 +1,52 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.util.Bulkhead;
+import com.inazense.laliga_analyzer.predictor.util.BulkheadFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControlTest {
+    
+    private final AdmissionControl admissionControl = new AdmissionControl();
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(admissionControl, "predictMaxConcurrent", 1);
+        ReflectionTestUtils.setField(admissionControl, "predictMaxQueue", 0);
+        ReflectionTestUtils.setField(admissionControl, "predictMaxWaitMillis", 0L);
+        ReflectionTestUtils.setField(admissionControl, "maintenanceMaxConcurrent", 1);
+        ReflectionTestUtils.setField(admissionControl, "maintenanceMaxQueue", 0);
+        ReflectionTestUtils.setField(admissionControl, "maintenanceMaxWaitMillis", 0L);
+        admissionControl.init();
+    }
+    
+    @Test
+    void fullMaintenanceLeavesPredictionsAdmitted() {
+        try (Bulkhead.Permit reload = admissionControl.maintenance().acquire()) {
+            assertThatThrownBy(() -> admissionControl.maintenance().acquire()).isInstanceOf(BulkheadFullException.class);
+            
+            try (Bulkhead.Permit prediction = admissionControl.predict().acquire()) {
+                assertThat(admissionControl.predict().getInUse()).isEqualTo(1);
+            }
+        }
+        assertThat(admissionControl.maintenance().getRejected()).isEqualTo(1);
+        assertThat(admissionControl.predict().getRejected()).isZero();
+    }
+    
+    @Test
+    void fullPredictLeavesMaintenanceAdmitted() {
+        try (Bulkhead.Permit prediction = admissionControl.predict().acquire()) {
+            assertThatThrownBy(() -> admissionControl.predict().acquire()).isInstanceOf(BulkheadFullException.class);
+            
+            try (Bulkhead.Permit reload = admissionControl.maintenance().acquire()) {
+                assertThat(admissionControl.maintenance().getInUse()).isEqualTo(1);
+            }
+        }
+        assertThat(admissionControl.predict().getName()).isEqualTo("predict");
+        assertThat(admissionControl.maintenance().getName()).isEqualTo("maintenance");
+    }
+}
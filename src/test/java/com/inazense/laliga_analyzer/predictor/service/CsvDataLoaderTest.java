@@ -0,0 +1,235 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.model.Match;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvDataLoaderTest {
+    
+    @TempDir
+    Path dir;
+    
+    private final CsvDataLoader loader = new CsvDataLoader(new PredictorMetrics(new SimpleMeterRegistry()));
+    
+    private Path csv(String content) throws IOException {
+        Path file = dir.resolve("data.csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+    
+    @Test
+    void readsAFileWithByteOrderMarkAndCrLf() throws IOException {
+        Path file = csv("\uFEFFDiv,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR,HS\r\n" 
+                + "SP1,12/09/20,Barcelona,Sevilla,2,1,H,14\r\n" 
+                + "SP1,13/09/2020,Getafe,Osasuna,0,0,D,\r\n");
+        
+        List<Match> matches = loader.loadMatches(file.toString(), "SP1");
+        
+        assertThat(matches).hasSize(2);
+        Match first = matches.get(0);
+        assertThat(first.getDivision()).isEqualTo("SP1");
+        assertThat(first.getDate()).isEqualTo(LocalDate.of(2020, 9, 12));
+        assertThat(first.getHomeTeam()).isEqualTo("Barcelona");
+        assertThat(first.getFullTimeHomeGoals()).isEqualTo(2);
+        assertThat(first.getFullTimeResult()).isEqualTo("H");
+        assertThat(first.value("HS")).isEqualTo(14.0);
+        assertThat(matches.get(1).getDate()).isEqualTo(LocalDate.of(2020, 9, 13));
+        assertThat(matches.get(1).value("HS")).isNull();
+    }
+    
+    @Test
+    void quotedTeamNamesAndOtherDivisions() throws IOException {
+        Path file = csv("Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR\n" 
+                + "SP1,12/09/20,\"Barcelona\",\"Ath \"\"B\"\"\",1,1,D\n" 
+                + "SP2,12/09/20,Zaragoza,Tenerife,1,0,H\n");
+        
+        List<Match> matches = loader.loadMatches(file.toString(), "SP1");
+        
+        assertThat(matches).hasSize(1);
+        assertThat(matches.get(0).getAwayTeam()).isEqualTo("Ath \"B\"");
+        assertThat(loader.loadMatches(file.toString())).hasSize(2);
+    }
+    
+    @Test
+    void sameMatchAtAnotherRowIsEqual() throws IOException {
+        Path file = csv("Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR\n"
+                + "SP2,12/09/20,Zaragoza,Tenerife,1,0,H\n"
+                + "SP1,12/09/20,Barcelona,Sevilla,2,1,H\n");
+        Match second = loader.loadMatches(file.toString()).get(1);
+        Match only = loader.loadMatches(file.toString(), "SP1").get(0);
+        
+        assertThat(second).isEqualTo(only).hasSameHashCodeAs(only);
+        assertThat(second.toString()).doesNotContain("row=");
+    }
+    
+    @Test
+    void everyHeaderRemapsTheRowsBelowIt() throws IOException {
+        Path file = csv("Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR,B365H\n" 
+                + "SP1,12/05/19,Barcelona,Sevilla,2,1,H,1.50\n" 
+                + "Div,Date,Time,HomeTeam,AwayTeam,FTHG,FTAG,FTR,HS,B365H\n" 
+                + "SP1,16/08/2019,20:00,Ath Bilbao,Barcelona,1,0,H,12,4.20\n");
+        
+        List<Match> matches = loader.loadMatches(file.toString(), "SP1");
+        
+        assertThat(matches).hasSize(2);
+        assertThat(matches.get(0).value("B365H")).isEqualTo(1.50);
+        assertThat(matches.get(0).value("HS")).isNull();
+        Match second = matches.get(1);
+        assertThat(second.getHomeTeam()).isEqualTo("Athletic Bilbao");
+        assertThat(second.getFullTimeHomeGoals()).isEqualTo(1);
+        assertThat(second.value("B365H")).isEqualTo(4.20);
+        assertThat(second.value("HS")).isEqualTo(12.0);
+    }
+    
+    @Test
+    void rowsThatDontFitTheirHeader() throws IOException {
+        Path file = csv("Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR,HS\n" 
+                + "SP1,12/05/19,Barcelona,Sevilla,2,1,H,14,1.50\n" 
+                + "SP1,16/08/2019,20:00,Ath Bilbao,Barcelona,1,0,H\n" 
+                + "SP1,20/08/2019,Getafe,Osasuna,,,,\n");
+        
+        List<Match> matches = loader.loadMatches(file.toString(), "SP1");
+        
+        // Wider: the result is kept but its statistics can't be trusted. Shifted: skipped. Not played: kept.
+        assertThat(matches).extracting(Match::getHomeTeam).containsExactly("Barcelona", "Getafe");
+        assertThat(matches.get(0).getFullTimeHomeGoals()).isEqualTo(2);
+        assertThat(matches.get(0).value("HS")).isNull();
+        assertThat(matches.get(1).getFullTimeHomeGoals()).isNull();
+    }
+    
+    @Test
+    void unterminatedQuoteFailsTheLoad() throws IOException {
+        Path file = csv("Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR\n" 
+                + "SP1,12/09/20,\"Barcelona,Sevilla,1,1,D\n");
+        
+        assertThatThrownBy(() -> loader.loadMatches(file.toString(), "SP1"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("row 2");
+    }
+    
+    @Test
+    void rowsThatCrossChunkBoundaries() throws IOException {
+        Path file = csv("Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR,HS\r\n" 
+                + "SP1,12/09/20,Barcelona,Sevilla,2,1,H,14\r\n" 
+                + "SP1,13/09/20,\"Real\nMadrid\",\"Ath \"\"B\"\"\",0,0,D,3\r\n" 
+                + "SP2,13/09/20,Zaragoza,Tenerife,1,0,H,7\r\n" 
+                + "SP1,19/09/20,Getafe,Osasuna,1,2,A,11");
+        List<Match> expected = loader.loadMatches(file.toString(), "SP1");
+        
+        // Every chunk size from one byte up puts a boundary inside a cell, a quoted line break, a doubled
+        // quote and a \r\n pair somewhere; a chunk smaller than a row grows to fit it
+        for (int chunkSize = 1; chunkSize <= 48; chunkSize++) {
+            loader.setChunkSize(chunkSize);
+            List<Match> matches = loader.loadMatches(file.toString(), "SP1");
+            
+            assertThat(matches).as("chunk size %d", chunkSize).isEqualTo(expected);
+            assertThat(matches).extracting(m -> m.value("HS")).as("chunk size %d", chunkSize)
+                    .containsExactly(14.0, 3.0, 11.0);
+        }
+        assertThat(expected).extracting(Match::getHomeTeam).containsExactly("Barcelona", "Real\nMadrid", "Getafe");
+        assertThat(expected.get(1).getAwayTeam()).isEqualTo("Ath \"B\"");
+    }
+    
+    @Test
+    void requestedColumnsAreDecodedUpFront() throws IOException {
+        Path file = csv("Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR,HS,AS\n" 
+                + "SP1,12/09/20,Barcelona,Sevilla,2,1,H,14,9\n");
+        
+        List<Match> matches = loader.loadMatches(file.toString(), "SP1", Set.of("HS"));
+        
+        assertThat(matches.get(0).getColumns().getDecodedColumnCount()).isEqualTo(1);
+        assertThat(matches.get(0).value("AS")).isEqualTo(9.0);
+        assertThat(matches.get(0).getColumns().getDecodedColumnCount()).isEqualTo(2);
+    }
+    
+    @Test
+    void fingerprintOnlyCoversTheDivisionsRows() throws IOException {
+        String header = "Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR\n";
+        String sp1 = "SP1,12/09/20,Barcelona,Sevilla,2,1,H\n";
+        String sp2 = "SP2,12/09/20,Zaragoza,Tenerife,1,0,H\n";
+        String fingerprint = fingerprint(header + sp1 + sp2, "SP1");
+        
+        // Other divisions' rows, blank lines and line breaks don't count
+        assertThat(fingerprint(header + sp1, "SP1")).isEqualTo(fingerprint);
+        assertThat(fingerprint(header + sp1 + sp2 + "\n" + sp2 + header + sp2, "SP1")).isEqualTo(fingerprint);
+        assertThat(fingerprint((header + sp1 + sp2).replace("\n", "\r\n"), "SP1")).isEqualTo(fingerprint);
+        
+        // The division's own rows, and the header they are read under, do
+        assertThat(fingerprint(header + sp1 + sp1, "SP1")).isNotEqualTo(fingerprint);
+        assertThat(fingerprint(header.replace("FTR", "FTR,HS") + sp1, "SP1")).isNotEqualTo(fingerprint);
+        assertThat(fingerprint(header + sp1 + sp2, "SP2")).isNotEqualTo(fingerprint);
+    }
+    
+    private String fingerprint(String content, String division) throws IOException {
+        return loader.load(csv(content).toString(), division, Set.of()).fingerprint().value(division + ":all");
+    }
+    
+    @Test
+    void appendedResultLoadsBack() throws IOException {
+        Path file = csv("Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR,HS\n" 
+                + "SP1,12/09/20,Barcelona,Sevilla,2,1,H,14");
+        CsvDataLoader.Tail tail = loader.load(file.toString(), "SP1", Set.of()).tail();
+        
+        tail = loader.appendMatch(file.toString(), "SP1", tail, result("SP1", "Real Madrid", "Betis"));
+        CsvDataLoader.LoadResult loaded = loader.load(file.toString(), "SP1", Set.of());
+        List<Match> matches = loaded.matches();
+        
+        assertThat(matches).hasSize(2);
+        assertThat(matches.get(1).getDate()).isEqualTo(LocalDate.of(2020, 9, 19));
+        assertThat(matches.get(1).getAwayTeam()).isEqualTo("Real Betis");
+        assertThat(matches.get(1).getFullTimeAwayGoals()).isEqualTo(3);
+        assertThat(matches.get(1).value("HS")).isNull();
+        assertThat(tail.offset()).isEqualTo(Files.size(file));
+        assertThat(tail.fingerprint().value("SP1:all")).isEqualTo(loaded.fingerprint().value("SP1:all"));
+    }
+    
+    @Test
+    void appendReadsOnlyPastTheTailUnlessTheFileWasRewritten() throws IOException {
+        String header = "Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR\n";
+        Path file = csv(header + "SP1,12/09/20,Barcelona,Sevilla,2,1,H\n");
+        CsvDataLoader.Tail tail = loader.load(file.toString(), "SP1", Set.of()).tail();
+        
+        // Rows written by something else since the load are picked up from the tail on
+        Files.writeString(file, "SP2,12/09/20,Zaragoza,Huesca,0,0,D\nSP1,13/09/20,Getafe,Osasuna,0,1,A\n", 
+                StandardOpenOption.APPEND);
+        tail = loader.appendMatch(file.toString(), "SP1", tail, result("SP1", "Real Madrid", "Betis"));
+        assertThat(tail.fingerprint().value("SP1:all")).isEqualTo(fingerprintOf(file, "SP1"));
+        
+        // A new download replaces the file; the tail no longer matches it, so it is read again under its new header
+        Files.writeString(file, header.replace("FTR", "FTR,HS") + "SP1,12/09/20,Barcelona,Sevilla,2,1,H,14\n" 
+                + "SP1,13/09/20,Getafe,Osasuna,0,1,A,9\nSP1,14/09/20,Valencia,Eibar,1,1,D,11\n");
+        tail = loader.appendMatch(file.toString(), "SP1", tail, result("SP1", "Real Madrid", "Betis"));
+        assertThat(tail.fingerprint().value("SP1:all")).isEqualTo(fingerprintOf(file, "SP1"));
+        assertThat(tail.header()).contains("HS");
+        assertThat(Files.readAllLines(file)).last().isEqualTo("SP1,19/09/2020,Real Madrid,Betis,3,3,D,");
+    }
+    
+    private String fingerprintOf(Path file, String division) throws IOException {
+        return loader.load(file.toString(), division, Set.of()).fingerprint().value(division + ":all");
+    }
+    
+    private static Match result(String division, String homeTeam, String awayTeam) {
+        return Match.builder()
+                .division(division)
+                .date(LocalDate.of(2020, 9, 19))
+                .homeTeam(homeTeam)
+                .awayTeam(awayTeam)
+                .fullTimeHomeGoals(3)
+                .fullTimeAwayGoals(3)
+                .fullTimeResult("D")
+                .build();
+    }
+}
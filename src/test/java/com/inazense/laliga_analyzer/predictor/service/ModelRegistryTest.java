@@ -0,0 +1,96 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.model.ModelSnapshot;
+import com.inazense.laliga_analyzer.predictor.model.TeamRatings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelRegistryTest {
+    
+    private static final String LEAGUE = "SP1";
+    private static final String VERSION = "v-shadow";
+    
+    @TempDir
+    Path modelsDir;
+    
+    private ModelStore modelStore;
+    private ModelRegistry registry;
+    
+    @BeforeEach
+    void setUp() {
+        modelStore = new ModelStore(new PredictorMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(modelStore, "modelsPath", modelsDir.toString());
+        ReflectionTestUtils.setField(modelStore, "modelVersion", "v0.1");
+        registry = new ModelRegistry(modelStore);
+        ReflectionTestUtils.setField(registry, "maxLoadedModels", 4);
+        ReflectionTestUtils.setField(registry, "missTtlSeconds", 3600L);
+        ReflectionTestUtils.setField(registry, "maxMisses", 16);
+    }
+    
+    private void save(String dataFingerprint) throws IOException {
+        modelStore.saveModel(LEAGUE, ModelSnapshot.builder()
+                .modelVersion(VERSION)
+                .dataFingerprint(dataFingerprint)
+                .ratings(new TeamRatings())
+                .build(), Map.of());
+    }
+    
+    private Path modelFile() {
+        return modelsDir.resolve(LEAGUE).resolve("model_" + VERSION + ".bin");
+    }
+    
+    @Test
+    void missIsRemembered() throws IOException {
+        assertThatThrownBy(() -> registry.get(LEAGUE, VERSION)).isInstanceOf(NoSuchElementException.class);
+        
+        save("first");
+        assertThatThrownBy(() -> registry.get(LEAGUE, VERSION)).isInstanceOf(NoSuchElementException.class);
+    }
+    
+    @Test
+    void expiredMissLooksAtTheDiskAgain() throws IOException {
+        ReflectionTestUtils.setField(registry, "missTtlSeconds", 0L);
+        assertThatThrownBy(() -> registry.get(LEAGUE, VERSION)).isInstanceOf(NoSuchElementException.class);
+        
+        save("first");
+        assertThat(registry.get(LEAGUE, VERSION).getDataFingerprint()).isEqualTo("first");
+    }
+    
+    @Test
+    void rewrittenFileIsLoadedAgain() throws IOException {
+        save("first");
+        assertThat(registry.get(LEAGUE, VERSION).getDataFingerprint()).isEqualTo("first");
+        assertThat(registry.getIfLoaded(LEAGUE, VERSION).getDataFingerprint()).isEqualTo("first");
+        
+        FileTime before = Files.getLastModifiedTime(modelFile());
+        save("second");
+        Files.setLastModifiedTime(modelFile(), FileTime.fromMillis(before.toMillis() + 1000));
+        
+        assertThat(registry.getIfLoaded(LEAGUE, VERSION)).isNull();
+        assertThat(registry.get(LEAGUE, VERSION).getDataFingerprint()).isEqualTo("second");
+    }
+    
+    @Test
+    void deletedFileIsNoLongerServed() throws IOException {
+        save("first");
+        registry.get(LEAGUE, VERSION);
+        Files.delete(modelFile());
+        
+        assertThat(registry.getIfLoaded(LEAGUE, VERSION)).isNull();
+        assertThatThrownBy(() -> registry.get(LEAGUE, VERSION)).isInstanceOf(NoSuchElementException.class);
+        assertThat(registry.getLoadedVersions(LEAGUE)).isEmpty();
+    }
+}
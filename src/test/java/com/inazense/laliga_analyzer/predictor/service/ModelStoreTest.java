@@ -0,0 +1,203 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.model.DecayedRatings;
+import com.inazense.laliga_analyzer.predictor.model.EloRatings;
+import com.inazense.laliga_analyzer.predictor.model.Match;
+import com.inazense.laliga_analyzer.predictor.model.ModelSnapshot;
+import com.inazense.laliga_analyzer.predictor.model.TeamRatings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelStoreTest {
+    
+    private static final String LEAGUE = "SP1";
+    private static final String VERSION = "v-test";
+    
+    @TempDir
+    Path modelsDir;
+    
+    private ModelStore modelStore;
+    
+    @BeforeEach
+    void setUp() {
+        modelStore = new ModelStore(new PredictorMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(modelStore, "modelsPath", modelsDir.toString());
+        ReflectionTestUtils.setField(modelStore, "modelVersion", VERSION);
+    }
+    
+    private static List<Match> matches() {
+        String[] teams = {"Barcelona", "Real Madrid", "Sevilla", "Valencia", "Getafe"};
+        List<Match> matches = new ArrayList<>();
+        LocalDate date = LocalDate.of(2020, 8, 1);
+        for (int round = 0; round < 6; round++) {
+            for (int i = 0; i < teams.length; i++) {
+                int homeGoals = (round + i) % 4;
+                int awayGoals = (round * 3 + i) % 3;
+                matches.add(Match.builder()
+                        .date(date.plusDays(round * 7L + i))
+                        .homeTeam(teams[i])
+                        .awayTeam(teams[(i + round + 1) % teams.length])
+                        .fullTimeHomeGoals(homeGoals)
+                        .fullTimeAwayGoals(awayGoals)
+                        .fullTimeResult(homeGoals > awayGoals ? "H" : homeGoals == awayGoals ? "D" : "A")
+                        .build());
+            }
+        }
+        return matches;
+    }
+    
+    private static ModelSnapshot snapshot(boolean decayed, boolean elo) {
+        TeamRatings ratings = new TeamRatings();
+        DecayedRatings decayedRatings = decayed ? new DecayedRatings(365) : null;
+        EloRatings eloRatings = elo ? new EloRatings(20, 100, 1200, 0.2) : null;
+        for (Match match : matches()) {
+            ratings.add(match);
+            if (decayedRatings != null) {
+                decayedRatings.add(match);
+            }
+            if (eloRatings != null) {
+                eloRatings.add(match);
+            }
+        }
+        return ModelSnapshot.builder()
+                .modelVersion(VERSION)
+                .dataFingerprint("fingerprint")
+                .createdAt(1_700_000_000_000L)
+                .ratings(ratings)
+                .decayedRatings(decayedRatings)
+                .eloRatings(eloRatings)
+                .build();
+    }
+    
+    private interface Section {
+        void write(DataOutputStream out) throws IOException;
+    }
+    
+    private static byte[] bytes(Section section) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            section.write(out);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private void assertRoundTrip(ModelSnapshot saved) throws IOException {
+        modelStore.saveModel(LEAGUE, saved, Map.of("league", LEAGUE));
+        ModelSnapshot loaded = modelStore.loadModel(LEAGUE, VERSION);
+        
+        assertThat(loaded.getModelVersion()).isEqualTo(saved.getModelVersion());
+        assertThat(loaded.getDataFingerprint()).isEqualTo(saved.getDataFingerprint());
+        assertThat(loaded.getCreatedAt()).isEqualTo(saved.getCreatedAt());
+        assertThat(loaded.getRatings().toTeamStatsMap()).isEqualTo(saved.getRatings().toTeamStatsMap());
+        // Every section read back encodes to exactly the bytes it was written from
+        assertThat(bytes(loaded.getRatings()::writeTo)).isEqualTo(bytes(saved.getRatings()::writeTo));
+        assertThat(loaded.getDecayedRatings() != null).isEqualTo(saved.getDecayedRatings() != null);
+        if (saved.getDecayedRatings() != null) {
+            assertThat(bytes(loaded.getDecayedRatings()::writeTo)).isEqualTo(bytes(saved.getDecayedRatings()::writeTo));
+        }
+        assertThat(loaded.getEloRatings() != null).isEqualTo(saved.getEloRatings() != null);
+        if (saved.getEloRatings() != null) {
+            assertThat(bytes(loaded.getEloRatings()::writeTo)).isEqualTo(bytes(saved.getEloRatings()::writeTo));
+        }
+    }
+    
+    @Test
+    void staticModelRoundTrips() throws IOException {
+        assertRoundTrip(snapshot(false, false));
+    }
+    
+    @Test
+    void decayedModelRoundTrips() throws IOException {
+        ModelSnapshot saved = snapshot(true, false);
+        assertRoundTrip(saved);
+        
+        ModelSnapshot loaded = modelStore.loadModel(LEAGUE, VERSION);
+        long day = LocalDate.of(2020, 9, 1).toEpochDay();
+        int team = saved.getDecayedRatings().indexOf("Sevilla", day);
+        assertThat(loaded.getDecayedRatings().attackStrength(team, day))
+                .isEqualTo(saved.getDecayedRatings().attackStrength(team, day));
+    }
+    
+    @Test
+    void eloModelRoundTrips() throws IOException {
+        ModelSnapshot saved = snapshot(false, true);
+        assertRoundTrip(saved);
+        
+        ModelSnapshot loaded = modelStore.loadModel(LEAGUE, VERSION);
+        long day = LocalDate.of(2020, 9, 1).toEpochDay();
+        assertThat(loaded.getEloRatings().ratingOf("Getafe", day)).isEqualTo(saved.getEloRatings().ratingOf("Getafe", day));
+    }
+    
+    @Test
+    void missingModelLoadsAsNull() throws IOException {
+        assertThat(modelStore.loadModel(LEAGUE, VERSION)).isNull();
+        assertThat(modelStore.loadMetadata(LEAGUE, VERSION)).isEmpty();
+    }
+    
+    @Test
+    void metadataIsStoredInTheModelFile() throws IOException {
+        modelStore.saveModel(LEAGUE, snapshot(false, true), Map.of("league", LEAGUE, "trainMatches", 30));
+        
+        assertThat(modelStore.loadMetadata(LEAGUE, VERSION)).containsEntry("league", LEAGUE).containsEntry("trainMatches", 30);
+        try (Stream<Path> files = Files.list(modelsDir.resolve(LEAGUE))) {
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactly("model_" + VERSION + ".bin");
+        }
+        
+        // A later save replaces model and metadata together
+        modelStore.saveModel(LEAGUE, snapshot(false, false), Map.of("league", LEAGUE, "trainMatches", 31));
+        assertThat(modelStore.loadMetadata(LEAGUE, VERSION)).containsEntry("trainMatches", 31);
+        assertThat(modelStore.loadModel(LEAGUE, VERSION).getEloRatings()).isNull();
+    }
+    
+    @Test
+    void exportWritesReadableMetadataAndTeamStats() throws IOException {
+        ReflectionTestUtils.setField(modelStore, "exportJson", true);
+        modelStore.saveModel(LEAGUE, snapshot(false, false), Map.of("league", LEAGUE));
+        
+        Path leagueDir = modelsDir.resolve(LEAGUE);
+        assertThat(Files.readString(leagueDir.resolve("metadata_" + VERSION + ".json"))).contains("\"league\" : \"SP1\"");
+        assertThat(Files.readString(leagueDir.resolve("team_stats_" + VERSION + ".json"))).contains("Barcelona");
+    }
+    
+    @Test
+    void flippedByteFailsChecksum() throws IOException {
+        modelStore.saveModel(LEAGUE, snapshot(true, false), Map.of());
+        Path file = modelsDir.resolve(LEAGUE).resolve("model_" + VERSION + ".bin");
+        byte[] content = Files.readAllBytes(file);
+        content[content.length / 2] ^= 0x01;
+        Files.write(file, content);
+        
+        assertThatThrownBy(() -> modelStore.loadModel(LEAGUE, VERSION))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Checksum mismatch");
+    }
+    
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        modelStore.saveModel(LEAGUE, snapshot(false, false), Map.of());
+        Path file = modelsDir.resolve(LEAGUE).resolve("model_" + VERSION + ".bin");
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 3));
+        
+        assertThatThrownBy(() -> modelStore.loadModel(LEAGUE, VERSION))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,177 @@
+package com.inazense.laliga_analyzer.predictor.service;
+
+import com.inazense.laliga_analyzer.predictor.dto.BatchPredictionResult;
+import com.inazense.laliga_analyzer.predictor.dto.PredictionRequest;
+import com.inazense.laliga_analyzer.predictor.model.PredictionResult;
+import com.inazense.laliga_analyzer.predictor.model.ReloadJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.inazense.laliga_analyzer.commons.enums.AppMessages.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PredictorServiceTest {
+    
+    private static final String LEAGUE = "SP1";
+    private static final String[] TEAMS = {"Barcelona", "Real Madrid", "Sevilla", "Valencia", "Getafe", "Osasuna"};
+    
+    @TempDir
+    Path dir;
+    
+    private PredictorService service;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        Path csv = dir.resolve("data.csv");
+        Files.writeString(csv, csv());
+        
+        PredictorMetrics metrics = new PredictorMetrics(new SimpleMeterRegistry());
+        ModelStore modelStore = new ModelStore(metrics);
+        ReflectionTestUtils.setField(modelStore, "modelsPath", dir.resolve("models").toString());
+        ReflectionTestUtils.setField(modelStore, "modelVersion", "v-test");
+        
+        LeagueSettings leagueSettings = new LeagueSettings();
+        ReflectionTestUtils.setField(leagueSettings, "configuredLeagues", List.of(LEAGUE));
+        ReflectionTestUtils.setField(leagueSettings, "csvPath", csv.toString());
+        leagueSettings.init();
+        
+        FeatureBuilder featureBuilder = new FeatureBuilder(metrics);
+        ReflectionTestUtils.setField(featureBuilder, "windowSize", 5);
+        ReflectionTestUtils.setField(featureBuilder, "minMatchesForFeatures", 2);
+        
+        PoissonModel poissonModel = new PoissonModel(metrics);
+        ReflectionTestUtils.setField(poissonModel, "ratingMode", "static");
+        
+        ModelRegistry modelRegistry = new ModelRegistry(modelStore);
+        ReflectionTestUtils.setField(modelRegistry, "maxLoadedModels", 4);
+        ReflectionTestUtils.setField(modelRegistry, "missTtlSeconds", 30L);
+        ReflectionTestUtils.setField(modelRegistry, "maxMisses", 16);
+        
+        PredictionCache predictionCache = new PredictionCache(metrics);
+        ReflectionTestUtils.setField(predictionCache, "maxEntries", 16);
+        ReflectionTestUtils.setField(predictionCache, "maxAgeSeconds", 60L);
+        
+        service = new PredictorService(new CsvDataLoader(metrics), featureBuilder, poissonModel, modelStore,
+                modelRegistry, predictionCache, leagueSettings);
+        ReflectionTestUtils.setField(service, "maxBatchSize", 100);
+        service.loadModel(new ReloadJob("test", LEAGUE)).join();
+    }
+    
+    // Ten double rounds of every team against every other, a week apart
+    private static String csv() {
+        StringBuilder csv = new StringBuilder("Div,Date,HomeTeam,AwayTeam,FTHG,FTAG,FTR\n");
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        LocalDate date = LocalDate.of(2020, 8, 1);
+        for (int round = 0; round < 10; round++) {
+            for (int home = 0; home < TEAMS.length; home++) {
+                for (int away = 0; away < TEAMS.length; away++) {
+                    if (home == away) {
+                        continue;
+                    }
+                    int homeGoals = (round + home * 2 + away) % 4;
+                    int awayGoals = (round + away * 3) % 3;
+                    String result = homeGoals > awayGoals ? "H" : homeGoals == awayGoals ? "D" : "A";
+                    csv.append(String.join(",", LEAGUE, date.format(format), TEAMS[home], TEAMS[away],
+                            String.valueOf(homeGoals), String.valueOf(awayGoals), result)).append('\n');
+                }
+            }
+            date = date.plusWeeks(1);
+        }
+        return csv.toString();
+    }
+    
+    private static PredictionRequest request(String home, String away, String date) {
+        PredictionRequest request = new PredictionRequest();
+        request.setHomeTeam(home);
+        request.setAwayTeam(away);
+        request.setDate(date);
+        return request;
+    }
+    
+    private static double[] probabilities(PredictionResult result) {
+        return new double[] {
+                result.getProbabilities().getHomeWin(),
+                result.getProbabilities().getDraw(),
+                result.getProbabilities().getAwayWin()
+        };
+    }
+    
+    @Test
+    void batchKeepsRequestOrderAndMatchesSinglePredictions() throws IOException {
+        List<PredictionRequest> requests = new ArrayList<>();
+        for (int home = 0; home < TEAMS.length; home++) {
+            for (int away = 0; away < TEAMS.length; away++) {
+                if (home != away) {
+                    requests.add(request(TEAMS[home], TEAMS[away], "2020-09-0" + (1 + (home + away) % 9)));
+                }
+            }
+        }
+        
+        List<BatchPredictionResult> results = service.predictBatch(requests);
+        
+        assertThat(results).hasSize(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BatchPredictionResult result = results.get(i);
+            PredictionRequest request = requests.get(i);
+            assertThat(result.getIndex()).isEqualTo(i);
+            assertThat(result.getCode()).isEqualTo(PREDICTOR_PREDICT_OK.getCode());
+            PredictionResult single = service.predict(LEAGUE, request.getHomeTeam(), request.getAwayTeam(),
+                    LocalDate.parse(request.getDate()));
+            assertThat(probabilities(result.getPrediction())).containsExactly(probabilities(single));
+        }
+    }
+    
+    @Test
+    void failingItemsAreReportedInTheirOwnSlots() {
+        PredictionRequest unknownLeague = request("Barcelona", "Sevilla", "2020-09-01");
+        unknownLeague.setLeague("E0");
+        PredictionRequest unknownVersion = request("Barcelona", "Sevilla", "2020-09-01");
+        unknownVersion.setModelVersion("v-missing");
+        List<PredictionRequest> requests = Arrays.asList(
+                request("Barcelona", "Sevilla", "2020-09-01"),
+                request("Barcelona", null, "2020-09-01"),
+                request("Valencia", "Getafe", "01/09/2020"),
+                null,
+                unknownLeague,
+                unknownVersion,
+                request("Osasuna", "Real Madrid", "2020-09-02"));
+        
+        List<BatchPredictionResult> results = service.predictBatch(requests);
+        
+        assertThat(results).extracting(BatchPredictionResult::getIndex).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(results).extracting(BatchPredictionResult::getCode).containsExactly(
+                PREDICTOR_PREDICT_OK.getCode(),
+                PREDICTOR_PREDICT_FAIL_TEAMS.getCode(),
+                PREDICTOR_PREDICT_FAIL_DATE.getCode(),
+                PREDICTOR_PREDICT_FAIL_TEAMS.getCode(),
+                PREDICTOR_PREDICT_FAIL_LEAGUE.getCode(),
+                PREDICTOR_PREDICT_FAIL_VERSION.getCode(),
+                PREDICTOR_PREDICT_OK.getCode());
+        assertThat(results.get(0).getPrediction()).isNotNull();
+        assertThat(results.get(6).getPrediction()).isNotNull();
+        assertThat(results.subList(1, 6)).allSatisfy(result -> assertThat(result.getPrediction()).isNull());
+    }
+    
+    @Test
+    void itemKeepsTheIndexItWasGiven() {
+        BatchPredictionResult result = service.predictItem(41, request("Sevilla", "Getafe", "2020-09-03"));
+        BatchPredictionResult failed = service.predictItem(7, request(null, "Getafe", "2020-09-03"));
+        
+        assertThat(result.getIndex()).isEqualTo(41);
+        assertThat(result.getCode()).isEqualTo(PREDICTOR_PREDICT_OK.getCode());
+        assertThat(failed.getIndex()).isEqualTo(7);
+        assertThat(failed.getMessage()).isEqualTo(PREDICTOR_PREDICT_FAIL_TEAMS.getMessage());
+    }
+}
@@ -0,0 +1,67 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BootstrapTest {
+    
+    private static final double[][] SCORES = scores(500, 7);
+    
+    @Test
+    void sameSeedGivesSameIntervalsWhateverTheParallelism() throws Exception {
+        double[][] first = Bootstrap.percentileIntervals(SCORES, 400, 0.95, 42L);
+        double[][] second = Bootstrap.percentileIntervals(SCORES, 400, 0.95, 42L);
+        
+        ForkJoinPool single = new ForkJoinPool(1);
+        double[][] sequential;
+        try {
+            sequential = single.submit(() -> Bootstrap.percentileIntervals(SCORES, 400, 0.95, 42L)).get();
+        } finally {
+            single.shutdown();
+        }
+        
+        assertThat(second).isDeepEqualTo(first);
+        assertThat(sequential).isDeepEqualTo(first);
+    }
+    
+    @Test
+    void differentSeedsResampleDifferently() {
+        double[][] first = Bootstrap.percentileIntervals(SCORES, 400, 0.95, 42L);
+        double[][] other = Bootstrap.percentileIntervals(SCORES, 400, 0.95, 43L);
+        
+        assertThat(Arrays.deepEquals(other, first)).isFalse();
+    }
+    
+    @Test
+    void intervalsContainTheSampleMean() {
+        double[][] intervals = Bootstrap.percentileIntervals(SCORES, 400, 0.95, 42L);
+        
+        for (int metric = 0; metric < SCORES.length; metric++) {
+            double mean = Arrays.stream(SCORES[metric]).average().orElseThrow();
+            assertThat(intervals[metric][0]).isLessThan(mean);
+            assertThat(intervals[metric][1]).isGreaterThan(mean);
+        }
+    }
+    
+    @Test
+    void constantScoresGiveAPointInterval() {
+        double[][] constant = {{0.25, 0.25, 0.25, 0.25}};
+        
+        assertThat(Bootstrap.percentileIntervals(constant, 50, 0.9, 1L)).isDeepEqualTo(new double[][] {{0.25, 0.25}});
+    }
+    
+    private static double[][] scores(int n, long seed) {
+        Random random = new Random(seed);
+        double[][] scores = new double[2][n];
+        for (int i = 0; i < n; i++) {
+            scores[0][i] = random.nextBoolean() ? 1.0 : 0.0;
+            scores[1][i] = random.nextDouble();
+        }
+        return scores;
+    }
+}
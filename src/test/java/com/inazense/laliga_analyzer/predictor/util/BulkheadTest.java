@@ -0,0 +1,84 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+    
+    @Test
+    void acquiresFreePermitsAtOnce() {
+        Bulkhead bulkhead = new Bulkhead("test", 2, 0, 0);
+        
+        try (Bulkhead.Permit first = bulkhead.acquire(); Bulkhead.Permit second = bulkhead.acquire()) {
+            assertThat(bulkhead.getInUse()).isEqualTo(2);
+        }
+        assertThat(bulkhead.getInUse()).isZero();
+        assertThat(bulkhead.getRejected()).isZero();
+    }
+    
+    @Test
+    void rejectsAtOnceWhenTheQueueIsFull() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0, 60_000);
+        
+        try (Bulkhead.Permit held = bulkhead.acquire()) {
+            long start = System.nanoTime();
+            assertThatThrownBy(bulkhead::acquire)
+                    .isInstanceOf(BulkheadFullException.class)
+                    .hasMessageContaining("test");
+            // No room to queue, so it never waited for the minute it would otherwise be allowed
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(10));
+        }
+        assertThat(bulkhead.getRejected()).isEqualTo(1);
+    }
+    
+    @Test
+    void rejectsAWaiterOnceItsWaitRunsOut() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1, 50);
+        
+        try (Bulkhead.Permit held = bulkhead.acquire()) {
+            long start = System.nanoTime();
+            assertThatThrownBy(bulkhead::acquire).isInstanceOf(BulkheadFullException.class);
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        assertThat(bulkhead.getRejected()).isEqualTo(1);
+    }
+    
+    @Test
+    void waiterGetsAPermitReleasedWithinItsWait() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1, 60_000);
+        Bulkhead.Permit held = bulkhead.acquire();
+        
+        CompletableFuture<Bulkhead.Permit> waiter = CompletableFuture.supplyAsync(bulkhead::acquire);
+        while (bulkhead.getQueueLength() == 0) {
+            Thread.onSpinWait();
+        }
+        held.close();
+        
+        try (Bulkhead.Permit permit = waiter.join()) {
+            assertThat(bulkhead.getInUse()).isEqualTo(1);
+        }
+        assertThat(bulkhead.getRejected()).isZero();
+    }
+    
+    @Test
+    void closingAPermitTwiceReleasesItOnce() {
+        Bulkhead bulkhead = new Bulkhead("test", 2, 0, 0);
+        Bulkhead.Permit first = bulkhead.acquire();
+        Bulkhead.Permit second = bulkhead.acquire();
+        
+        first.close();
+        first.close();
+        
+        assertThat(bulkhead.getInUse()).isEqualTo(1);
+        try (Bulkhead.Permit third = bulkhead.acquire()) {
+            assertThatThrownBy(bulkhead::acquire).isInstanceOf(BulkheadFullException.class);
+        }
+        second.close();
+        assertThat(bulkhead.getInUse()).isZero();
+    }
+}
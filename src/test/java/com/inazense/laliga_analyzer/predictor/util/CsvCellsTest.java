@@ -0,0 +1,106 @@
+package com.inazense.laliga_analyzer.predictor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvCellsTest {
+    
+    private static byte[] bytes(String csv) {
+        return csv.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    void splitsPlainCellsAndTrimsThem() {
+        byte[] data = bytes("SP1, 12/09/20 ,Barcelona,,3\n");
+        CsvCells cells = new CsvCells();
+        
+        assertThat(cells.scan(data, 0, data.length)).isEqualTo(data.length);
+        assertThat(cells.getCount()).isEqualTo(5);
+        assertThat(cells.text(data, 1)).isEqualTo("12/09/20");
+        assertThat(cells.matches(data, 2, "Barcelona")).isTrue();
+        assertThat(cells.isBlank(data, 3)).isTrue();
+        assertThat(cells.text(data, 3)).isNull();
+        assertThat(cells.intValue(data, 4)).isEqualTo(3);
+        assertThat(cells.text(data, 5)).isNull();
+        assertThat(cells.isBlank(data, 5)).isTrue();
+    }
+    
+    @Test
+    void quotedCellsKeepCommasLineBreaksAndEscapedQuotes() {
+        byte[] data = bytes("\"Ath Bilbao, B\",\"say \"\"hi\"\"\",\"two\nlines\",x\n");
+        CsvCells cells = new CsvCells();
+        cells.scan(data, 0, data.length);
+        
+        assertThat(cells.getCount()).isEqualTo(4);
+        assertThat(cells.text(data, 0)).isEqualTo("Ath Bilbao, B");
+        assertThat(cells.text(data, 1)).isEqualTo("say \"hi\"");
+        assertThat(cells.text(data, 2)).isEqualTo("two\nlines");
+        assertThat(cells.text(data, 3)).isEqualTo("x");
+        assertThat(cells.isUnterminated()).isFalse();
+    }
+    
+    @Test
+    void rowsEndOnLfCrLfOrLoneCr() {
+        byte[] data = bytes("a,b\r\nc\rd\ne");
+        CsvCells cells = new CsvCells();
+        
+        int pos = cells.scan(data, 0, data.length);
+        assertThat(pos).isEqualTo(5);
+        assertThat(cells.getCount()).isEqualTo(2);
+        assertThat(cells.text(data, 1)).isEqualTo("b");
+        
+        pos = cells.scan(data, pos, data.length);
+        assertThat(cells.text(data, 0)).isEqualTo("c");
+        pos = cells.scan(data, pos, data.length);
+        assertThat(cells.text(data, 0)).isEqualTo("d");
+        
+        // The last row needs no line break
+        pos = cells.scan(data, pos, data.length);
+        assertThat(pos).isEqualTo(data.length);
+        assertThat(cells.text(data, 0)).isEqualTo("e");
+    }
+    
+    @Test
+    void unterminatedQuoteIsReported() {
+        byte[] data = bytes("a,\"never closed\nb,c\n");
+        CsvCells cells = new CsvCells();
+        
+        assertThat(cells.scan(data, 0, data.length)).isEqualTo(data.length);
+        assertThat(cells.isUnterminated()).isTrue();
+        
+        // The flag is reset by the next scan
+        byte[] next = bytes("a,b\n");
+        cells.scan(next, 0, next.length);
+        assertThat(cells.isUnterminated()).isFalse();
+    }
+    
+    @Test
+    void numbersParseOnlyWhenTheWholeCellIsOne() {
+        byte[] data = bytes("-2,+7,1.85,x1,1234567890,20:00\n");
+        CsvCells cells = new CsvCells();
+        cells.scan(data, 0, data.length);
+        
+        assertThat(cells.intValue(data, 0)).isEqualTo(-2);
+        assertThat(cells.intValue(data, 1)).isEqualTo(7);
+        assertThat(cells.intValue(data, 2)).isNull();
+        assertThat(cells.doubleValue(data, 2)).isEqualTo(1.85);
+        assertThat(cells.intValue(data, 3)).isNull();
+        assertThat(cells.doubleValue(data, 3)).isNull();
+        assertThat(cells.intValue(data, 4)).isNull();
+        assertThat(cells.intValue(data, 5)).isNull();
+    }
+    
+    @Test
+    void scanCanStopAfterTheLeadingCells() {
+        byte[] data = bytes("a,b,c,d\n");
+        CsvCells cells = new CsvCells();
+        
+        int pos = cells.scan(data, 0, data.length, 2);
+        assertThat(cells.getCount()).isEqualTo(2);
+        assertThat(cells.text(data, 1)).isEqualTo("b");
+        assertThat(pos).isLessThan(data.length);
+    }
+}